@@ -97,6 +97,16 @@ public class PageRankingController {
         }
     }
 
+    /**
+     * Heap footprint of the URL word Trie.
+     * 
+     * @return backend, word count and estimated bytes
+     */
+    @GetMapping("/trie-stats")
+    public ResponseEntity<Map<String, Object>> trieStats() {
+        return ResponseEntity.ok(pageRankingService.getTrieFootprint());
+    }
+
     /**
      * Health check endpoint for page ranking service.
      * 
@@ -1,21 +1,35 @@
 package com.farhan.theatrecraft.api;
 
+import com.farhan.theatrecraft.core.crawler.CrawlWaitStats;
 import com.farhan.theatrecraft.core.model.Brand;
+import com.farhan.theatrecraft.core.model.CrawlJob;
+import com.farhan.theatrecraft.core.model.CrawlProgress;
 import com.farhan.theatrecraft.core.model.Product;
 import com.farhan.theatrecraft.core.service.CrawlService;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
+import java.io.IOException;
+import java.net.URI;
 import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
 
 @RestController
 @RequestMapping("/api/products")
 public class ProductController {
 
+    private static final long SSE_TIMEOUT_MILLIS = TimeUnit.MINUTES.toMillis(30);
+
     private final CrawlService crawlService;
+    private final CrawlWaitStats crawlWaitStats;
 
-    public ProductController(CrawlService crawlService) {
+    public ProductController(CrawlService crawlService, CrawlWaitStats crawlWaitStats) {
         this.crawlService = crawlService;
+        this.crawlWaitStats = crawlWaitStats;
     }
 
     // GET /api/products
@@ -40,20 +54,128 @@ public class ProductController {
         return ResponseEntity.ok(crawlService.getLatestProducts(limit));
     }
 
-    // POST /api/products/crawl/{brand}
-    // e.g. POST /api/products/crawl/BOSE
+    // POST /api/products/crawl/{brand}?mode=full|delta
+    // e.g. POST /api/products/crawl/BOSE?mode=delta
+    // Starts the crawl in the background and returns 202 with the job; follow it on /crawl-jobs/{jobId}/events
+    // mode=delta only parses new or changed product pages (default: full)
+    // 409 while the brand is being crawled in the other mode
     @PostMapping("/crawl/{brand}")
-    public ResponseEntity<List<Product>> crawlBrand(@PathVariable String brand) {
+    public ResponseEntity<CrawlJob> crawlBrand(@PathVariable String brand,
+                                               @RequestParam(defaultValue = "full") String mode) {
         try {
             Brand brandEnum = Brand.valueOf(brand.toUpperCase());
-            List<Product> crawledProducts = crawlService.crawlBrand(brandEnum);
-            return ResponseEntity.ok(crawledProducts);
+            CrawlJob job = crawlService.startCrawlBrand(brandEnum, isDeltaMode(mode));
+            return ResponseEntity.accepted()
+                    .location(URI.create("/api/products/crawl-jobs/" + job.getId()))
+                    .body(job);
+        } catch (IllegalArgumentException e) {
+            // invalid brand enum or mode
+            return ResponseEntity.badRequest().build();
+        } catch (IllegalStateException e) {
+            // Already being crawled in the other mode; retry once it finishes
+            return ResponseEntity.status(HttpStatus.CONFLICT).build();
+        }
+    }
+
+    // POST /api/products/crawl-all?mode=full|delta
+    // Starts crawling every brand in the background; poll the returned job for progress
+    // 409 while a single-brand crawl, or a crawl-all of the other mode, is running
+    @PostMapping("/crawl-all")
+    public ResponseEntity<CrawlJob> crawlAll(@RequestParam(defaultValue = "full") String mode) {
+        try {
+            CrawlJob job = crawlService.startCrawlAll(isDeltaMode(mode));
+            return ResponseEntity.accepted()
+                    .location(URI.create("/api/products/crawl-jobs/" + job.getId()))
+                    .body(job);
         } catch (IllegalArgumentException e) {
-            // invalid brand enum
             return ResponseEntity.badRequest().build();
-        } catch (Exception e) {
-            e.printStackTrace();
-            return ResponseEntity.internalServerError().build();
+        } catch (IllegalStateException e) {
+            // A single-brand crawl (or crawl-all in the other mode) is still running; retry once it finishes
+            return ResponseEntity.status(HttpStatus.CONFLICT).build();
+        }
+    }
+
+    // GET /api/products/crawl-jobs/{jobId}
+    @GetMapping("/crawl-jobs/{jobId}")
+    public ResponseEntity<CrawlJob> getCrawlJob(@PathVariable String jobId) {
+        CrawlJob job = crawlService.getJob(jobId);
+        if (job == null) {
+            return ResponseEntity.notFound().build();
+        }
+        return ResponseEntity.ok(job);
+    }
+
+    // GET /api/products/crawl-waits
+    // Time crawlers spent in readiness waits, per brand and wait kind (largest total first)
+    @GetMapping("/crawl-waits")
+    public ResponseEntity<List<CrawlWaitStats.WaitStat>> getCrawlWaits() {
+        return ResponseEntity.ok(crawlWaitStats.getStats());
+    }
+
+    // GET /api/products/crawl-jobs/{jobId}/events
+    // Server-Sent Events: "job" (current state), then "progress" per product page, then "done"
+    @GetMapping(value = "/crawl-jobs/{jobId}/events", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public ResponseEntity<SseEmitter> streamCrawlJob(@PathVariable String jobId) {
+        CrawlJob job = crawlService.getJob(jobId);
+        if (job == null) {
+            return ResponseEntity.notFound().build();
+        }
+
+        SseEmitter emitter = new SseEmitter(SSE_TIMEOUT_MILLIS);
+        Consumer<CrawlProgress> listener = new Consumer<>() {
+            private boolean closed;
+
+            @Override
+            public void accept(CrawlProgress event) {
+                boolean last = event.getType() == CrawlProgress.Type.JOB_FINISHED;
+                synchronized (this) {
+                    if (closed) {
+                        return;
+                    }
+                    closed = last;
+                    try {
+                        if (last) {
+                            emitter.send(SseEmitter.event().name("done").data(job));
+                            emitter.complete();
+                        } else {
+                            emitter.send(SseEmitter.event().name("progress").data(event));
+                        }
+                    } catch (IOException | IllegalStateException e) {
+                        // Client went away (or the stream timed out); stop sending to it
+                        closed = true;
+                        job.removeListener(this);
+                        emitter.completeWithError(e);
+                    }
+                }
+            }
+        };
+        emitter.onCompletion(() -> job.removeListener(listener));
+        emitter.onTimeout(() -> job.removeListener(listener));
+        emitter.onError(e -> job.removeListener(listener));
+
+        try {
+            emitter.send(SseEmitter.event().name("job").data(job));
+        } catch (IOException e) {
+            emitter.completeWithError(e);
+            return ResponseEntity.ok(emitter);
+        }
+
+        job.addListener(listener);
+        if (job.isFinished()) {
+            // Finished before (or while) we subscribed: JOB_FINISHED may have been missed
+            listener.accept(new CrawlProgress(CrawlProgress.Type.JOB_FINISHED, null, 0, 0,
+                    job.getTotalProducts(), 0, null, null, job.getMessage()));
+        }
+        return ResponseEntity.ok(emitter);
+    }
+
+    private boolean isDeltaMode(String mode) {
+        if ("delta".equalsIgnoreCase(mode)) {
+            return true;
+        }
+        if ("full".equalsIgnoreCase(mode)) {
+            return false;
         }
+        throw new IllegalArgumentException("Unknown crawl mode: " + mode);
     }
 }
@@ -8,6 +8,7 @@ import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
 import java.util.List;
+import java.util.Map;
 
 @RestController
 @RequestMapping("/api/search")
@@ -66,6 +67,33 @@ public class SearchController {
         return ResponseEntity.ok(topSearches);
     }
 
+    /**
+     * Get frequency tracking mode and error bounds
+     * GET /api/search/frequencies/stats
+     */
+    @GetMapping("/frequencies/stats")
+    public ResponseEntity<FrequencyTrackingStats> getFrequencyStats() {
+        return ResponseEntity.ok(searchService.getFrequencyStats());
+    }
+
+    /**
+     * Get the (estimated) search count of a query
+     * GET /api/search/frequencies/estimate?query=text
+     */
+    @GetMapping("/frequencies/estimate")
+    public ResponseEntity<SearchFrequency> estimateSearchFrequency(@RequestParam String query) {
+        return ResponseEntity.ok(new SearchFrequency(query, searchService.estimateSearchFrequency(query)));
+    }
+
+    /**
+     * Heap footprint of the product name Trie
+     * GET /api/search/trie-stats
+     */
+    @GetMapping("/trie-stats")
+    public ResponseEntity<Map<String, Object>> getTrieStats() {
+        return ResponseEntity.ok(searchService.getTrieFootprint());
+    }
+
     /**
      * Reload products (useful after crawling new data)
      * POST /api/search/reload
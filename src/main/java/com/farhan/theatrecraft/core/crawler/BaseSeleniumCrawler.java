@@ -1,35 +1,541 @@
 package com.farhan.theatrecraft.core.crawler;
 
-import io.github.bonigarcia.wdm.WebDriverManager;
+import com.farhan.theatrecraft.core.model.Brand;
+import com.farhan.theatrecraft.core.model.Product;
+import org.jsoup.Connection;
+import org.jsoup.Jsoup;
+import org.jsoup.nodes.Document;
+import org.openqa.selenium.By;
+import org.openqa.selenium.JavascriptExecutor;
 import org.openqa.selenium.WebDriver;
-import org.openqa.selenium.chrome.ChromeDriver;
-import org.openqa.selenium.chrome.ChromeOptions;
+import org.openqa.selenium.WebDriverException;
+import org.openqa.selenium.WebElement;
+import org.openqa.selenium.support.ui.WebDriverWait;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.env.Environment;
+
+import java.time.Duration;
+import java.util.*;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
 
 public abstract class BaseSeleniumCrawler {
 
+    @Autowired(required = false)
+    private WebDriverPool driverPool;
+
+    @Value("${theatrecraft.webdriver.sessions-per-brand:2}")
+    private int sessionsPerBrand;
+
+    @Autowired(required = false)
+    private Environment environment;
+
+    @Autowired(required = false)
+    private CrawlWaitStats waitStats;
+
+    @Autowired(required = false)
+    private CrawlFixtures fixtures;
+
+    static final String USER_AGENT = "Mozilla/5.0 (Windows NT 10.0; Win64; x64) AppleWebKit/537.36";
+    static final String FETCH_MODE_JSOUP_FIRST = "jsoup-first";
+
+    private static final long DEFAULT_WAIT_SECONDS = 15;
+    private static final Duration WAIT_POLL = Duration.ofMillis(100);
+    private static final long NETWORK_QUIET_MILLIS = 500; // No new requests for this long = network idle
+    private static final int MAX_BORROW_ATTEMPTS = 3; // Timed-out pool borrows before a worker gives up on Selenium
+
+    // Counts finished resource requests; the timing buffer is raised so the count keeps growing
+    private static final String RESOURCE_COUNT_SCRIPT =
+            "if (!window.__tcTimingBuffer) { performance.setResourceTimingBufferSize(100000); window.__tcTimingBuffer = true; }" +
+            "return document.readyState === 'complete' ? performance.getEntriesByType('resource').length : -1;";
+
+    private volatile Duration waitTimeout; // Resolved lazily from config
+
+    /**
+     * Parses one product page in the given browser (null if it is not a product)
+     */
+    @FunctionalInterface
+    protected interface ProductPageParser {
+        Product parse(WebDriver driver, String productUrl) throws Exception;
+    }
+
+    /**
+     * Parses an already fetched product page document (null if it is not a product)
+     */
+    @FunctionalInterface
+    protected interface ProductDocumentParser {
+        Product parse(Document doc, String productUrl) throws Exception;
+    }
+
     protected WebDriver createDriver() {
-        WebDriverManager.chromedriver().setup();
-        
-        ChromeOptions options = new ChromeOptions();
-        options.addArguments("--headless"); // Run in headless mode
-        options.addArguments("--disable-gpu");
-        options.addArguments("--no-sandbox");
-        options.addArguments("--disable-dev-shm-usage");
-        options.addArguments("--window-size=1920,1080");
-        options.addArguments("--user-agent=Mozilla/5.0 (Windows NT 10.0; Win64; x64) AppleWebKit/537.36");
-        
-        return new ChromeDriver(options);
-    }
-
-    protected void sleep(long milliseconds) {
+        return WebDriverPool.newDriver();
+    }
+
+    /**
+     * Open a page in the browser (its recorded copy when replaying fixtures)
+     */
+    protected void loadPage(WebDriver driver, String url) {
+        driver.get(fixtures != null ? fixtures.resolve(getCrawlerBrand(), url) : url);
+    }
+
+    /**
+     * The browser's current HTML of the page at url (saved as a fixture when recording)
+     */
+    protected String getPageSource(WebDriver driver, String url) {
+        String html = driver.getPageSource();
+        if (fixtures != null) {
+            fixtures.record(getCrawlerBrand(), url, html);
+        }
+        return html;
+    }
+
+    /**
+     * Save the browser's current HTML of the page at url as a fixture (no-op unless recording)
+     * For pages read through WebElements instead of getPageSource.
+     */
+    protected void recordPage(WebDriver driver, String url) {
+        if (fixtures != null && fixtures.isRecording()) {
+            fixtures.record(getCrawlerBrand(), url, driver.getPageSource());
+        }
+    }
+
+    /**
+     * Check out a browser session from the pool (a standalone driver if there is no pool)
+     * Close the session to give it back.
+     */
+    protected WebDriverPool.Session openSession() throws InterruptedException {
+        if (driverPool == null) {
+            return WebDriverPool.Session.standalone(createDriver());
+        }
+        return driverPool.borrow();
+    }
+
+    /**
+     * Parse product pages in Selenium only (see the four-argument overload)
+     */
+    protected List<Product> parseProductPages(Collection<String> productUrls, ProductPageParser pageParser,
+                                              CrawlContext context) {
+        return parseProductPages(productUrls, null, pageParser, context);
+    }
+
+    /**
+     * Parse product pages, fanned out over up to sessions-per-brand pooled browser sessions
+     * In jsoup-first fetch mode each page is first fetched over plain HTTP and parsed by
+     * documentParser; Selenium (pageParser) only runs when that fails or the product is
+     * missing required fields. Browser sessions are checked out lazily, so a fully
+     * server-rendered brand never starts Chrome for its product pages. Each worker keeps
+     * its session for many pages and swaps it for a fresh one when it is worn out or broken.
+     * A page whose worker could not borrow a session goes back on the queue; only after
+     * repeated borrow timeouts does that worker fail its Selenium pages.
+     * In a delta crawl a page whose fingerprint did not change is not parsed at all: its
+     * previous product is carried forward. Pages done before an interrupted crawl are taken
+     * from the context's checkpoint, and a page that fails keeps its previous product.
+     * Progress is reported to the context per page.
+     *
+     * @param productUrls Product page URLs
+     * @param documentParser Parses a fetched page document (null = Selenium only)
+     * @param pageParser Loads and parses one page in a session's driver
+     * @param context Crawl context for progress
+     * @return Parsed products, in URL order
+     */
+    protected List<Product> parseProductPages(Collection<String> productUrls, ProductDocumentParser documentParser,
+                                              ProductPageParser pageParser, CrawlContext context) {
+        List<String> urls = new ArrayList<>(productUrls);
+        Product[] parsed = new Product[urls.size()];
+        Queue<Integer> pending = new ConcurrentLinkedQueue<>();
+        for (int i = 0; i < urls.size(); i++) {
+            pending.add(i);
+        }
+
+        boolean fastPath = documentParser != null && FETCH_MODE_JSOUP_FIRST.equals(getFetchMode());
+        boolean delta = context.isDelta();
+        AtomicInteger viaHttp = new AtomicInteger();
+        AtomicInteger viaBrowser = new AtomicInteger();
+
+        int workers = Math.max(1, Math.min(sessionsPerBrand, urls.size()));
+        if (driverPool != null) {
+            workers = Math.min(workers, driverPool.getMaxSessions());
+        }
+
+        String name = getClass().getSimpleName();
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int w = 0; w < workers; w++) {
+                executor.submit(() -> {
+                    WebDriverPool.Session session = null;
+                    int borrowFailures = 0;
+                    String noBrowser = null; // Set once this worker gives up on getting a browser
+                    try {
+                        Integer index;
+                        while ((index = pending.poll()) != null) {
+                            String url = urls.get(index);
+                            System.out.println(name + ": Parsing product " + (index + 1) + "/" + urls.size());
+                            Product resumed = context.getCheckpointedProduct(url);
+                            if (resumed != null) {
+                                parsed[index] = resumed;
+                                context.productResumed(url, resumed);
+                                continue;
+                            }
+                            Product previous = context.getPreviousProduct(url);
+
+                            // One plain HTTP fetch serves both change detection and the jsoup fast path
+                            FetchedPage page = fastPath || delta ? fetchPage(url, delta ? previous : null) : null;
+                            if (delta && previous != null && page != null && page.isUnchangedFrom(previous)) {
+                                parsed[index] = previous;
+                                context.productUnchanged(url, previous);
+                                continue;
+                            }
+
+                            long parseNanos = 0;
+                            boolean parserRan = false;
+                            Product product = null;
+                            if (fastPath && page != null && page.doc != null) {
+                                long parseStart = System.nanoTime();
+                                product = parseFetchedPage(documentParser, page.doc, url);
+                                parseNanos += System.nanoTime() - parseStart;
+                                parserRan = true;
+                            }
+                            String failure = "Parse returned no product";
+                            if (product != null) {
+                                viaHttp.incrementAndGet();
+                            } else {
+                                if (session == null && noBrowser == null) {
+                                    try {
+                                        session = openSession();
+                                        borrowFailures = 0;
+                                    } catch (IllegalStateException e) {
+                                        // Pool exhausted (borrow timed out): put the page back so this or another
+                                        // worker picks it up, rather than losing it with the worker
+                                        if (++borrowFailures < MAX_BORROW_ATTEMPTS) {
+                                            pending.add(index);
+                                            System.out.println(name + ": No browser session free, retrying - " + e.getMessage());
+                                            continue;
+                                        }
+                                        noBrowser = e.getMessage();
+                                    }
+                                }
+
+                                if (session == null) {
+                                    failure = noBrowser;
+                                } else {
+                                    viaBrowser.incrementAndGet();
+                                    long parseStart = System.nanoTime();
+                                    parserRan = true;
+                                    try {
+                                        product = pageParser.parse(session.getDriver(), url);
+                                    } catch (WebDriverException e) {
+                                        // The browser itself failed; do not hand this session out again
+                                        session.invalidate();
+                                        failure = e.getMessage();
+                                        System.out.println(name + ": Browser error on " + url + " -> " + e.getMessage());
+                                    } catch (Exception e) {
+                                        failure = e.getMessage();
+                                        System.out.println(name + ": Error processing product URL " + url + " -> " + e.getMessage());
+                                    } finally {
+                                        parseNanos += System.nanoTime() - parseStart;
+                                    }
+
+                                    session.pageVisited();
+                                    if (session.isWornOut() || session.isBroken()) {
+                                        session.close();
+                                        session = null;
+                                    }
+                                }
+                            }
+
+                            if (parserRan) {
+                                context.parseTimed(parseNanos);
+                            }
+                            if (product != null) {
+                                if (page != null) {
+                                    product.setFingerprint(page.fingerprint);
+                                }
+                                if (previous != null) {
+                                    product.setId(previous.getId()); // Same page, same product id
+                                }
+                                parsed[index] = product;
+                                context.productParsed(url, product);
+                                System.out.println(name + ": Successfully parsed - " + product.getModelName());
+                            } else {
+                                if (previous != null) {
+                                    // Still listed but unreadable right now: keep what we had
+                                    parsed[index] = previous;
+                                }
+                                context.productFailed(url, failure);
+                                System.out.println(name + ": Failed to parse product from: " + url);
+                            }
+                        }
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    } catch (Exception e) {
+                        System.err.println(name + ": Product worker stopped - " + e.getMessage());
+                    } finally {
+                        if (session != null) {
+                            session.close();
+                        }
+                    }
+                });
+            }
+        } // close() waits for every worker
+
+        if (fastPath) {
+            System.out.println(name + ": " + viaHttp.get() + " product pages parsed over HTTP, " +
+                    viaBrowser.get() + " rendered in Selenium");
+        }
+        if (context.getResumed() > 0) {
+            System.out.println(name + ": Resumed " + context.getResumed() + " product pages from checkpoint");
+        }
+        if (delta) {
+            System.out.println(name + ": Delta crawl - " + context.getUnchanged() + " of " + urls.size() +
+                    " product pages unchanged");
+        }
+
+        List<Product> products = new ArrayList<>();
+        for (Product product : parsed) {
+            if (product != null) {
+                products.add(product);
+            }
+        }
+        return products;
+    }
+
+    /**
+     * Fetch a product page over plain HTTP
+     * With a previous product the request is conditional (If-None-Match / If-Modified-Since),
+     * so an unchanged page may come back as an empty 304.
+     *
+     * @return The page, or null if the fetch failed
+     */
+    private FetchedPage fetchPage(String url, Product previous) {
+        try {
+            String target = fixtures != null ? fixtures.resolve(getCrawlerBrand(), url) : url;
+            Connection connection = Jsoup.connect(target)
+                    .userAgent(USER_AGENT)
+                    .timeout((int) getWaitTimeout().toMillis())
+                    .followRedirects(true)
+                    .ignoreHttpErrors(true);
+            String fingerprint = previous != null ? previous.getFingerprint() : null;
+            String etag = PageFingerprint.etag(fingerprint);
+            String lastModified = PageFingerprint.lastModified(fingerprint);
+            if (etag != null) {
+                connection.header("If-None-Match", etag);
+            }
+            if (lastModified != null) {
+                connection.header("If-Modified-Since", lastModified);
+            }
+
+            Connection.Response response = connection.execute();
+            if (response.statusCode() == 304) {
+                return new FetchedPage(null, fingerprint, true);
+            }
+            if (response.statusCode() != 200) {
+                System.out.println(getClass().getSimpleName() + ": HTTP " + response.statusCode() + " for " + url);
+                return null;
+            }
+            String html = response.body();
+            if (fixtures != null) {
+                fixtures.record(getCrawlerBrand(), url, html);
+            }
+            Document doc = Jsoup.parse(html, url);
+            return new FetchedPage(doc, PageFingerprint.of(response, doc), false);
+        } catch (Exception e) {
+            System.out.println(getClass().getSimpleName() + ": HTTP fetch failed for " + url + " -> " + e.getMessage());
+            return null;
+        }
+    }
+
+    /**
+     * Parse a page fetched over HTTP
+     *
+     * @return The product, or null if parsing failed or required fields are missing (use Selenium)
+     */
+    private Product parseFetchedPage(ProductDocumentParser documentParser, Document doc, String url) {
         try {
-            Thread.sleep(milliseconds);
-        } catch (InterruptedException e) {
-            Thread.currentThread().interrupt();
-            e.printStackTrace();
+            Product product = documentParser.parse(doc, url);
+            if (product != null && hasRequiredFields(product)) {
+                return product;
+            }
+            System.out.println(getClass().getSimpleName() + ": Required fields missing over HTTP, using Selenium for " + url);
+        } catch (Exception e) {
+            System.out.println(getClass().getSimpleName() + ": Could not parse " + url + " over HTTP -> " + e.getMessage() +
+                    ", using Selenium");
+        }
+        return null;
+    }
+
+    /**
+     * A product page fetched over plain HTTP
+     */
+    private static final class FetchedPage {
+        private final Document doc;         // null for a 304
+        private final String fingerprint;
+        private final boolean notModified;
+
+        private FetchedPage(Document doc, String fingerprint, boolean notModified) {
+            this.doc = doc;
+            this.fingerprint = fingerprint;
+            this.notModified = notModified;
+        }
+
+        private boolean isUnchangedFrom(Product previous) {
+            return notModified || PageFingerprint.sameContent(fingerprint, previous.getFingerprint());
         }
     }
 
+    /**
+     * Whether a product parsed without a browser is complete enough to keep
+     * Requires a model name, a price and at least one spec; client-rendered
+     * values (prices, spec tabs) are what a plain HTTP fetch usually misses.
+     */
+    protected boolean hasRequiredFields(Product product) {
+        return isKnown(product.getModelName())
+                && product.getPrice() != null
+                && (isKnown(product.getChannel()) || isKnown(product.getPower()) || isKnown(product.getWeightKg())
+                    || isKnown(product.getWifiFormat()) || isKnown(product.getBluetoothVersion())
+                    || isKnown(product.getAudioFormat()));
+    }
+
+    private static boolean isKnown(String value) {
+        return value != null && !value.isBlank() && !"Unavailable".equalsIgnoreCase(value);
+    }
+
+    /**
+     * Product page fetch mode for this crawler's brand
+     * theatrecraft.crawler.<brand>.fetch-mode, else theatrecraft.crawler.fetch-mode
+     *
+     * @return "jsoup-first" or "selenium"
+     */
+    protected String getFetchMode() {
+        return getBrandProperty("fetch-mode", FETCH_MODE_JSOUP_FIRST).trim().toLowerCase(Locale.ROOT);
+    }
+
+    // ---------------------------------------------------------------------
+    // Readiness waits (poll a condition instead of sleeping a fixed time)
+    // ---------------------------------------------------------------------
+
+    /**
+     * Wait until the document has finished loading
+     */
+    protected boolean waitForPageReady(WebDriver driver) {
+        return waitUntil(driver, "page-ready",
+                d -> "complete".equals(((JavascriptExecutor) d).executeScript("return document.readyState;")));
+    }
+
+    /**
+     * Wait until an element matching the CSS selector is present
+     */
+    protected boolean waitForSelector(WebDriver driver, String cssSelector) {
+        return waitForElement(driver, cssSelector) != null;
+    }
+
+    /**
+     * Wait for an element matching the CSS selector
+     *
+     * @return The element, or null if none appeared before the timeout
+     */
+    protected WebElement waitForElement(WebDriver driver, String cssSelector) {
+        WebElement[] found = new WebElement[1];
+        waitUntil(driver, "selector:" + cssSelector, d -> {
+            List<WebElement> elements = d.findElements(By.cssSelector(cssSelector));
+            found[0] = elements.isEmpty() ? null : elements.get(0);
+            return found[0] != null;
+        });
+        return found[0];
+    }
+
+    /**
+     * Wait until the page is loaded and no new resource request has finished for
+     * NETWORK_QUIET_MILLIS (lazy loading after a scroll, dynamic prices, review widgets)
+     */
+    protected boolean waitForNetworkIdle(WebDriver driver) {
+        long[] last = {-1, System.currentTimeMillis()}; // resource count, time it last changed
+        return waitUntil(driver, "network-idle", d -> {
+            Object result = ((JavascriptExecutor) d).executeScript(RESOURCE_COUNT_SCRIPT);
+            long count = result instanceof Number ? ((Number) result).longValue() : -1;
+            long now = System.currentTimeMillis();
+            if (count < 0 || count != last[0]) {
+                last[0] = count;
+                last[1] = now;
+                return false;
+            }
+            return now - last[1] >= NETWORK_QUIET_MILLIS;
+        });
+    }
+
+    /**
+     * Dismiss the brand's popups (language, signup and cookie modals) on the current page
+     */
+    protected void handlePopups(WebDriver driver) {
+        PopupHandler.handlePopups(driver, getCrawlerBrand(), this);
+    }
+
+    /**
+     * Poll a condition until it holds or the brand's wait timeout passes, recording the time taken
+     * Exceptions thrown by the condition count as "not yet".
+     *
+     * @param label Wait kind for the stats
+     * @return true if the condition held, false on timeout
+     */
+    protected boolean waitUntil(WebDriver driver, String label, Function<WebDriver, Boolean> condition) {
+        long start = System.nanoTime();
+        boolean satisfied;
+        try {
+            new WebDriverWait(driver, getWaitTimeout(), WAIT_POLL)
+                    .ignoring(WebDriverException.class)
+                    .until(d -> Boolean.TRUE.equals(condition.apply(d)) ? Boolean.TRUE : null);
+            satisfied = true;
+        } catch (WebDriverException e) {
+            // TimeoutException, or the browser itself went away
+            satisfied = false;
+        }
+
+        long millis = (System.nanoTime() - start) / 1_000_000;
+        if (waitStats != null) {
+            waitStats.record(getCrawlerBrand(), label, millis, satisfied);
+        }
+        if (!satisfied) {
+            System.out.println(getClass().getSimpleName() + ": Wait for " + label + " timed out after " + millis + " ms");
+        }
+        return satisfied;
+    }
+
+    /**
+     * Readiness wait timeout for this crawler's brand
+     * theatrecraft.crawler.<brand>.wait-timeout-seconds, else theatrecraft.crawler.wait-timeout-seconds
+     */
+    protected Duration getWaitTimeout() {
+        Duration timeout = waitTimeout;
+        if (timeout == null) {
+            timeout = Duration.ofSeconds(Long.parseLong(
+                    getBrandProperty("wait-timeout-seconds", String.valueOf(DEFAULT_WAIT_SECONDS)).trim()));
+            waitTimeout = timeout;
+        }
+        return timeout;
+    }
+
+    /**
+     * theatrecraft.crawler.<brand>.<name>, else theatrecraft.crawler.<name>, else the default
+     */
+    private String getBrandProperty(String name, String defaultValue) {
+        if (environment == null) {
+            return defaultValue;
+        }
+        String value = environment.getProperty("theatrecraft.crawler." + name, defaultValue);
+        Brand brand = getCrawlerBrand();
+        if (brand != null) {
+            value = environment.getProperty(
+                    "theatrecraft.crawler." + brand.name().toLowerCase(Locale.ROOT) + "." + name, value);
+        }
+        return value;
+    }
+
+    private Brand getCrawlerBrand() {
+        return this instanceof ProductCrawler crawler ? crawler.getBrand() : null;
+    }
+
     protected void tearDown(WebDriver driver) {
         if (driver != null) {
             driver.quit();
@@ -8,11 +8,8 @@ import org.jsoup.nodes.Element;
 import org.jsoup.select.Elements;
 import org.openqa.selenium.*;
 import org.openqa.selenium.WebDriver;
-import org.openqa.selenium.support.ui.ExpectedConditions;
-import org.openqa.selenium.support.ui.WebDriverWait;
 import org.springframework.stereotype.Component;
 
-import java.time.Duration;
 import java.util.*;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
@@ -21,6 +18,7 @@ import java.util.regex.Pattern;
 public class BoseCrawler extends BaseSeleniumCrawler implements ProductCrawler {
 
     private static final String BOSE_URL = "https://www.bose.ca/en/c/home-theater";
+    private static final String PRODUCT_LINK_SELECTOR = "a[href*='/p/home-theater/']";
 
     @Override
     public Brand getBrand() {
@@ -28,112 +26,101 @@ public class BoseCrawler extends BaseSeleniumCrawler implements ProductCrawler {
     }
 
     @Override
-    public List<Product> crawlProducts() {
-        WebDriver driver = null;
+    public List<Product> crawlProducts(CrawlContext context) {
         List<Product> products = new ArrayList<>();
 
         System.out.println("BoseCrawler: Starting crawl of " + BOSE_URL);
 
         try {
-            driver = createDriver();
-            driver.get(BOSE_URL);
-            sleep(2000);
-
-            // Handle popups via your shared handler
-            PopupHandler.handlePopups(driver, Brand.BOSE);
-            sleep(1500);
-
-            // Scroll to trigger lazy load of all product cards
-            try {
-                JavascriptExecutor js = (JavascriptExecutor) driver;
-                js.executeScript("window.scrollTo(0, 0);");
-                sleep(800);
-
-                long scrollHeight = (Long) js.executeScript("return document.body.scrollHeight;");
-                int steps = 4;
-                for (int i = 1; i <= steps; i++) {
-                    long y = scrollHeight * i / steps;
-                    js.executeScript("window.scrollTo(0, arguments[0]);", y);
-                    sleep(800);
-                }
-
-                sleep(1200);
-            } catch (Exception e) {
-                System.out.println("BoseCrawler: scrolling failed, continuing. " + e.getMessage());
-            }
-
-            // Collect product URLs
             Set<String> productUrls = new LinkedHashSet<>();
-            List<WebElement> productLinks = driver.findElements(By.cssSelector("a[href*='/p/home-theater/']"));
-            for (WebElement link : productLinks) {
-                String href = link.getAttribute("href");
-                if (href == null || href.isBlank()) continue;
-
-                if (href.startsWith("/")) {
-                    href = "https://www.bose.ca" + href;
-                } else if (!href.startsWith("http")) {
-                    href = "https://www.bose.ca" + (href.startsWith("/") ? href : "/" + href);
-                }
-                productUrls.add(href);
-            }
-
-            System.out.println("BoseCrawler: Found " + productUrls.size() + " unique product URLs.");
+            try (WebDriverPool.Session session = openSession()) {
+                WebDriver driver = session.getDriver();
+                loadPage(driver, BOSE_URL);
+                session.pageVisited();
+                waitForPageReady(driver);
 
-            WebDriverWait wait = new WebDriverWait(driver, Duration.ofSeconds(10));
+                // Handle popups via your shared handler
+                handlePopups(driver);
+                waitForSelector(driver, PRODUCT_LINK_SELECTOR);
 
-            // Visit each product page
-            for (String productUrl : productUrls) {
+                // Scroll to trigger lazy load of all product cards
                 try {
-                    driver.get(productUrl);
-                    sleep(1500);
-
-                    // Open "Technical Specifications" accordion if present
-                    try {
-                        WebElement techButton = wait.until(
-                                ExpectedConditions.presenceOfElementLocated(
-                                        By.cssSelector("button[data-target='#accordion-collapse-pdp-2']"))
-                        );
-                        String expanded = techButton.getAttribute("aria-expanded");
-                        if ("false".equalsIgnoreCase(expanded)) {
-                            ((JavascriptExecutor) driver).executeScript("arguments[0].scrollIntoView(true);", techButton);
-                            sleep(500);
-                            techButton.click();
-                            sleep(1000);
-                        }
-                    } catch (Exception e) {
-                        System.out.println("BoseCrawler: Tech spec accordion not found for " + productUrl);
+                    JavascriptExecutor js = (JavascriptExecutor) driver;
+                    js.executeScript("window.scrollTo(0, 0);");
+
+                    long scrollHeight = (Long) js.executeScript("return document.body.scrollHeight;");
+                    int steps = 4;
+                    for (int i = 1; i <= steps; i++) {
+                        long y = scrollHeight * i / steps;
+                        js.executeScript("window.scrollTo(0, arguments[0]);", y);
+                        waitForNetworkIdle(driver); // Lazy-loaded cards for this step
                     }
+                } catch (Exception e) {
+                    System.out.println("BoseCrawler: scrolling failed, continuing. " + e.getMessage());
+                }
 
-                    // Get page HTML and parse with Jsoup
-                    String html = driver.getPageSource();
-                    Document doc = Jsoup.parse(html);
+                recordPage(driver, BOSE_URL); // Links below are read from the live DOM
 
-                    Product product = parseBoseProductPage(doc, productUrl);
-                    if (product != null) {
-                        products.add(product);
-                        System.out.println("BoseCrawler: Parsed Bose product -> "
-                                + product.getModelName() + " | URL: " + productUrl);
-                    }
+                // Collect product URLs
+                List<WebElement> productLinks = driver.findElements(By.cssSelector(PRODUCT_LINK_SELECTOR));
+                for (WebElement link : productLinks) {
+                    String href = link.getAttribute("href");
+                    if (href == null || href.isBlank()) continue;
 
-                } catch (Exception e) {
-                    System.out.println("BoseCrawler: Error processing product URL " + productUrl + " -> " + e.getMessage());
+                    if (href.startsWith("/")) {
+                        href = "https://www.bose.ca" + href;
+                    } else if (!href.startsWith("http")) {
+                        href = "https://www.bose.ca" + (href.startsWith("/") ? href : "/" + href);
+                    }
+                    productUrls.add(href);
                 }
             }
 
+            System.out.println("BoseCrawler: Found " + productUrls.size() + " unique product URLs.");
+            context.urlsFound(productUrls.size());
+
+            // Visit each product page (HTTP first, pooled browser sessions as fallback)
+            products = parseProductPages(productUrls, this::parseBoseProductPage, this::loadBoseProductPage, context);
+
             System.out.println("BoseCrawler: Total Bose products parsed: " + products.size());
 
         } catch (Exception e) {
             System.err.println("BoseCrawler: Error during crawl - " + e.getMessage());
             e.printStackTrace();
-        } finally {
-            if (driver != null) {
-                tearDown(driver);
-            }
         }
 
         return products;
     }
 
+    /**
+     * Load one product page, open its tech specs and parse it
+     */
+    private Product loadBoseProductPage(WebDriver driver, String productUrl) {
+        loadPage(driver, productUrl);
+        waitForPageReady(driver);
+
+        // Open "Technical Specifications" accordion if present
+        try {
+            WebElement techButton = waitForElement(driver, "button[data-target='#accordion-collapse-pdp-2']");
+            if (techButton == null) {
+                System.out.println("BoseCrawler: Tech spec accordion not found for " + productUrl);
+            } else if ("false".equalsIgnoreCase(techButton.getAttribute("aria-expanded"))) {
+                ((JavascriptExecutor) driver).executeScript("arguments[0].scrollIntoView(true);", techButton);
+                techButton.click();
+                waitUntil(driver, "spec-accordion-open",
+                        d -> "true".equalsIgnoreCase(techButton.getDomAttribute("aria-expanded")));
+            }
+        } catch (Exception e) {
+            System.out.println("BoseCrawler: Could not open tech spec accordion for " + productUrl + " -> " + e.getMessage());
+        }
+
+        // Get page HTML and parse with Jsoup
+        String html = getPageSource(driver, productUrl);
+        Document doc = Jsoup.parse(html);
+
+        return parseBoseProductPage(doc, productUrl);
+    }
+
     private Product parseBoseProductPage(Document doc, String productUrl) {
         try {
             // Title
@@ -0,0 +1,246 @@
+package com.farhan.theatrecraft.core.crawler;
+
+import com.farhan.theatrecraft.core.model.Brand;
+import com.farhan.theatrecraft.core.model.CrawlProgress;
+import com.farhan.theatrecraft.core.model.Product;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+
+/**
+ * Per-crawl state handed to a ProductCrawler
+ * Crawlers report each product page as they finish it; the context keeps the
+ * counts and forwards a CrawlProgress event to the listener (e.g. a crawl job
+ * streaming progress to the browser). It can also carry the brand's products
+ * from the last crawl (a delta crawl skips unchanged pages; any crawl keeps the
+ * old product of a page that fails) and a checkpoint: products already done by
+ * an interrupted crawl, plus a sink that persists each newly finished product.
+ */
+public class CrawlContext {
+
+    private final Brand brand;
+    private final Consumer<CrawlProgress> listener; // null = counts only
+    private final AtomicInteger parsed;
+    private final AtomicInteger failed;
+    private final AtomicInteger unchanged; // Carried forward without parsing (counted in parsed too)
+    private final AtomicInteger resumed;   // Taken from the checkpoint (counted in parsed too)
+    private final AtomicLong parseNanos;      // Time spent inside page parsers
+    private final AtomicInteger parserPages;  // Pages that went through a parser
+    private final Map<String, Product> previousProducts; // product URL -> product
+    private final boolean delta;
+    private volatile Map<String, Product> checkpointed; // product URL -> product done before a restart
+    private volatile Consumer<Product> checkpointSink;  // null = no checkpointing
+    private volatile int total;
+
+    public CrawlContext(Brand brand, Consumer<CrawlProgress> listener) {
+        this(brand, listener, null, false);
+    }
+
+    /**
+     * @param previousProducts The brand's products from the last crawl (null = none)
+     * @param delta Only parse new or changed pages (needs previousProducts)
+     */
+    public CrawlContext(Brand brand, Consumer<CrawlProgress> listener, Collection<Product> previousProducts,
+                        boolean delta) {
+        this.brand = brand;
+        this.listener = listener;
+        this.parsed = new AtomicInteger();
+        this.failed = new AtomicInteger();
+        this.unchanged = new AtomicInteger();
+        this.resumed = new AtomicInteger();
+        this.parseNanos = new AtomicLong();
+        this.parserPages = new AtomicInteger();
+        this.previousProducts = byUrl(previousProducts);
+        this.delta = delta && previousProducts != null;
+        this.checkpointed = Collections.emptyMap();
+    }
+
+    /**
+     * Resume from a checkpoint and persist every product finished from now on
+     *
+     * @param done Products finished before the crawl was interrupted
+     * @param sink Called with each newly parsed or unchanged product
+     */
+    public void resumeFrom(Collection<Product> done, Consumer<Product> sink) {
+        this.checkpointed = byUrl(done);
+        this.checkpointSink = sink;
+    }
+
+    /**
+     * The listing page was parsed
+     *
+     * @param total Number of product URLs that will be visited
+     */
+    public void urlsFound(int total) {
+        this.total = total;
+        publish(CrawlProgress.Type.URLS_FOUND, null, null, "Found " + total + " product URLs");
+    }
+
+    /**
+     * A product page was parsed
+     */
+    public void productParsed(String url, Product product) {
+        parsed.incrementAndGet();
+        checkpoint(product);
+        publish(CrawlProgress.Type.PRODUCT_PARSED, product.getModelName(), url, null);
+    }
+
+    /**
+     * A product page has not changed since the last crawl; its product is kept as is
+     */
+    public void productUnchanged(String url, Product product) {
+        unchanged.incrementAndGet();
+        parsed.incrementAndGet();
+        checkpoint(product);
+        publish(CrawlProgress.Type.PRODUCT_UNCHANGED, product.getModelName(), url, null);
+    }
+
+    /**
+     * A product page was already done before the crawl was interrupted; its checkpointed product is used
+     */
+    public void productResumed(String url, Product product) {
+        resumed.incrementAndGet();
+        parsed.incrementAndGet();
+        publish(CrawlProgress.Type.PRODUCT_PARSED, product.getModelName(), url, "From checkpoint");
+    }
+
+    /**
+     * A product page could not be loaded or parsed
+     */
+    public void productFailed(String url, String reason) {
+        failed.incrementAndGet();
+        publish(CrawlProgress.Type.PRODUCT_FAILED, null, url, reason);
+    }
+
+    /**
+     * Time spent parsing one product page (every parser call made for it, HTTP and Selenium)
+     *
+     * @param nanos Parser time in nanoseconds
+     */
+    public void parseTimed(long nanos) {
+        parseNanos.addAndGet(nanos);
+        parserPages.incrementAndGet();
+    }
+
+    /**
+     * Publish a lifecycle event (brand started/finished) with the current counts
+     */
+    public void publish(CrawlProgress.Type type, String message) {
+        publish(type, null, null, message);
+    }
+
+    public Brand getBrand() {
+        return brand;
+    }
+
+    /**
+     * True for a delta crawl (only new or changed pages are parsed)
+     */
+    public boolean isDelta() {
+        return delta;
+    }
+
+    /**
+     * The product crawled from this URL last time (null if new)
+     */
+    public Product getPreviousProduct(String url) {
+        return previousProducts.get(url);
+    }
+
+    /**
+     * The product this URL produced before the crawl was interrupted (null if not done yet)
+     */
+    public Product getCheckpointedProduct(String url) {
+        return checkpointed.get(url);
+    }
+
+    public int getParsed() {
+        return parsed.get();
+    }
+
+    public int getFailed() {
+        return failed.get();
+    }
+
+    public int getUnchanged() {
+        return unchanged.get();
+    }
+
+    public int getResumed() {
+        return resumed.get();
+    }
+
+    /**
+     * Total time spent inside page parsers (see parseTimed)
+     */
+    public long getParseNanos() {
+        return parseNanos.get();
+    }
+
+    /**
+     * Pages that went through a parser (unchanged and resumed pages do not)
+     */
+    public int getParserPages() {
+        return parserPages.get();
+    }
+
+    /**
+     * True once every product URL from the listing has been parsed or has failed
+     */
+    public boolean isComplete() {
+        return getProcessed() >= total;
+    }
+
+    public int getProcessed() {
+        return parsed.get() + failed.get();
+    }
+
+    public int getTotal() {
+        return total;
+    }
+
+    private void checkpoint(Product product) {
+        Consumer<Product> sink = checkpointSink;
+        if (sink == null) {
+            return;
+        }
+        try {
+            sink.accept(product);
+        } catch (RuntimeException e) {
+            // Losing a checkpoint entry only costs a re-parse after a restart
+            System.err.println("CrawlContext: Checkpoint failed - " + e.getMessage());
+        }
+    }
+
+    private static Map<String, Product> byUrl(Collection<Product> products) {
+        Map<String, Product> byUrl = new HashMap<>();
+        if (products != null) {
+            for (Product product : products) {
+                if (product.getProductUrl() != null && !product.getProductUrl().isEmpty()) {
+                    byUrl.put(product.getProductUrl(), product);
+                }
+            }
+        }
+        return byUrl;
+    }
+
+    private void publish(CrawlProgress.Type type, String modelName, String url, String message) {
+        if (listener == null) {
+            return;
+        }
+        try {
+            CrawlProgress event = new CrawlProgress(type, brand, getProcessed(), total, parsed.get(), failed.get(),
+                    modelName, url, message);
+            event.setUnchanged(unchanged.get());
+            listener.accept(event);
+        } catch (RuntimeException e) {
+            // A broken listener must never stop the crawl
+            System.err.println("CrawlContext: Progress listener failed - " + e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,214 @@
+package com.farhan.theatrecraft.core.crawler;
+
+import com.farhan.theatrecraft.core.model.Brand;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import jakarta.annotation.PreDestroy;
+import org.jsoup.Jsoup;
+import org.jsoup.nodes.Document;
+import org.jsoup.nodes.Element;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Recorded crawler pages, for benchmarking crawlers without the live sites
+ * record: every listing and product page a crawler parses is saved as
+ * fixtures/<BRAND>/<key>.html (key = hash of the page URL, listed in index.tsv).
+ * Scripts are stripped and a <base> tag keeps relative links pointing at the real site.
+ * replay: crawlers load pages from a local HTTP server that serves those files instead
+ * of the brand sites; product URLs stay the real ones, so parsed products are unchanged.
+ */
+@Component
+public class CrawlFixtures {
+
+    public enum Mode {
+        OFF,
+        RECORD,
+        REPLAY
+    }
+
+    private static final Pattern FIXTURE_PATH = Pattern.compile("^/([A-Z]+)/([0-9a-f]+)\\.html$");
+    private static final String INDEX_FILE = "index.tsv";
+
+    private final Mode mode;
+    private final Path directory;
+    private final int replayPort;
+
+    private final Map<Brand, Set<String>> recordedKeys; // Keys already listed in each brand's index
+    private volatile HttpServer server;
+    private volatile String serverUrl;
+
+    public CrawlFixtures(@Value("${theatrecraft.crawler.fixtures.mode:off}") String mode,
+                         @Value("${theatrecraft.crawler.fixtures.dir:fixtures}") String directory,
+                         @Value("${theatrecraft.crawler.fixtures.replay-port:0}") int replayPort) {
+        this.mode = Mode.valueOf(mode.trim().toUpperCase(Locale.ROOT));
+        this.directory = Paths.get(directory);
+        this.replayPort = replayPort;
+        this.recordedKeys = new ConcurrentHashMap<>();
+    }
+
+    public Mode getMode() {
+        return mode;
+    }
+
+    public boolean isRecording() {
+        return mode == Mode.RECORD;
+    }
+
+    public boolean isReplaying() {
+        return mode == Mode.REPLAY;
+    }
+
+    /**
+     * The URL to actually load for a page: the replay server's copy when replaying, else the page itself
+     */
+    public String resolve(Brand brand, String url) {
+        if (!isReplaying() || brand == null) {
+            return url;
+        }
+        return startServer() + "/" + brand.name() + "/" + key(url) + ".html";
+    }
+
+    /**
+     * Save a page's HTML as a fixture (no-op unless recording)
+     */
+    public void record(Brand brand, String url, String html) {
+        if (!isRecording() || brand == null || html == null) {
+            return;
+        }
+        try {
+            Path brandDir = directory.resolve(brand.name());
+            Files.createDirectories(brandDir);
+            String key = key(url);
+
+            // Write then move, so a concurrent replay never serves half a file
+            Path tmp = Files.createTempFile(brandDir, key, ".tmp");
+            Files.writeString(tmp, normalize(html, url), StandardCharsets.UTF_8);
+            Files.move(tmp, brandDir.resolve(key + ".html"), StandardCopyOption.REPLACE_EXISTING);
+
+            if (recordedKeys(brand, brandDir).add(key)) {
+                synchronized (this) {
+                    Files.writeString(brandDir.resolve(INDEX_FILE), key + "\t" + url + System.lineSeparator(),
+                            StandardCharsets.UTF_8, StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+                }
+            }
+        } catch (IOException e) {
+            System.err.println("CrawlFixtures: Could not record " + url + " - " + e.getMessage());
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        HttpServer running = server;
+        if (running != null) {
+            running.stop(0);
+        }
+    }
+
+    /**
+     * Make the page self-contained: no scripts (they would re-render or call the live site)
+     * and a <base> so relative links and images still resolve against the real URL
+     */
+    private static String normalize(String html, String url) {
+        Document doc = Jsoup.parse(html, url);
+        doc.select("script, iframe, base").remove();
+        doc.select("link[rel~=(?i)^(stylesheet|preload|prefetch|preconnect|dns-prefetch|modulepreload)$]").remove();
+        Element base = doc.head().prependElement("base");
+        base.attr("href", url);
+        return doc.outerHtml();
+    }
+
+    private Set<String> recordedKeys(Brand brand, Path brandDir) {
+        return recordedKeys.computeIfAbsent(brand, b -> {
+            Set<String> keys = ConcurrentHashMap.newKeySet();
+            try {
+                Path index = brandDir.resolve(INDEX_FILE);
+                if (Files.exists(index)) {
+                    for (String line : Files.readAllLines(index, StandardCharsets.UTF_8)) {
+                        int tab = line.indexOf('\t');
+                        if (tab > 0) {
+                            keys.add(line.substring(0, tab));
+                        }
+                    }
+                }
+            } catch (IOException e) {
+                System.err.println("CrawlFixtures: Could not read index for " + brand + " - " + e.getMessage());
+            }
+            return keys;
+        });
+    }
+
+    /**
+     * Start the replay server on first use
+     *
+     * @return Its base URL, e.g. http://127.0.0.1:53124
+     */
+    private String startServer() {
+        if (serverUrl == null) {
+            synchronized (this) {
+                if (serverUrl == null) {
+                    try {
+                        HttpServer created = HttpServer.create(
+                                new InetSocketAddress(InetAddress.getLoopbackAddress(), replayPort), 0);
+                        created.createContext("/", this::serveFixture);
+                        created.setExecutor(Executors.newVirtualThreadPerTaskExecutor());
+                        created.start();
+                        server = created;
+                        serverUrl = "http://127.0.0.1:" + created.getAddress().getPort();
+                        System.out.println("CrawlFixtures: Replaying " + directory.toAbsolutePath() + " on " + serverUrl);
+                    } catch (IOException e) {
+                        throw new IllegalStateException("Could not start fixture replay server", e);
+                    }
+                }
+            }
+        }
+        return serverUrl;
+    }
+
+    private void serveFixture(HttpExchange exchange) throws IOException {
+        try (exchange) {
+            Matcher matcher = FIXTURE_PATH.matcher(exchange.getRequestURI().getPath());
+            Path file = matcher.matches() ? directory.resolve(matcher.group(1)).resolve(matcher.group(2) + ".html") : null;
+            if (file == null || !Files.isRegularFile(file)) {
+                System.out.println("CrawlFixtures: No fixture for " + exchange.getRequestURI().getPath());
+                exchange.sendResponseHeaders(404, -1);
+                return;
+            }
+
+            byte[] body = Files.readAllBytes(file);
+            exchange.getResponseHeaders().set("Content-Type", "text/html; charset=utf-8");
+            exchange.sendResponseHeaders(200, body.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(body);
+            }
+        }
+    }
+
+    private static String key(String url) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            byte[] hash = digest.digest(url.getBytes(StandardCharsets.UTF_8));
+            return HexFormat.of().formatHex(hash, 0, 10);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+}
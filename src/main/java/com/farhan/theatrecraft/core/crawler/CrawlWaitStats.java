@@ -0,0 +1,113 @@
+package com.farhan.theatrecraft.core.crawler;
+
+import com.farhan.theatrecraft.core.model.Brand;
+import org.springframework.stereotype.Component;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * How long crawler readiness waits actually took, per brand and wait kind
+ * Shows where crawl time goes (slow pages vs. waits that run into their timeout).
+ */
+@Component
+public class CrawlWaitStats {
+
+    private final Map<String, WaitStat> stats; // "BRAND|label" -> stat
+
+    public CrawlWaitStats() {
+        this.stats = new ConcurrentHashMap<>();
+    }
+
+    /**
+     * Record one finished wait
+     *
+     * @param brand Crawler brand (may be null)
+     * @param label Wait kind, e.g. "page-ready" or "selector:h1"
+     * @param millis Time spent waiting
+     * @param satisfied false if the wait ran into its timeout
+     */
+    public void record(Brand brand, String label, long millis, boolean satisfied) {
+        String key = (brand != null ? brand.name() : "-") + "|" + label;
+        stats.computeIfAbsent(key, k -> new WaitStat(brand, label)).add(millis, satisfied);
+    }
+
+    /**
+     * Snapshot of all stats, largest total wait first
+     */
+    public List<WaitStat> getStats() {
+        List<WaitStat> snapshot = new ArrayList<>();
+        for (WaitStat stat : stats.values()) {
+            snapshot.add(stat.copy());
+        }
+        snapshot.sort(Comparator.comparingLong(WaitStat::getTotalMillis).reversed());
+        return snapshot;
+    }
+
+    public void clear() {
+        stats.clear();
+    }
+
+    /**
+     * Aggregated durations of one wait kind for one brand
+     */
+    public static class WaitStat {
+        private final Brand brand;
+        private final String label;
+        private long count;
+        private long timeouts;
+        private long totalMillis;
+        private long maxMillis;
+
+        WaitStat(Brand brand, String label) {
+            this.brand = brand;
+            this.label = label;
+        }
+
+        synchronized void add(long millis, boolean satisfied) {
+            count++;
+            totalMillis += millis;
+            maxMillis = Math.max(maxMillis, millis);
+            if (!satisfied) {
+                timeouts++;
+            }
+        }
+
+        synchronized WaitStat copy() {
+            WaitStat copy = new WaitStat(brand, label);
+            copy.count = count;
+            copy.timeouts = timeouts;
+            copy.totalMillis = totalMillis;
+            copy.maxMillis = maxMillis;
+            return copy;
+        }
+
+        public Brand getBrand() {
+            return brand;
+        }
+
+        public String getLabel() {
+            return label;
+        }
+
+        public long getCount() {
+            return count;
+        }
+
+        public long getTimeouts() {
+            return timeouts;
+        }
+
+        public long getTotalMillis() {
+            return totalMillis;
+        }
+
+        public long getMaxMillis() {
+            return maxMillis;
+        }
+
+        public long getAverageMillis() {
+            return count == 0 ? 0 : totalMillis / count;
+        }
+    }
+}
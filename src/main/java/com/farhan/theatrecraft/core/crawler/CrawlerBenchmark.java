@@ -0,0 +1,209 @@
+package com.farhan.theatrecraft.core.crawler;
+
+import com.farhan.theatrecraft.core.model.Brand;
+import com.farhan.theatrecraft.core.model.CrawlProgress;
+import com.farhan.theatrecraft.core.model.Product;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.SpringApplication;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.stereotype.Component;
+
+import java.util.*;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Times each crawler end to end and reports pages/sec and parse time per brand
+ * Meant to run against recorded fixtures (theatrecraft.crawler.fixtures.mode=replay),
+ * so crawler speedups can be checked offline, e.g. in CI:
+ *   --theatrecraft.crawler.fixtures.mode=replay --theatrecraft.crawler.benchmark.on-startup=true
+ * Brands rendered in Selenium still start Chrome against the replayed pages; for a
+ * fully offline run put chrome on the machine and pass its chromedriver with
+ * -Dwebdriver.chrome.driver=/path/to/chromedriver, which skips the WebDriverManager
+ * download. Crawled products are only counted, never saved.
+ */
+@Component
+public class CrawlerBenchmark implements ApplicationRunner {
+
+    private final List<ProductCrawler> crawlers;
+    private final CrawlFixtures fixtures;
+    private final ConfigurableApplicationContext applicationContext;
+    private final boolean onStartup;
+    private final boolean exitAfterRun;
+    private final Set<Brand> brands; // Empty = every brand
+
+    public CrawlerBenchmark(List<ProductCrawler> crawlers, CrawlFixtures fixtures,
+                            ConfigurableApplicationContext applicationContext,
+                            @Value("${theatrecraft.crawler.benchmark.on-startup:false}") boolean onStartup,
+                            @Value("${theatrecraft.crawler.benchmark.exit-after-run:true}") boolean exitAfterRun,
+                            @Value("${theatrecraft.crawler.benchmark.brands:}") String brands) {
+        this.crawlers = crawlers;
+        this.fixtures = fixtures;
+        this.applicationContext = applicationContext;
+        this.onStartup = onStartup;
+        this.exitAfterRun = exitAfterRun;
+        this.brands = EnumSet.noneOf(Brand.class);
+        for (String brand : brands.split(",")) {
+            if (!brand.isBlank()) {
+                this.brands.add(Brand.valueOf(brand.trim().toUpperCase(Locale.ROOT)));
+            }
+        }
+    }
+
+    @Override
+    public void run(ApplicationArguments args) {
+        if (!onStartup) {
+            return;
+        }
+
+        List<BrandResult> results = runAll();
+        if (exitAfterRun) {
+            // Non-zero exit if a brand produced nothing (usually missing fixtures)
+            boolean ok = results.stream().allMatch(r -> r.getProducts() > 0);
+            System.exit(SpringApplication.exit(applicationContext, () -> ok ? 0 : 1));
+        }
+    }
+
+    /**
+     * Crawl each selected brand in turn and print the report
+     */
+    public List<BrandResult> runAll() {
+        if (!fixtures.isReplaying()) {
+            System.out.println("CrawlerBenchmark: Fixture replay is off; timing the live sites");
+        }
+
+        List<BrandResult> results = new ArrayList<>();
+        for (ProductCrawler crawler : crawlers) {
+            if (brands.isEmpty() || brands.contains(crawler.getBrand())) {
+                results.add(runBrand(crawler));
+            }
+        }
+        printReport(results);
+        return results;
+    }
+
+    /**
+     * Crawl one brand, timing the listing and product page phases
+     */
+    public BrandResult runBrand(ProductCrawler crawler) {
+        AtomicLong urlsFoundAt = new AtomicLong();
+        CrawlContext context = new CrawlContext(crawler.getBrand(), event -> {
+            if (event.getType() == CrawlProgress.Type.URLS_FOUND) {
+                urlsFoundAt.set(System.nanoTime());
+            }
+        });
+
+        System.out.println("CrawlerBenchmark: Crawling " + crawler.getBrand());
+        long start = System.nanoTime();
+        List<Product> products;
+        String error = null;
+        try {
+            products = crawler.crawlProducts(context);
+        } catch (Exception e) {
+            products = Collections.emptyList();
+            error = e.getMessage();
+        }
+        long end = System.nanoTime();
+
+        long listingEnd = urlsFoundAt.get() != 0 ? urlsFoundAt.get() : end;
+        return new BrandResult(crawler.getBrand(), products.size(), context.getFailed(), context.getProcessed(),
+                TimeUnit.NANOSECONDS.toMillis(listingEnd - start), TimeUnit.NANOSECONDS.toMillis(end - listingEnd),
+                context.getParserPages(), context.getParseNanos(), error);
+    }
+
+    private void printReport(List<BrandResult> results) {
+        System.out.println("CrawlerBenchmark: Results");
+        System.out.println(String.format("  %-8s %8s %6s %6s %10s %12s %10s %14s",
+                "brand", "products", "failed", "pages", "total ms", "listing ms", "pages/s", "parse ms/page"));
+        for (BrandResult r : results) {
+            System.out.println(String.format(Locale.ROOT, "  %-8s %8d %6d %6d %10d %12d %10.2f %14.1f%s",
+                    r.getBrand(), r.getProducts(), r.getFailedPages(), r.getPages(), r.getTotalMillis(),
+                    r.getListingMillis(), r.getPagesPerSecond(), r.getMillisPerProductPage(),
+                    r.getError() != null ? "  error: " + r.getError() : ""));
+        }
+    }
+
+    /**
+     * Timing of one brand's crawl
+     * Product pages run in parallel, so the product phase's wall time says little per page;
+     * parse time is measured around the parser calls themselves instead.
+     */
+    public static class BrandResult {
+        private final Brand brand;
+        private final int products;
+        private final int failedPages;
+        private final int productPages;
+        private final long listingMillis;
+        private final long productPagesMillis;
+        private final int parsedPages;
+        private final long parseNanos;
+        private final String error;
+
+        BrandResult(Brand brand, int products, int failedPages, int productPages, long listingMillis,
+                    long productPagesMillis, int parsedPages, long parseNanos, String error) {
+            this.brand = brand;
+            this.products = products;
+            this.failedPages = failedPages;
+            this.productPages = productPages;
+            this.listingMillis = listingMillis;
+            this.productPagesMillis = productPagesMillis;
+            this.parsedPages = parsedPages;
+            this.parseNanos = parseNanos;
+            this.error = error;
+        }
+
+        public Brand getBrand() {
+            return brand;
+        }
+
+        public int getProducts() {
+            return products;
+        }
+
+        public int getFailedPages() {
+            return failedPages;
+        }
+
+        /**
+         * Pages loaded: the listing page plus every product page
+         */
+        public int getPages() {
+            return productPages + 1;
+        }
+
+        public long getListingMillis() {
+            return listingMillis;
+        }
+
+        public long getProductPagesMillis() {
+            return productPagesMillis;
+        }
+
+        public long getTotalMillis() {
+            return listingMillis + productPagesMillis;
+        }
+
+        public double getPagesPerSecond() {
+            long total = getTotalMillis();
+            return total == 0 ? 0 : getPages() * 1000.0 / total;
+        }
+
+        /**
+         * Mean time inside the page parsers per parsed product page (HTTP and Selenium
+         * attempts together; unchanged and resumed pages are not parsed and not counted)
+         */
+        public double getMillisPerProductPage() {
+            return parsedPages == 0 ? 0 : parseNanos / 1_000_000.0 / parsedPages;
+        }
+
+        public int getParsedPages() {
+            return parsedPages;
+        }
+
+        public String getError() {
+            return error;
+        }
+    }
+}
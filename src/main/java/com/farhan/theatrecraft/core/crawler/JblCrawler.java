@@ -26,48 +26,50 @@ public class JblCrawler extends BaseSeleniumCrawler implements ProductCrawler {
     }
 
     @Override
-    public List<Product> crawlProducts() {
-        WebDriver driver = null;
+    public List<Product> crawlProducts(CrawlContext context) {
         List<Product> products = new ArrayList<>();
 
         System.out.println("JblCrawler: Starting crawl of " + JBL_LISTING_URL);
 
         try {
-            driver = createDriver();
-            driver.get(JBL_LISTING_URL);
-            sleep(2000);
-
-            // Optional: if JBL shows a cookie popup, you can add a handler here later
-
-            // ==============================
-            // Scroll to load all 9 products
-            // ==============================
-            try {
-                JavascriptExecutor js = (JavascriptExecutor) driver;
-                js.executeScript("window.scrollTo(0, 0);");
-                sleep(800);
-
-                long lastHeight = (Long) js.executeScript("return document.body.scrollHeight;");
-                for (int i = 0; i < 6; i++) {
-                    js.executeScript("window.scrollTo(0, document.body.scrollHeight);");
-                    sleep(1200);
-                    long newHeight = (Long) js.executeScript("return document.body.scrollHeight;");
-                    if (newHeight == lastHeight) {
-                        break;
+            String listingHtml;
+            try (WebDriverPool.Session session = openSession()) {
+                WebDriver driver = session.getDriver();
+                loadPage(driver, JBL_LISTING_URL);
+                session.pageVisited();
+                waitForPageReady(driver);
+
+                // Optional: if JBL shows a cookie popup, you can add a handler here later
+
+                // ==============================
+                // Scroll to load all 9 products
+                // ==============================
+                try {
+                    JavascriptExecutor js = (JavascriptExecutor) driver;
+                    js.executeScript("window.scrollTo(0, 0);");
+
+                    long lastHeight = (Long) js.executeScript("return document.body.scrollHeight;");
+                    for (int i = 0; i < 6; i++) {
+                        js.executeScript("window.scrollTo(0, document.body.scrollHeight);");
+                        waitForNetworkIdle(driver);
+                        long newHeight = (Long) js.executeScript("return document.body.scrollHeight;");
+                        if (newHeight == lastHeight) {
+                            break;
+                        }
+                        lastHeight = newHeight;
                     }
-                    lastHeight = newHeight;
+
+                    System.out.println("JblCrawler: Finished scrolling listing page.");
+                } catch (Exception e) {
+                    System.out.println("JblCrawler: Scrolling listing failed, continuing anyway: " + e.getMessage());
                 }
 
-                sleep(1000);
-                System.out.println("JblCrawler: Finished scrolling listing page.");
-            } catch (Exception e) {
-                System.out.println("JblCrawler: Scrolling listing failed, continuing anyway: " + e.getMessage());
+                listingHtml = getPageSource(driver, JBL_LISTING_URL);
             }
 
             // ==============================
             // Collect product URLs from listing
             // ==============================
-            String listingHtml = driver.getPageSource();
             Document listingDoc = Jsoup.parse(listingHtml);
 
             Set<String> productUrls = new LinkedHashSet<>();
@@ -100,66 +102,54 @@ public class JblCrawler extends BaseSeleniumCrawler implements ProductCrawler {
 
             System.out.println("JblCrawler: Found " + productUrls.size() + " potential product URLs.");
             productUrls.forEach(u -> System.out.println("  -> " + u));
+            context.urlsFound(productUrls.size());
 
             // ==============================
-            // Visit each product page
+            // Visit each product page (HTTP first, pooled browser sessions as fallback)
             // ==============================
-            for (String productUrl : productUrls) {
-                try {
-                    driver.get(productUrl);
-                    sleep(2000);
-
-                    // Scroll toward specs section so all content is loaded
-                    try {
-                        JavascriptExecutor js = (JavascriptExecutor) driver;
-                        // Try to scroll to the "Specs" section link first
-                        js.executeScript(
-                                "var el = document.querySelector('li.js-scroll[data-section=\"specs\"]');" +
-                                "if (el) { el.scrollIntoView(true); }"
-                        );
-                        sleep(1000);
-
-                        // Then scroll a bit further down to ensure section content is rendered
-                        js.executeScript("window.scrollBy(0, 400);");
-                        sleep(1000);
-
-                    } catch (Exception e) {
-                        System.out.println("JblCrawler: Could not scroll to specs for " + productUrl +
-                                " -> " + e.getMessage());
-                    }
-
-                    String productHtml = driver.getPageSource();
-                    Document productDoc = Jsoup.parse(productHtml);
-
-                    Product p = parseJblProductPage(productDoc, productUrl);
-                    if (p != null) {
-                        products.add(p);
-                        System.out.println("JblCrawler: Parsed JBL product -> "
-                                + p.getModelName() + " | URL: " + p.getProductUrl());
-                    } else {
-                        System.out.println("JblCrawler: Skipped product page (parse returned null): " + productUrl);
-                    }
-
-                } catch (Exception e) {
-                    System.out.println("JblCrawler: Error processing product URL " + productUrl +
-                            " -> " + e.getMessage());
-                }
-            }
+            products = parseProductPages(productUrls, this::parseJblProductPage, this::loadJblProductPage, context);
 
             System.out.println("JblCrawler: Total JBL products parsed: " + products.size());
 
         } catch (Exception e) {
             System.err.println("JblCrawler: Error during crawl - " + e.getMessage());
             e.printStackTrace();
-        } finally {
-            if (driver != null) {
-                tearDown(driver);
-            }
         }
 
         return products;
     }
 
+    /**
+     * Load one product page, scroll its specs into view and parse it
+     */
+    private Product loadJblProductPage(WebDriver driver, String productUrl) {
+        loadPage(driver, productUrl);
+        waitForPageReady(driver);
+
+        // Scroll toward specs section so all content is loaded
+        try {
+            JavascriptExecutor js = (JavascriptExecutor) driver;
+            // Try to scroll to the "Specs" section link first
+            js.executeScript(
+                    "var el = document.querySelector('li.js-scroll[data-section=\"specs\"]');" +
+                    "if (el) { el.scrollIntoView(true); }"
+            );
+
+            // Then scroll a bit further down to ensure section content is rendered
+            js.executeScript("window.scrollBy(0, 400);");
+            waitForSelector(driver, "section.pdp-specs[data-section=specs] .specs-wrapper");
+
+        } catch (Exception e) {
+            System.out.println("JblCrawler: Could not scroll to specs for " + productUrl +
+                    " -> " + e.getMessage());
+        }
+
+        String productHtml = getPageSource(driver, productUrl);
+        Document productDoc = Jsoup.parse(productHtml);
+
+        return parseJblProductPage(productDoc, productUrl);
+    }
+
     // =====================================================
     // Parse a single JBL product detail page (with specs)
     // =====================================================
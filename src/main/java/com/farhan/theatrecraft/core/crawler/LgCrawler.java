@@ -48,20 +48,24 @@ public class LgCrawler extends BaseSeleniumCrawler implements ProductCrawler {
     }
 
     @Override
-    public List<Product> crawlProducts() {
-        WebDriver driver = null;
+    public List<Product> crawlProducts(CrawlContext context) {
         try {
             System.out.println("LgCrawler: Starting crawl of " + LISTING_URL);
-            driver = createDriver();
-            driver.get(LISTING_URL);
+            Set<String> productUrls;
+            try (WebDriverPool.Session session = openSession()) {
+                WebDriver driver = session.getDriver();
+                loadPage(driver, LISTING_URL);
+                session.pageVisited();
 
-            handleLgCookiePopup(driver);
-            scrollListingToLoadAllProducts(driver);
+                handleLgCookiePopup(driver);
+                scrollListingToLoadAllProducts(driver);
 
-            Document listingDoc = Jsoup.parse(driver.getPageSource(), BASE_URL);
-            Set<String> productUrls = extractProductUrls(listingDoc);
+                Document listingDoc = Jsoup.parse(getPageSource(driver, LISTING_URL), BASE_URL);
+                productUrls = extractProductUrls(listingDoc);
+            }
 
             System.out.println("LgCrawler: Found " + productUrls.size() + " product URLs");
+            context.urlsFound(productUrls.size());
             
             // Print all URLs for debugging
             int urlIndex = 1;
@@ -70,34 +74,17 @@ public class LgCrawler extends BaseSeleniumCrawler implements ProductCrawler {
                 urlIndex++;
             }
 
-            List<Product> products = new ArrayList<>();
-            int successCount = 0;
-            int failureCount = 0;
-
-            for (String url : productUrls) {
-                System.out.println("LgCrawler: Parsing product " + (successCount + failureCount + 1) + "/" + productUrls.size());
-                Product product = parseProductPage(driver, url);
-                if (product != null) {
-                    products.add(product);
-                    successCount++;
-                    System.out.println("LgCrawler: Successfully parsed - " + product.getModelName());
-                } else {
-                    failureCount++;
-                    System.out.println("LgCrawler: Failed to parse product from: " + url);
-                }
-            }
+            // Product pages are fetched over HTTP first; Selenium sessions only render what that misses
+            List<Product> products = parseProductPages(productUrls, this::parseLgProductDocument, this::parseProductPage, context);
 
-            System.out.println("LgCrawler: Completed. Success: " + successCount + ", Failed: " + failureCount);
+            System.out.println("LgCrawler: Completed. Success: " + products.size() + ", Failed: " +
+                    (productUrls.size() - products.size()));
             return products;
 
         } catch (Exception e) {
             System.err.println("LgCrawler: Error during crawl - " + e.getMessage());
             e.printStackTrace();
             return new ArrayList<>();
-        } finally {
-            if (driver != null) {
-                driver.quit();
-            }
         }
     }
 
@@ -123,7 +110,7 @@ public class LgCrawler extends BaseSeleniumCrawler implements ProductCrawler {
 
             while (true) {
                 js.executeScript("window.scrollTo(0, document.body.scrollHeight);");
-                Thread.sleep(1000);
+                waitForNetworkIdle(driver);
 
                 long newHeight = (long) js.executeScript("return document.body.scrollHeight");
                 if (newHeight == lastHeight) {
@@ -131,8 +118,6 @@ public class LgCrawler extends BaseSeleniumCrawler implements ProductCrawler {
                 }
                 lastHeight = newHeight;
             }
-        } catch (InterruptedException e) {
-            Thread.currentThread().interrupt();
         } catch (Exception ignored) {
         }
     }
@@ -242,90 +227,17 @@ public class LgCrawler extends BaseSeleniumCrawler implements ProductCrawler {
     private Product parseProductPage(WebDriver driver, String productUrl) {
         try {
             System.out.println("LgCrawler: Loading product page: " + productUrl);
-            driver.get(productUrl);
-
-            // Wait for page to load with increased timeout
-            WebDriverWait wait = new WebDriverWait(driver, Duration.ofSeconds(15));
-            try {
-                wait.until(ExpectedConditions.presenceOfElementLocated(
-                        By.cssSelector(".c-product-digest-information")));
-            } catch (Exception e) {
+            loadPage(driver, productUrl);
+
+            // Wait for the product summary to render
+            if (!waitForSelector(driver, ".c-product-digest-information")) {
                 System.err.println("LgCrawler: Timeout waiting for .c-product-digest-information on: " + productUrl);
                 // Continue anyway, maybe the page loaded with different structure
             }
 
             scrollToSpecsSection(driver);
 
-            Document doc = Jsoup.parse(driver.getPageSource(), BASE_URL);
-
-            String title = extractTitle(doc);    // modelName
-            String priceText = extractPrice(doc);
-            String ratingText = extractRating(doc);
-            String imageUrl = extractImageUrl(doc);
-            // Default spec values (everything "Unavailable" by default)
-            String bluetoothVersion = "Unavailable";
-            String wifiFormat      = "Unavailable";
-            String audioFormat     = "Unavailable"; // always Unavailable as per requirement
-            String channel         = "Unavailable";
-            String power           = "Unavailable";
-            String weightKg        = "Unavailable";
-
-            Element specsRoot = doc.getElementById("pdp-specs-section");
-            if (specsRoot != null) {
-                SpecResult spec = extractSpecs(specsRoot);
-
-                if (spec.bluetoothVersion != null) {
-                    bluetoothVersion = spec.bluetoothVersion;
-                }
-                if (spec.wifiFormat != null) {
-                    wifiFormat = spec.wifiFormat;
-                }
-                if (spec.channel != null) {
-                    channel = spec.channel;
-                }
-                if (spec.power != null) {
-                    power = spec.power;
-                }
-                if (spec.weightKg != null) {
-                    weightKg = spec.weightKg;
-                }
-            }
-
-            // Convert price and rating to Double
-            Double price = parsePriceToDouble(priceText);
-            Double rating = parseRatingToDouble(ratingText);
-
-            // Log extracted data for debugging
-            System.out.println("LgCrawler: Extracted data for product:");
-            System.out.println("  Title: " + title);
-            System.out.println("  Price: " + priceText + " -> " + price);
-            System.out.println("  Rating: " + ratingText + " -> " + rating);
-            System.out.println("  Image: " + imageUrl);
-            System.out.println("  Channel: " + channel);
-            System.out.println("  Power: " + power);
-
-            // Build Product per your model
-            
-            Product product = new Product();
-            product.setId(UUID.randomUUID().toString());
-            product.setBrand(Brand.LG);
-            product.setSourceSite("LG");          // like "JBL", "BOSE" etc
-            product.setModelName(title);          // main product name
-            product.setSystemType("Soundbar");    // consistent with your other crawlers
-            product.setCategory("Home Theatre");  // or whatever you used for JBL/BOSE
-
-            product.setPrice(price);
-            product.setRating(rating);
-            product.setImageUrl(imageUrl);
-            product.setProductUrl(productUrl);
-
-            product.setBluetoothVersion(bluetoothVersion);
-            product.setWifiFormat(wifiFormat);
-            product.setAudioFormat(audioFormat);
-            product.setChannel(channel);
-            product.setPower(power);
-            product.setWeightKg(weightKg);
-
+            Product product = parseLgProductDocument(Jsoup.parse(getPageSource(driver, productUrl), BASE_URL), productUrl);
             System.out.println("LgCrawler: Product object created successfully");
             return product;
         } catch (Exception e) {
@@ -336,15 +248,88 @@ public class LgCrawler extends BaseSeleniumCrawler implements ProductCrawler {
         }
     }
 
+    /**
+     * Build a product from a product page document (rendered by Selenium or fetched over HTTP)
+     */
+    private Product parseLgProductDocument(Document doc, String productUrl) {
+        String title = extractTitle(doc);    // modelName
+        String priceText = extractPrice(doc);
+        String ratingText = extractRating(doc);
+        String imageUrl = extractImageUrl(doc);
+        // Default spec values (everything "Unavailable" by default)
+        String bluetoothVersion = "Unavailable";
+        String wifiFormat      = "Unavailable";
+        String audioFormat     = "Unavailable"; // always Unavailable as per requirement
+        String channel         = "Unavailable";
+        String power           = "Unavailable";
+        String weightKg        = "Unavailable";
+
+        Element specsRoot = doc.getElementById("pdp-specs-section");
+        if (specsRoot != null) {
+            SpecResult spec = extractSpecs(specsRoot);
+
+            if (spec.bluetoothVersion != null) {
+                bluetoothVersion = spec.bluetoothVersion;
+            }
+            if (spec.wifiFormat != null) {
+                wifiFormat = spec.wifiFormat;
+            }
+            if (spec.channel != null) {
+                channel = spec.channel;
+            }
+            if (spec.power != null) {
+                power = spec.power;
+            }
+            if (spec.weightKg != null) {
+                weightKg = spec.weightKg;
+            }
+        }
+
+        // Convert price and rating to Double
+        Double price = parsePriceToDouble(priceText);
+        Double rating = parseRatingToDouble(ratingText);
+
+        // Log extracted data for debugging
+        System.out.println("LgCrawler: Extracted data for product:");
+        System.out.println("  Title: " + title);
+        System.out.println("  Price: " + priceText + " -> " + price);
+        System.out.println("  Rating: " + ratingText + " -> " + rating);
+        System.out.println("  Image: " + imageUrl);
+        System.out.println("  Channel: " + channel);
+        System.out.println("  Power: " + power);
+
+        // Build Product per your model
+        
+        Product product = new Product();
+        product.setId(UUID.randomUUID().toString());
+        product.setBrand(Brand.LG);
+        product.setSourceSite("LG");          // like "JBL", "BOSE" etc
+        product.setModelName(title);          // main product name
+        product.setSystemType("Soundbar");    // consistent with your other crawlers
+        product.setCategory("Home Theatre");  // or whatever you used for JBL/BOSE
+
+        product.setPrice(price);
+        product.setRating(rating);
+        product.setImageUrl(imageUrl);
+        product.setProductUrl(productUrl);
+
+        product.setBluetoothVersion(bluetoothVersion);
+        product.setWifiFormat(wifiFormat);
+        product.setAudioFormat(audioFormat);
+        product.setChannel(channel);
+        product.setPower(power);
+        product.setWeightKg(weightKg);
+        return product;
+    }
+
     private void scrollToSpecsSection(WebDriver driver) {
         try {
             JavascriptExecutor js = (JavascriptExecutor) driver;
             js.executeScript(
                     "var el = document.getElementById('pdp-specs-section');" +
                     "if (el) { el.scrollIntoView({behavior: 'instant', block: 'start'}); }");
-            Thread.sleep(1000);
-        } catch (InterruptedException e) {
-            Thread.currentThread().interrupt();
+            // Specs and the review widget (rating) load once scrolled into view
+            waitForNetworkIdle(driver);
         } catch (Exception ignored) {
         }
     }
@@ -368,7 +353,6 @@ public class LgCrawler extends BaseSeleniumCrawler implements ProductCrawler {
     }
 
     private String extractRating(Document doc) {
-        sleep(4000);
         Element ratingEl = doc.selectFirst(".bv_avgRating_component_container");
         if (ratingEl == null) {
             ratingEl = doc.selectFirst("[itemprop=ratingValue]");
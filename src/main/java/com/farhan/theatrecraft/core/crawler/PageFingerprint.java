@@ -0,0 +1,80 @@
+package com.farhan.theatrecraft.core.crawler;
+
+import org.jsoup.Connection;
+import org.jsoup.nodes.Document;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+
+/**
+ * Fingerprint of a fetched product page, stored with its product
+ * A SHA-256 of the page's visible text (scripts and markup churn without the
+ * product changing) plus the HTTP validators for conditional requests.
+ * Format: "sha256:<hex>|etag:<value>|lm:<value>" (validators only when the server sent them).
+ */
+final class PageFingerprint {
+
+    private static final String HASH = "sha256:";
+    private static final String ETAG = "etag:";
+    private static final String LAST_MODIFIED = "lm:";
+
+    private PageFingerprint() {
+    }
+
+    static String of(Connection.Response response, Document doc) {
+        StringBuilder sb = new StringBuilder(HASH).append(hash(doc.text()));
+        String etag = response.header("ETag");
+        if (etag != null && !etag.isBlank()) {
+            sb.append('|').append(ETAG).append(clean(etag));
+        }
+        String lastModified = response.header("Last-Modified");
+        if (lastModified != null && !lastModified.isBlank()) {
+            sb.append('|').append(LAST_MODIFIED).append(clean(lastModified));
+        }
+        return sb.toString();
+    }
+
+    /**
+     * True if both fingerprints carry the same content hash
+     */
+    static boolean sameContent(String a, String b) {
+        String hash = part(a, HASH);
+        return hash != null && hash.equals(part(b, HASH));
+    }
+
+    static String etag(String fingerprint) {
+        return part(fingerprint, ETAG);
+    }
+
+    static String lastModified(String fingerprint) {
+        return part(fingerprint, LAST_MODIFIED);
+    }
+
+    private static String part(String fingerprint, String prefix) {
+        if (fingerprint == null) {
+            return null;
+        }
+        for (String part : fingerprint.split("\\|")) {
+            if (part.startsWith(prefix)) {
+                return part.substring(prefix.length());
+            }
+        }
+        return null;
+    }
+
+    private static String hash(String text) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(digest.digest(text.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+
+    // The CSV uses ';' and the fingerprint itself uses '|'
+    private static String clean(String value) {
+        return value.trim().replace(";", ",").replace("|", "/");
+    }
+}
@@ -21,8 +21,9 @@ public final class PopupHandler {
 
     /**
      * Entry point: handle popups for a given brand.
+     * Waits for a popup to go away run through the crawler, so they are recorded in its wait stats.
      */
-    public static void handlePopups(WebDriver driver, Brand brand) {
+    public static void handlePopups(WebDriver driver, Brand brand, BaseSeleniumCrawler crawler) {
         if (driver == null || brand == null) {
             return;
         }
@@ -31,7 +32,7 @@ public final class PopupHandler {
 
         switch (brand) {
             case BOSE -> handleBosePopups(driver, wait);
-            case SONOS -> handleSonosPopups(driver, wait);
+            case SONOS -> handleSonosPopups(driver, wait, crawler);
             case SAMSUNG -> handleSamsungPopups(driver, wait);
             case LG -> handleLgPopups(driver, wait);
             case JBL -> handleJblPopups(driver, wait);
@@ -86,7 +87,7 @@ public final class PopupHandler {
     // SONOS POPUPS (TODO)
     // ==========================
 
-    private static void handleSonosPopups(WebDriver driver, WebDriverWait wait) {
+    private static void handleSonosPopups(WebDriver driver, WebDriverWait wait, BaseSeleniumCrawler crawler) {
         System.out.println("[Sonos] Attempting to handle popups...");
         
         // Handle lightbox popup with close button
@@ -98,8 +99,8 @@ public final class PopupHandler {
                 )
             );
             closeButton.click();
+            crawler.waitUntil(driver, "popup-closed", ExpectedConditions.invisibilityOf(closeButton));
             System.out.println("[Sonos] Lightbox popup closed.");
-            Thread.sleep(500);
         } catch (TimeoutException e) {
             System.out.println("[Sonos] No lightbox popup found or already dismissed.");
         } catch (Exception e) {
@@ -7,5 +7,13 @@ import java.util.List;
 
 public interface ProductCrawler {
     Brand getBrand();
-    List<Product> crawlProducts();
+
+    /**
+     * Crawl all products of the brand, reporting per-product progress to the context
+     */
+    List<Product> crawlProducts(CrawlContext context);
+
+    default List<Product> crawlProducts() {
+        return crawlProducts(new CrawlContext(getBrand(), null));
+    }
 }
@@ -19,6 +19,7 @@ public class SamsungCrawler extends BaseSeleniumCrawler implements ProductCrawle
     
     private static final String BASE_URL = "https://www.samsung.com";
     private static final String LISTING_URL = "https://www.samsung.com/ca/audio-devices/all-audio-devices/?soundbar";
+    private static final String PRODUCT_LINK_SELECTOR = "a[href*='/ca/audio-devices/soundbar/']";
 
     @Override
     public Brand getBrand() {
@@ -26,53 +27,41 @@ public class SamsungCrawler extends BaseSeleniumCrawler implements ProductCrawle
     }
 
     @Override
-    public List<Product> crawlProducts() {
-        WebDriver driver = null;
+    public List<Product> crawlProducts(CrawlContext context) {
         try {
             System.out.println("SamsungCrawler: Starting crawl of " + LISTING_URL);
-            driver = createDriver();
-            driver.get(LISTING_URL);
-            
-            sleep(5000);
+            Set<String> productUrls;
+            try (WebDriverPool.Session session = openSession()) {
+                WebDriver driver = session.getDriver();
+                loadPage(driver, LISTING_URL);
+                session.pageVisited();
+                
+                waitForPageReady(driver);
 
-            PopupHandler.handlePopups(driver, Brand.SAMSUNG);
-            sleep(2000);
+                handlePopups(driver);
 
-            scrollToLoadProducts(driver);
-            sleep(3000);
+                scrollToLoadProducts(driver);
+                waitForSelector(driver, PRODUCT_LINK_SELECTOR);
 
-            Document listingDoc = Jsoup.parse(driver.getPageSource(), BASE_URL);
-            Set<String> productUrls = extractProductUrls(listingDoc);
+                Document listingDoc = Jsoup.parse(getPageSource(driver, LISTING_URL), BASE_URL);
+                productUrls = extractProductUrls(listingDoc);
+            }
 
             System.out.println("SamsungCrawler: Found " + productUrls.size() + " product URLs");
+            context.urlsFound(productUrls.size());
 
-            List<Product> products = new ArrayList<>();
-            int successCount = 0;
-            int failureCount = 0;
-
-            for (String url : productUrls) {
-                System.out.println("SamsungCrawler: Parsing product " + (successCount + failureCount + 1) + "/" + productUrls.size());
-                Product product = parseProductPage(driver, url);
-                if (product != null) {
-                    products.add(product);
-                    successCount++;
-                    System.out.println("SamsungCrawler: Successfully parsed - " + product.getModelName());
-                } else {
-                    failureCount++;
-                }
-            }
+            // Product pages are fetched over HTTP first; Selenium sessions only render what that misses
+            List<Product> products = parseProductPages(productUrls,
+                    (doc, url) -> parseSamsungProductDocument(doc, doc, url), this::parseProductPage, context);
 
-            System.out.println("SamsungCrawler: Completed. Success: " + successCount + ", Failed: " + failureCount);
+            System.out.println("SamsungCrawler: Completed. Success: " + products.size() + ", Failed: " +
+                    (productUrls.size() - products.size()));
             return products;
 
         } catch (Exception e) {
             System.err.println("SamsungCrawler: Error during crawl - " + e.getMessage());
             e.printStackTrace();
             return new ArrayList<>();
-        } finally {
-            if (driver != null) {
-                tearDown(driver);
-            }
         }
     }
 
@@ -80,7 +69,6 @@ public class SamsungCrawler extends BaseSeleniumCrawler implements ProductCrawle
         try {
             JavascriptExecutor js = (JavascriptExecutor) driver;
             js.executeScript("window.scrollTo(0, 0);");
-            sleep(1000);
 
             long scrollHeight = (Long) js.executeScript("return document.body.scrollHeight;");
             int steps = 10;
@@ -89,11 +77,11 @@ public class SamsungCrawler extends BaseSeleniumCrawler implements ProductCrawle
                 long y = scrollHeight * i / steps;
                 js.executeScript("window.scrollTo(0, arguments[0]);", y);
                 System.out.println("SamsungCrawler: Scrolling step " + i + "/" + steps);
-                sleep(2000);
+                waitForNetworkIdle(driver);
             }
 
             js.executeScript("window.scrollTo(0, document.body.scrollHeight);");
-            sleep(3000);
+            waitForNetworkIdle(driver);
             
             System.out.println("SamsungCrawler: Finished scrolling");
         } catch (Exception e) {
@@ -103,7 +91,7 @@ public class SamsungCrawler extends BaseSeleniumCrawler implements ProductCrawle
 
     private Set<String> extractProductUrls(Document doc) {
         Set<String> urls = new LinkedHashSet<>();
-        Elements productLinks = doc.select("a[href*='/ca/audio-devices/soundbar/']");
+        Elements productLinks = doc.select(PRODUCT_LINK_SELECTOR);
         
         for (Element link : productLinks) {
             String href = link.attr("href");
@@ -125,72 +113,26 @@ public class SamsungCrawler extends BaseSeleniumCrawler implements ProductCrawle
 
     private Product parseProductPage(WebDriver driver, String productUrl) {
         try {
-            driver.get(productUrl);
-            sleep(3000);
-
-            // Wait additional time for price and rating to load (they load dynamically)
-            sleep(4000);
+            loadPage(driver, productUrl);
+            waitForSelector(driver, "h1.pdd39-anchor-nav__headline");
 
             // Scroll to top to ensure price/rating elements are in viewport
             JavascriptExecutor js = (JavascriptExecutor) driver;
             js.executeScript("window.scrollTo(0, 0);");
-            sleep(2000);
 
-            // Wait a bit more for dynamic content to fully render
-            sleep(2000);
+            // Price and rating load dynamically; wait until their requests have settled
+            waitForNetworkIdle(driver);
 
             // Parse the page to get price and rating while at top
-            Document docTop = Jsoup.parse(driver.getPageSource(), productUrl);
-
-            Product product = new Product();
-            product.setId(UUID.randomUUID().toString());
-            product.setBrand(Brand.SAMSUNG);
-            product.setSourceSite(LISTING_URL);
-            product.setProductUrl(productUrl);
-
-            Element nameElem = docTop.selectFirst("h1.pdd39-anchor-nav__headline.sg-product-display-name");
-            if (nameElem != null) {
-                product.setModelName(nameElem.text().trim());
-            }
-
-            Element priceElem = docTop.selectFirst("span.pd-buying-price__new-price-currency");
-            if (priceElem != null) {
-                product.setPrice(parsePrice(priceElem.text().trim()));
-            }
-
-            // Rating: <strong class="rating__point"><span class="hidden">Product Ratings : </span><span>4.7</span></strong>
-            // We need to select the strong element, then get the last span child (not the hidden one)
-            Element ratingStrong = docTop.selectFirst("strong.rating__point");
-            if (ratingStrong != null) {
-                Elements spans = ratingStrong.select("span");
-                // The second span (index 1) contains the actual rating value
-                if (spans.size() >= 2) {
-                    String ratingText = spans.get(1).text();
-                    product.setRating(parseRating(ratingText));
-                }
-            }
-
-            Element imageElem = docTop.selectFirst("div.image.image--main-loaded img.image__main");
-            if (imageElem != null) {
-                String imgSrc = imageElem.attr("src");
-                if (imgSrc.isBlank()) {
-                    imgSrc = imageElem.attr("data-desktop-src");
-                }
-                product.setImageUrl(imgSrc);
-            }
+            Document docTop = Jsoup.parse(getPageSource(driver, productUrl), productUrl);
 
             // Now scroll down to load and extract specifications
             scrollToSpecsSection(driver);
-            sleep(2000);
 
             // Parse the page again to get specifications
-            Document docSpecs = Jsoup.parse(driver.getPageSource(), productUrl);
-            extractSpecifications(docSpecs, product);
-
-            product.setCategory("Soundbar");
-            product.setSystemType("Soundbar");
+            Document docSpecs = Jsoup.parse(getPageSource(driver, productUrl), productUrl);
 
-            return product;
+            return parseSamsungProductDocument(docTop, docSpecs, productUrl);
 
         } catch (Exception e) {
             System.err.println("SamsungCrawler: Error parsing product page " + productUrl + " - " + e.getMessage());
@@ -198,20 +140,69 @@ public class SamsungCrawler extends BaseSeleniumCrawler implements ProductCrawle
         }
     }
 
+    /**
+     * Build a product from the page's top (price, rating) and specs documents
+     * Over HTTP both are the same server-rendered document.
+     */
+    private Product parseSamsungProductDocument(Document docTop, Document docSpecs, String productUrl) {
+        Product product = new Product();
+        product.setId(UUID.randomUUID().toString());
+        product.setBrand(Brand.SAMSUNG);
+        product.setSourceSite(LISTING_URL);
+        product.setProductUrl(productUrl);
+
+        Element nameElem = docTop.selectFirst("h1.pdd39-anchor-nav__headline.sg-product-display-name");
+        if (nameElem != null) {
+            product.setModelName(nameElem.text().trim());
+        }
+
+        Element priceElem = docTop.selectFirst("span.pd-buying-price__new-price-currency");
+        if (priceElem != null) {
+            product.setPrice(parsePrice(priceElem.text().trim()));
+        }
+
+        // Rating: <strong class="rating__point"><span class="hidden">Product Ratings : </span><span>4.7</span></strong>
+        // We need to select the strong element, then get the last span child (not the hidden one)
+        Element ratingStrong = docTop.selectFirst("strong.rating__point");
+        if (ratingStrong != null) {
+            Elements spans = ratingStrong.select("span");
+            // The second span (index 1) contains the actual rating value
+            if (spans.size() >= 2) {
+                String ratingText = spans.get(1).text();
+                product.setRating(parseRating(ratingText));
+            }
+        }
+
+        Element imageElem = docTop.selectFirst("div.image.image--main-loaded img.image__main");
+        if (imageElem != null) {
+            String imgSrc = imageElem.attr("src");
+            if (imgSrc.isBlank()) {
+                imgSrc = imageElem.attr("data-desktop-src");
+            }
+            product.setImageUrl(imgSrc);
+        }
+
+        extractSpecifications(docSpecs, product);
+
+        product.setCategory("Soundbar");
+        product.setSystemType("Soundbar");
+
+        return product;
+    }
+
     private void scrollToSpecsSection(WebDriver driver) {
         try {
             JavascriptExecutor js = (JavascriptExecutor) driver;
             List<WebElement> specsElements = driver.findElements(By.cssSelector("div.pdd32-product-spec__inner"));
             
             if (!specsElements.isEmpty()) {
-                js.executeScript("arguments[0].scrollIntoView({behavior: ''smooth'', block: ''center''});", specsElements.get(0));
-                sleep(2000);
+                js.executeScript("arguments[0].scrollIntoView({behavior: 'instant', block: 'center'});", specsElements.get(0));
             } else {
                 for (int i = 0; i < 5; i++) {
                     js.executeScript("window.scrollBy(0, 500);");
-                    sleep(1000);
                 }
             }
+            waitForNetworkIdle(driver);
         } catch (Exception e) {
             System.err.println("SamsungCrawler: Error scrolling to specs - " + e.getMessage());
         }
@@ -21,6 +21,7 @@ public class SonosCrawler extends BaseSeleniumCrawler implements ProductCrawler
     
     private static final String BASE_URL = "https://www.sonos.com";
     private static final String LISTING_URL = "https://www.sonos.com/en-ca/shop/home-theater?filterTokenSetProductTypes=soundbars%2Csubwoofers";
+    private static final String PRODUCT_LINK_SELECTOR = "a[href^='/en-ca/shop/']";
 
     @Override
     public Brand getBrand() {
@@ -28,29 +29,32 @@ public class SonosCrawler extends BaseSeleniumCrawler implements ProductCrawler
     }
 
     @Override
-    public List<Product> crawlProducts() {
-        WebDriver driver = null;
+    public List<Product> crawlProducts(CrawlContext context) {
         try {
             System.out.println("SonosCrawler: Starting crawl of " + LISTING_URL);
-            driver = createDriver();
-            driver.get(LISTING_URL);
-            
-            // Wait for initial page load
-            sleep(4000);
+            Set<String> productUrls;
+            try (WebDriverPool.Session session = openSession()) {
+                WebDriver driver = session.getDriver();
+                loadPage(driver, LISTING_URL);
+                session.pageVisited();
+                
+                // Wait for initial page load
+                waitForPageReady(driver);
 
-            // Handle popups
-            PopupHandler.handlePopups(driver, Brand.SONOS);
-            sleep(2000);
+                // Handle popups
+                handlePopups(driver);
 
-            // Scroll to load all products
-            scrollToLoadProducts(driver);
-            sleep(2000);
+                // Scroll to load all products
+                scrollToLoadProducts(driver);
+                waitForSelector(driver, PRODUCT_LINK_SELECTOR);
 
-            // Parse listing page to extract product URLs
-            Document listingDoc = Jsoup.parse(driver.getPageSource(), BASE_URL);
-            Set<String> productUrls = extractProductUrls(listingDoc);
+                // Parse listing page to extract product URLs
+                Document listingDoc = Jsoup.parse(getPageSource(driver, LISTING_URL), BASE_URL);
+                productUrls = extractProductUrls(listingDoc);
+            }
 
             System.out.println("SonosCrawler: Found " + productUrls.size() + " product URLs");
+            context.urlsFound(productUrls.size());
             
             // Print all URLs for debugging
             int urlIndex = 1;
@@ -59,34 +63,18 @@ public class SonosCrawler extends BaseSeleniumCrawler implements ProductCrawler
                 urlIndex++;
             }
 
-            List<Product> products = new ArrayList<>();
-            int successCount = 0;
-            int failureCount = 0;
+            // Product pages are fetched over HTTP first; Selenium sessions only render what that misses
+            List<Product> products = parseProductPages(productUrls,
+                    (doc, url) -> parseSonosProductDocument(doc, doc, url), this::parseProductPage, context);
 
-            for (String url : productUrls) {
-                System.out.println("SonosCrawler: Parsing product " + (successCount + failureCount + 1) + "/" + productUrls.size());
-                Product product = parseProductPage(driver, url);
-                if (product != null) {
-                    products.add(product);
-                    successCount++;
-                    System.out.println("SonosCrawler: Successfully parsed - " + product.getModelName());
-                } else {
-                    failureCount++;
-                    System.out.println("SonosCrawler: Failed to parse product from: " + url);
-                }
-            }
-
-            System.out.println("SonosCrawler: Completed. Success: " + successCount + ", Failed: " + failureCount);
+            System.out.println("SonosCrawler: Completed. Success: " + products.size() + ", Failed: " +
+                    (productUrls.size() - products.size()));
             return products;
 
         } catch (Exception e) {
             System.err.println("SonosCrawler: Error during crawl - " + e.getMessage());
             e.printStackTrace();
             return new ArrayList<>();
-        } finally {
-            if (driver != null) {
-                tearDown(driver);
-            }
         }
     }
 
@@ -96,7 +84,7 @@ public class SonosCrawler extends BaseSeleniumCrawler implements ProductCrawler
             // Scroll down to load all products
             for (int i = 0; i < 3; i++) {
                 js.executeScript("window.scrollTo(0, document.body.scrollHeight);");
-                sleep(1000);
+                waitForNetworkIdle(driver);
             }
         } catch (Exception e) {
             System.err.println("SonosCrawler: Error scrolling - " + e.getMessage());
@@ -109,7 +97,7 @@ public class SonosCrawler extends BaseSeleniumCrawler implements ProductCrawler
         System.out.println("SonosCrawler: Extracting product URLs from filtered page...");
         
         // Collect all links from the page
-        Elements allLinks = listingDoc.select("a[href^='/en-ca/shop/']");
+        Elements allLinks = listingDoc.select(PRODUCT_LINK_SELECTOR);
         System.out.println("SonosCrawler: Found " + allLinks.size() + " total shop links");
         
         for (Element link : allLinks) {
@@ -199,64 +187,18 @@ public class SonosCrawler extends BaseSeleniumCrawler implements ProductCrawler
     private Product parseProductPage(WebDriver driver, String productUrl) {
         try {
             System.out.println("SonosCrawler: Loading product page: " + productUrl);
-            driver.get(productUrl);
-            sleep(3000); // Wait for page to load
-
-            Document doc = Jsoup.parse(driver.getPageSource(), BASE_URL);
+            loadPage(driver, productUrl);
+            waitForSelector(driver, "h1[itemprop='name']"); // Wait for the product header to render
 
-            // Extract basic product information
-            String modelName = extractModelName(doc);
-            String priceText = extractPrice(doc);
-            String ratingText = extractRating(doc);
-            String imageUrl = extractImageUrl(doc);
+            Document summaryDoc = Jsoup.parse(getPageSource(driver, productUrl), BASE_URL);
 
             // Scroll to specs section
             scrollToSpecsSection(driver);
-            sleep(2000);
 
             // Re-parse after scrolling
-            doc = Jsoup.parse(driver.getPageSource(), BASE_URL);
-
-            // Extract specifications
-            String audioFormat = extractSpec(doc, "Home Theatre Audio Formats");
-            String weightKg = extractSpec(doc, "Weight");
-            String wifiFormat = extractSpec(doc, "WiFi");
-            String power = extractSpec(doc, "Voltage");
-
-            // Convert price and rating
-            Double price = parsePrice(priceText);
-            Double rating = parseRating(ratingText);
-
-            // Log extracted data
-            System.out.println("SonosCrawler: Extracted data for product:");
-            System.out.println("  Model: " + modelName);
-            System.out.println("  Price: " + priceText + " -> " + price);
-            System.out.println("  Rating: " + ratingText + " -> " + rating);
-            System.out.println("  Image: " + imageUrl);
-            System.out.println("  Audio Format: " + audioFormat);
-            System.out.println("  Weight: " + weightKg);
-
-            // Build Product
-            Product product = new Product();
-            product.setId(UUID.randomUUID().toString());
-            product.setBrand(Brand.SONOS);
-            product.setSourceSite("Sonos");
-            product.setModelName(modelName);
-            product.setSystemType("Soundbar");
-            product.setCategory("Home Theatre");
-
-            product.setPrice(price);
-            product.setRating(rating);
-            product.setImageUrl(imageUrl);
-            product.setProductUrl(productUrl);
-
-            product.setAudioFormat(audioFormat);
-            product.setWeightKg(weightKg);
-            product.setWifiFormat(wifiFormat);
-            product.setPower(power);
-            product.setBluetoothVersion("Unavailable");
-            product.setChannel("Unavailable");
+            Document specsDoc = Jsoup.parse(getPageSource(driver, productUrl), BASE_URL);
 
+            Product product = parseSonosProductDocument(summaryDoc, specsDoc, productUrl);
             System.out.println("SonosCrawler: Product object created successfully");
             return product;
 
@@ -268,15 +210,68 @@ public class SonosCrawler extends BaseSeleniumCrawler implements ProductCrawler
         }
     }
 
+    /**
+     * Build a product from the page's summary (top of page) and specs documents
+     * Over HTTP both are the same server-rendered document.
+     */
+    private Product parseSonosProductDocument(Document summaryDoc, Document specsDoc, String productUrl) {
+        // Extract basic product information
+        String modelName = extractModelName(summaryDoc);
+        String priceText = extractPrice(summaryDoc);
+        String ratingText = extractRating(summaryDoc);
+        String imageUrl = extractImageUrl(summaryDoc);
+
+        // Extract specifications
+        String audioFormat = extractSpec(specsDoc, "Home Theatre Audio Formats");
+        String weightKg = extractSpec(specsDoc, "Weight");
+        String wifiFormat = extractSpec(specsDoc, "WiFi");
+        String power = extractSpec(specsDoc, "Voltage");
+
+        // Convert price and rating
+        Double price = parsePrice(priceText);
+        Double rating = parseRating(ratingText);
+
+        // Log extracted data
+        System.out.println("SonosCrawler: Extracted data for product:");
+        System.out.println("  Model: " + modelName);
+        System.out.println("  Price: " + priceText + " -> " + price);
+        System.out.println("  Rating: " + ratingText + " -> " + rating);
+        System.out.println("  Image: " + imageUrl);
+        System.out.println("  Audio Format: " + audioFormat);
+        System.out.println("  Weight: " + weightKg);
+
+        // Build Product
+        Product product = new Product();
+        product.setId(UUID.randomUUID().toString());
+        product.setBrand(Brand.SONOS);
+        product.setSourceSite("Sonos");
+        product.setModelName(modelName);
+        product.setSystemType("Soundbar");
+        product.setCategory("Home Theatre");
+
+        product.setPrice(price);
+        product.setRating(rating);
+        product.setImageUrl(imageUrl);
+        product.setProductUrl(productUrl);
+
+        product.setAudioFormat(audioFormat);
+        product.setWeightKg(weightKg);
+        product.setWifiFormat(wifiFormat);
+        product.setPower(power);
+        product.setBluetoothVersion("Unavailable");
+        product.setChannel("Unavailable");
+        return product;
+    }
+
     private void scrollToSpecsSection(WebDriver driver) {
         try {
             JavascriptExecutor js = (JavascriptExecutor) driver;
             // Scroll to tech specs section
             js.executeScript(
                 "var el = document.querySelector('[data-testid=\"tech-specks\"]');" +
-                "if (el) { el.scrollIntoView({behavior: 'smooth', block: 'start'}); }"
+                "if (el) { el.scrollIntoView({behavior: 'instant', block: 'start'}); }"
             );
-            sleep(1000);
+            waitForNetworkIdle(driver);
         } catch (Exception e) {
             System.err.println("SonosCrawler: Error scrolling to specs: " + e.getMessage());
         }
@@ -0,0 +1,302 @@
+package com.farhan.theatrecraft.core.crawler;
+
+import io.github.bonigarcia.wdm.WebDriverManager;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.chrome.ChromeDriver;
+import org.openqa.selenium.chrome.ChromeOptions;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.*;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Pool of headless Chrome sessions shared by all crawlers
+ * Driver setup runs once, idle browsers stay warm between crawls, a session is
+ * health-checked before each checkout and retired after maxPagesPerSession
+ * pages (long-lived Chrome sessions grow and slow down). At most maxSessions
+ * browsers are checked out at once; further checkouts wait.
+ */
+@Component
+public class WebDriverPool {
+
+    private static volatile boolean driverReady; // chromedriver binary resolved (once per process)
+
+    private final int maxSessions;
+    private final int maxPagesPerSession;
+    private final long borrowTimeoutMillis;
+    private final int warmSessions;
+
+    private final Semaphore permits;
+    private final Deque<Session> idle; // Most recently returned first, guarded by itself
+    private final AtomicInteger created;
+    private final AtomicInteger retired;
+    private volatile boolean closed;
+
+    /**
+     * @param maxSessions Browsers checked out at once (0 = max-concurrent-brands x sessions-per-brand)
+     */
+    public WebDriverPool(@Value("${theatrecraft.webdriver.pool-size:0}") int maxSessions,
+                         @Value("${theatrecraft.crawl.max-concurrent-brands:3}") int maxConcurrentBrands,
+                         @Value("${theatrecraft.webdriver.sessions-per-brand:2}") int sessionsPerBrand,
+                         @Value("${theatrecraft.webdriver.max-pages-per-session:40}") int maxPagesPerSession,
+                         @Value("${theatrecraft.webdriver.borrow-timeout-seconds:600}") long borrowTimeoutSeconds,
+                         @Value("${theatrecraft.webdriver.warm-sessions:0}") int warmSessions) {
+        // By default every concurrently crawled brand can run all of its sessions
+        int derived = Math.max(1, maxConcurrentBrands) * Math.max(1, sessionsPerBrand);
+        this.maxSessions = maxSessions > 0 ? maxSessions : derived;
+        this.maxPagesPerSession = Math.max(1, maxPagesPerSession);
+        this.borrowTimeoutMillis = TimeUnit.SECONDS.toMillis(borrowTimeoutSeconds);
+        this.warmSessions = Math.min(Math.max(0, warmSessions), this.maxSessions);
+        this.permits = new Semaphore(this.maxSessions, true);
+        this.idle = new ArrayDeque<>();
+        this.created = new AtomicInteger();
+        this.retired = new AtomicInteger();
+    }
+
+    /**
+     * Start warm browsers in the background so the first crawl skips Chrome startup
+     */
+    @PostConstruct
+    public void warmUp() {
+        if (warmSessions == 0) {
+            return;
+        }
+        Thread.ofVirtual().name("webdriver-warm-up").start(() -> {
+            for (int i = 0; i < warmSessions && !closed; i++) {
+                try {
+                    offerIdle(new Session(this, launch()));
+                } catch (Exception e) {
+                    System.err.println("WebDriverPool: Warm-up failed - " + e.getMessage());
+                    return;
+                }
+            }
+            System.out.println("WebDriverPool: " + warmSessions + " warm browser session(s) ready");
+        });
+    }
+
+    /**
+     * Check out a healthy browser session (close it to return it)
+     * Waits while maxSessions sessions are checked out.
+     *
+     * @return The session
+     * @throws IllegalStateException if no session became available in time
+     */
+    public Session borrow() throws InterruptedException {
+        if (!permits.tryAcquire(borrowTimeoutMillis, TimeUnit.MILLISECONDS)) {
+            throw new IllegalStateException("No browser session available after " + borrowTimeoutMillis + " ms");
+        }
+
+        try {
+            Session session;
+            while ((session = pollIdle()) != null) {
+                if (session.isHealthy()) {
+                    session.checkedOut = true;
+                    return session;
+                }
+                System.out.println("WebDriverPool: Discarding unresponsive browser session");
+                quit(session);
+            }
+
+            session = new Session(this, launch());
+            session.checkedOut = true;
+            return session;
+        } catch (RuntimeException e) {
+            permits.release();
+            throw e;
+        }
+    }
+
+    /**
+     * Return a session: keep it warm, or quit it if broken, worn out or the pool is closed
+     */
+    void release(Session session) {
+        try {
+            if (session.broken || closed || session.pages >= maxPagesPerSession) {
+                quit(session);
+            } else {
+                offerIdle(session);
+            }
+        } finally {
+            permits.release();
+        }
+    }
+
+    public int getMaxSessions() {
+        return maxSessions;
+    }
+
+    public int getMaxPagesPerSession() {
+        return maxPagesPerSession;
+    }
+
+    /**
+     * Pool counters for diagnostics
+     */
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("maxSessions", maxSessions);
+        stats.put("checkedOut", maxSessions - permits.availablePermits());
+        synchronized (idle) {
+            stats.put("idle", idle.size());
+        }
+        stats.put("created", created.get());
+        stats.put("retired", retired.get());
+        return stats;
+    }
+
+    /**
+     * Quit all idle browsers; checked-out sessions are quit when returned
+     */
+    @PreDestroy
+    public void shutdown() {
+        closed = true;
+        List<Session> sessions;
+        synchronized (idle) {
+            sessions = new ArrayList<>(idle);
+            idle.clear();
+        }
+        sessions.forEach(this::quit);
+    }
+
+    private Session pollIdle() {
+        synchronized (idle) {
+            return idle.pollFirst();
+        }
+    }
+
+    private void offerIdle(Session session) {
+        session.checkedOut = false;
+        synchronized (idle) {
+            if (!closed) {
+                idle.addFirst(session);
+                return;
+            }
+        }
+        quit(session);
+    }
+
+    private WebDriver launch() {
+        WebDriver driver = newDriver();
+        created.incrementAndGet();
+        return driver;
+    }
+
+    /**
+     * Start a headless Chrome with the crawler flags
+     * The one place browsers are configured, for pooled and standalone sessions alike.
+     */
+    static WebDriver newDriver() {
+        if (!driverReady) {
+            synchronized (WebDriverPool.class) {
+                if (!driverReady) {
+                    // Resolves (and downloads if needed) the chromedriver binary once per process,
+                    // unless one was given with -Dwebdriver.chrome.driver (offline runs, e.g. CI replay)
+                    if (System.getProperty("webdriver.chrome.driver") == null) {
+                        WebDriverManager.chromedriver().setup();
+                    }
+                    driverReady = true;
+                }
+            }
+        }
+
+        ChromeOptions options = new ChromeOptions();
+        options.addArguments("--headless"); // Run in headless mode
+        options.addArguments("--disable-gpu");
+        options.addArguments("--no-sandbox");
+        options.addArguments("--disable-dev-shm-usage");
+        options.addArguments("--window-size=1920,1080");
+        options.addArguments("--user-agent=" + BaseSeleniumCrawler.USER_AGENT);
+
+        return new ChromeDriver(options);
+    }
+
+    private void quit(Session session) {
+        retired.incrementAndGet();
+        try {
+            session.driver.quit();
+        } catch (Exception e) {
+            System.err.println("WebDriverPool: Error quitting browser - " + e.getMessage());
+        }
+    }
+
+    /**
+     * A checked-out browser session; close() returns it to the pool
+     */
+    public static final class Session implements AutoCloseable {
+        private final WebDriverPool pool; // null = standalone driver, quit on close
+        private final WebDriver driver;
+        private int pages;
+        private boolean broken;
+        private boolean checkedOut;
+
+        private Session(WebDriverPool pool, WebDriver driver) {
+            this.pool = pool;
+            this.driver = driver;
+        }
+
+        /**
+         * Wrap a driver that is not pooled (quit on close)
+         */
+        public static Session standalone(WebDriver driver) {
+            Session session = new Session(null, driver);
+            session.checkedOut = true;
+            return session;
+        }
+
+        public WebDriver getDriver() {
+            return driver;
+        }
+
+        /**
+         * Count a page load towards the session's recycling limit
+         */
+        public void pageVisited() {
+            pages++;
+        }
+
+        /**
+         * True once the session has served its page quota (return it and borrow a fresh one)
+         */
+        public boolean isWornOut() {
+            return pool != null && pages >= pool.maxPagesPerSession;
+        }
+
+        /**
+         * Mark the session broken so it is quit instead of reused
+         */
+        public void invalidate() {
+            broken = true;
+        }
+
+        public boolean isBroken() {
+            return broken;
+        }
+
+        @Override
+        public void close() {
+            if (!checkedOut) {
+                return;
+            }
+            checkedOut = false;
+            if (pool != null) {
+                pool.release(this);
+            } else {
+                driver.quit();
+            }
+        }
+
+        private boolean isHealthy() {
+            try {
+                driver.getWindowHandle(); // Round trip to the browser
+                return true;
+            } catch (Exception e) {
+                return false;
+            }
+        }
+    }
+}
@@ -0,0 +1,259 @@
+package com.farhan.theatrecraft.core.model;
+
+import java.util.*;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
+
+/**
+ * Handle for a background crawl over one or more brands
+ * Clients poll it by id or subscribe to its progress events; fields are
+ * updated by the crawl threads while it runs.
+ */
+public class CrawlJob {
+
+    public enum Status {
+        QUEUED,
+        RUNNING,
+        COMPLETED, // Every brand crawled
+        PARTIAL,   // Some brands failed; their previous products were kept
+        FAILED     // No brand crawled; nothing was saved
+    }
+
+    private final String id;
+    private final boolean delta; // Only new or changed pages are parsed
+    private final long createdAt;
+    private final Map<Brand, BrandProgress> brands; // Fixed at creation, in crawl order
+    private volatile Status status;
+    private volatile long startedAt;
+    private volatile long finishedAt;
+    private volatile int totalProducts;
+    private volatile String message;
+    private final List<Consumer<CrawlProgress>> listeners; // Not serialized (no getter)
+
+    public CrawlJob(String id, Collection<Brand> brands) {
+        this(id, brands, false);
+    }
+
+    public CrawlJob(String id, Collection<Brand> brands, boolean delta) {
+        this.id = id;
+        this.delta = delta;
+        this.createdAt = System.currentTimeMillis();
+        Map<Brand, BrandProgress> progress = new LinkedHashMap<>();
+        for (Brand brand : brands) {
+            progress.put(brand, new BrandProgress());
+        }
+        this.brands = Collections.unmodifiableMap(progress);
+        this.status = Status.QUEUED;
+        this.listeners = new CopyOnWriteArrayList<>();
+    }
+
+    public String getId() {
+        return id;
+    }
+
+    public boolean isDelta() {
+        return delta;
+    }
+
+    public long getCreatedAt() {
+        return createdAt;
+    }
+
+    public Map<Brand, BrandProgress> getBrands() {
+        return brands;
+    }
+
+    public BrandProgress getBrand(Brand brand) {
+        return brands.get(brand);
+    }
+
+    public Status getStatus() {
+        return status;
+    }
+
+    public void setStatus(Status status) {
+        this.status = status;
+    }
+
+    public long getStartedAt() {
+        return startedAt;
+    }
+
+    public void setStartedAt(long startedAt) {
+        this.startedAt = startedAt;
+    }
+
+    public long getFinishedAt() {
+        return finishedAt;
+    }
+
+    public void setFinishedAt(long finishedAt) {
+        this.finishedAt = finishedAt;
+    }
+
+    public int getTotalProducts() {
+        return totalProducts;
+    }
+
+    public void setTotalProducts(int totalProducts) {
+        this.totalProducts = totalProducts;
+    }
+
+    public String getMessage() {
+        return message;
+    }
+
+    public void setMessage(String message) {
+        this.message = message;
+    }
+
+    public boolean isFinished() {
+        return status == Status.COMPLETED || status == Status.PARTIAL || status == Status.FAILED;
+    }
+
+    public void addListener(Consumer<CrawlProgress> listener) {
+        listeners.add(listener);
+    }
+
+    public void removeListener(Consumer<CrawlProgress> listener) {
+        listeners.remove(listener);
+    }
+
+    /**
+     * Record a progress event in the brand's counts and pass it to every listener
+     */
+    public void publish(CrawlProgress event) {
+        BrandProgress progress = event.getBrand() != null ? brands.get(event.getBrand()) : null;
+        if (progress != null) {
+            progress.setTotal(event.getTotal());
+            progress.setProductCount(event.getParsed());
+            progress.setFailedCount(event.getFailed());
+        }
+        for (Consumer<CrawlProgress> listener : listeners) {
+            try {
+                listener.accept(event);
+            } catch (RuntimeException e) {
+                // A disconnected client must not stop the crawl
+                listeners.remove(listener);
+            }
+        }
+    }
+
+    /**
+     * Mark the job finished and publish JOB_FINISHED
+     */
+    public void finish(Status status, String message) {
+        this.message = message;
+        this.finishedAt = System.currentTimeMillis();
+        this.status = status;
+        publish(new CrawlProgress(CrawlProgress.Type.JOB_FINISHED, null, 0, 0, totalProducts, 0, null, null,
+                status + ": " + message));
+    }
+
+    /**
+     * Progress of one brand within the job
+     */
+    public static class BrandProgress {
+        private volatile Status status = Status.QUEUED;
+        private volatile int productCount; // Products parsed
+        private volatile int failedCount;  // Product pages that failed
+        private volatile int total;        // Product URLs found (0 until the listing is parsed)
+
+        // Catalog changes against the brand's previous products (set when the brand finishes)
+        private volatile int addedCount;
+        private volatile int updatedCount;
+        private volatile int unchangedCount;
+        private volatile int removedCount;
+        private volatile long startedAt;
+        private volatile long finishedAt;
+        private volatile String error;
+
+        public Status getStatus() {
+            return status;
+        }
+
+        public void setStatus(Status status) {
+            this.status = status;
+        }
+
+        public int getProductCount() {
+            return productCount;
+        }
+
+        public void setProductCount(int productCount) {
+            this.productCount = productCount;
+        }
+
+        public int getFailedCount() {
+            return failedCount;
+        }
+
+        public void setFailedCount(int failedCount) {
+            this.failedCount = failedCount;
+        }
+
+        public int getTotal() {
+            return total;
+        }
+
+        public void setTotal(int total) {
+            this.total = total;
+        }
+
+        public long getStartedAt() {
+            return startedAt;
+        }
+
+        public void setStartedAt(long startedAt) {
+            this.startedAt = startedAt;
+        }
+
+        public long getFinishedAt() {
+            return finishedAt;
+        }
+
+        public void setFinishedAt(long finishedAt) {
+            this.finishedAt = finishedAt;
+        }
+
+        public int getAddedCount() {
+            return addedCount;
+        }
+
+        public void setAddedCount(int addedCount) {
+            this.addedCount = addedCount;
+        }
+
+        public int getUpdatedCount() {
+            return updatedCount;
+        }
+
+        public void setUpdatedCount(int updatedCount) {
+            this.updatedCount = updatedCount;
+        }
+
+        public int getUnchangedCount() {
+            return unchangedCount;
+        }
+
+        public void setUnchangedCount(int unchangedCount) {
+            this.unchangedCount = unchangedCount;
+        }
+
+        public int getRemovedCount() {
+            return removedCount;
+        }
+
+        public void setRemovedCount(int removedCount) {
+            this.removedCount = removedCount;
+        }
+
+        public String getError() {
+            return error;
+        }
+
+        public void setError(String error) {
+            this.error = error;
+        }
+    }
+}
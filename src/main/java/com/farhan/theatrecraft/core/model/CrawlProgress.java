@@ -0,0 +1,124 @@
+package com.farhan.theatrecraft.core.model;
+
+/**
+ * One progress event of a crawl job (streamed to clients over Server-Sent Events)
+ */
+public class CrawlProgress {
+
+    public enum Type {
+        BRAND_STARTED,
+        URLS_FOUND,      // Listing page parsed; total is now known
+        PRODUCT_PARSED,
+        PRODUCT_UNCHANGED, // Delta crawl: page fingerprint unchanged, previous product kept
+        PRODUCT_FAILED,
+        BRAND_FINISHED,
+        JOB_FINISHED
+    }
+
+    private Type type;
+    private Brand brand;
+    private int processed; // Product pages done so far (parsed + failed)
+    private int total;     // Product URLs found on the listing page (0 until known)
+    private int parsed;
+    private int failed;
+    private int unchanged; // Delta crawl: products carried forward unparsed (included in parsed)
+    private String modelName;
+    private String url;
+    private String message;
+
+    public CrawlProgress() {
+    }
+
+    public CrawlProgress(Type type, Brand brand, int processed, int total, int parsed, int failed,
+                         String modelName, String url, String message) {
+        this.type = type;
+        this.brand = brand;
+        this.processed = processed;
+        this.total = total;
+        this.parsed = parsed;
+        this.failed = failed;
+        this.modelName = modelName;
+        this.url = url;
+        this.message = message;
+    }
+
+    public Type getType() {
+        return type;
+    }
+
+    public void setType(Type type) {
+        this.type = type;
+    }
+
+    public Brand getBrand() {
+        return brand;
+    }
+
+    public void setBrand(Brand brand) {
+        this.brand = brand;
+    }
+
+    public int getProcessed() {
+        return processed;
+    }
+
+    public void setProcessed(int processed) {
+        this.processed = processed;
+    }
+
+    public int getTotal() {
+        return total;
+    }
+
+    public void setTotal(int total) {
+        this.total = total;
+    }
+
+    public int getParsed() {
+        return parsed;
+    }
+
+    public void setParsed(int parsed) {
+        this.parsed = parsed;
+    }
+
+    public int getFailed() {
+        return failed;
+    }
+
+    public void setFailed(int failed) {
+        this.failed = failed;
+    }
+
+    public int getUnchanged() {
+        return unchanged;
+    }
+
+    public void setUnchanged(int unchanged) {
+        this.unchanged = unchanged;
+    }
+
+    public String getModelName() {
+        return modelName;
+    }
+
+    public void setModelName(String modelName) {
+        this.modelName = modelName;
+    }
+
+    public String getUrl() {
+        return url;
+    }
+
+    public void setUrl(String url) {
+        this.url = url;
+    }
+
+    public String getMessage() {
+        return message;
+    }
+
+    public void setMessage(String message) {
+        this.message = message;
+    }
+}
@@ -21,6 +21,9 @@ public class Product {
     private String weightKg;          // e.g. "3.13 kg"
     private String power;             // e.g. "500 W"
 
+    // Page fingerprint from the last crawl (content hash and HTTP validators), used by delta crawls
+    private String fingerprint;
+
     public Product() {
     }
 
@@ -153,4 +156,12 @@ public class Product {
     public void setPower(String power) {
         this.power = power;
     }
+
+    public String getFingerprint() {
+        return fingerprint;
+    }
+
+    public void setFingerprint(String fingerprint) {
+        this.fingerprint = fingerprint;
+    }
 }
@@ -0,0 +1,200 @@
+package com.farhan.theatrecraft.core.search;
+
+import java.util.*;
+
+/**
+ * Aho-Corasick multi-pattern matcher
+ * Builds one automaton (trie + failure links) for a set of keywords and counts
+ * whole-word occurrences of all of them in a single left-to-right pass over
+ * the text. Matching is case-insensitive: text characters are lower-cased as
+ * they are read, so the text is never copied.
+ * A whole word is surrounded by non-alphanumeric characters or start/end of
+ * text, the same rule as BoyerMoore.countWholeWordOccurrences.
+ */
+public class AhoCorasick {
+
+    private final List<String> keywords;
+
+    // Goto function: per state, sorted transition characters and their target states
+    private char[][] labels;
+    private int[][] targets;
+
+    // Failure link: longest proper suffix of the state's string that is also a trie path
+    private int[] fail;
+
+    // Keyword ending exactly at this state (-1 if none)
+    private int[] output;
+
+    // Next state on the failure chain that has an output (-1 if none)
+    private int[] outputLink;
+
+    // Length of the string spelled by each state
+    private int[] depth;
+
+    private int stateCount;
+
+    /**
+     * Build the automaton
+     *
+     * @param keywords Keywords to match (lower-cased; duplicates and empty strings ignored)
+     */
+    public AhoCorasick(Collection<String> keywords) {
+        Set<String> unique = new LinkedHashSet<>();
+        for (String keyword : keywords) {
+            if (keyword != null && !keyword.isEmpty()) {
+                unique.add(keyword.toLowerCase());
+            }
+        }
+        this.keywords = new ArrayList<>(unique);
+        build();
+    }
+
+    /**
+     * Get the keywords in index order
+     *
+     * @return Keywords, where position i matches index i of countWholeWords()
+     */
+    public List<String> getKeywords() {
+        return Collections.unmodifiableList(keywords);
+    }
+
+    /**
+     * Count whole-word occurrences of every keyword in one pass
+     *
+     * @param text The text to scan
+     * @return Counts indexed like getKeywords()
+     */
+    public int[] countWholeWords(String text) {
+        int[] counts = new int[keywords.size()];
+        if (text == null || keywords.isEmpty()) {
+            return counts;
+        }
+
+        int n = text.length();
+        int state = 0;
+        for (int i = 0; i < n; i++) {
+            char c = Character.toLowerCase(text.charAt(i));
+
+            int next;
+            while ((next = transition(state, c)) < 0 && state != 0) {
+                state = fail[state];
+            }
+            state = Math.max(next, 0);
+
+            // Report every keyword ending here (this state and its output chain)
+            int match = output[state] >= 0 ? state : outputLink[state];
+            while (match >= 0) {
+                int start = i - depth[match] + 1;
+                if (isBoundary(text, start - 1) && isBoundary(text, i + 1)) {
+                    counts[output[match]]++;
+                }
+                match = outputLink[match];
+            }
+        }
+
+        return counts;
+    }
+
+    /**
+     * Total whole-word occurrences of all keywords in one pass
+     *
+     * @param text The text to scan
+     * @return Sum of countWholeWords()
+     */
+    public int countAllWholeWords(String text) {
+        int total = 0;
+        for (int count : countWholeWords(text)) {
+            total += count;
+        }
+        return total;
+    }
+
+    private static boolean isBoundary(String text, int index) {
+        return index < 0 || index >= text.length() || !Character.isLetterOrDigit(text.charAt(index));
+    }
+
+    private int transition(int state, char c) {
+        int index = Arrays.binarySearch(labels[state], c);
+        return index >= 0 ? targets[state][index] : -1;
+    }
+
+    /**
+     * Build the trie, then failure and output links breadth-first
+     */
+    private void build() {
+        // Trie with map edges while building
+        List<TreeMap<Character, Integer>> edges = new ArrayList<>();
+        List<Integer> outputs = new ArrayList<>();
+        List<Integer> depths = new ArrayList<>();
+        edges.add(new TreeMap<>());
+        outputs.add(-1);
+        depths.add(0);
+
+        for (int k = 0; k < keywords.size(); k++) {
+            String keyword = keywords.get(k);
+            int state = 0;
+            for (int i = 0; i < keyword.length(); i++) {
+                char c = keyword.charAt(i);
+                Integer next = edges.get(state).get(c);
+                if (next == null) {
+                    next = edges.size();
+                    edges.get(state).put(c, next);
+                    edges.add(new TreeMap<>());
+                    outputs.add(-1);
+                    depths.add(i + 1);
+                }
+                state = next;
+            }
+            outputs.set(state, k);
+        }
+
+        // Freeze into sorted arrays
+        stateCount = edges.size();
+        labels = new char[stateCount][];
+        targets = new int[stateCount][];
+        output = new int[stateCount];
+        depth = new int[stateCount];
+        for (int s = 0; s < stateCount; s++) {
+            TreeMap<Character, Integer> stateEdges = edges.get(s);
+            labels[s] = new char[stateEdges.size()];
+            targets[s] = new int[stateEdges.size()];
+            int j = 0;
+            for (Map.Entry<Character, Integer> edge : stateEdges.entrySet()) {
+                labels[s][j] = edge.getKey();
+                targets[s][j] = edge.getValue();
+                j++;
+            }
+            output[s] = outputs.get(s);
+            depth[s] = depths.get(s);
+        }
+
+        fail = new int[stateCount];
+        outputLink = new int[stateCount];
+        Arrays.fill(outputLink, -1);
+
+        Deque<Integer> queue = new ArrayDeque<>();
+        for (int child : targets[0]) {
+            fail[child] = 0;
+            queue.add(child);
+        }
+
+        while (!queue.isEmpty()) {
+            int state = queue.poll();
+            for (int j = 0; j < labels[state].length; j++) {
+                char c = labels[state][j];
+                int child = targets[state][j];
+
+                int f = fail[state];
+                int next;
+                while ((next = transition(f, c)) < 0 && f != 0) {
+                    f = fail[f];
+                }
+                fail[child] = Math.max(next, 0);
+
+                int failState = fail[child];
+                outputLink[child] = output[failState] >= 0 ? failState : outputLink[failState];
+                queue.add(child);
+            }
+        }
+    }
+}
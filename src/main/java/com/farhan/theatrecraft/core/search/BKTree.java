@@ -0,0 +1,174 @@
+package com.farhan.theatrecraft.core.search;
+
+import java.util.*;
+
+/**
+ * BK-Tree (Burkhard-Keller tree) over Levenshtein distance
+ * Each child edge is labelled with the edit distance to its parent, so a
+ * query only has to visit children whose edge lies in [d - r, d + r]
+ * (triangle inequality). Used for "Did you mean" product name suggestions.
+ */
+public class BKTree {
+
+    private Node root;
+    private int size;
+
+    /**
+     * Insert a word into the tree
+     * Words are compared case-insensitively; the original text is kept for display
+     *
+     * @param word The word (e.g. product name) to insert
+     */
+    public void insert(String word) {
+        if (word == null || word.trim().isEmpty()) {
+            return;
+        }
+
+        String key = word.toLowerCase().trim();
+
+        if (root == null) {
+            root = new Node(key, word);
+            size++;
+            return;
+        }
+
+        Node current = root;
+        while (true) {
+            int distance = EditDistance.calculate(current.key, key, Integer.MAX_VALUE);
+            if (distance == 0) {
+                return; // Already present
+            }
+
+            Node child = current.children.get(distance);
+            if (child == null) {
+                current.children.put(distance, new Node(key, word));
+                current.maxEdge = Math.max(current.maxEdge, distance);
+                size++;
+                return;
+            }
+            current = child;
+        }
+    }
+
+    /**
+     * Find the k nearest words within maxDistance of the query
+     * The search radius shrinks to the current k-th best distance as matches
+     * are found, so subtrees that cannot improve the result are pruned.
+     *
+     * @param query The (possibly misspelled) query
+     * @param k Maximum number of results
+     * @param maxDistance Maximum edit distance (Integer.MAX_VALUE for no cutoff)
+     * @return Matches sorted by distance ascending
+     */
+    public List<Match> findNearest(String query, int k, int maxDistance) {
+        if (root == null || query == null || k <= 0) {
+            return new ArrayList<>();
+        }
+
+        String key = query.toLowerCase().trim();
+
+        // Max heap on distance: the worst of the current k best sits on top
+        PriorityQueue<Match> best = new PriorityQueue<>(
+            Comparator.comparingInt(Match::getDistance).reversed()
+        );
+
+        Deque<Node> stack = new ArrayDeque<>();
+        stack.push(root);
+
+        while (!stack.isEmpty()) {
+            Node node = stack.pop();
+            int radius = currentRadius(best, k, maxDistance);
+
+            // Beyond radius + maxEdge neither this node nor any child can match,
+            // so the bounded kernel may stop early there
+            int bound = (int) Math.min(Integer.MAX_VALUE - 1L, (long) radius + node.maxEdge);
+            int distance = EditDistance.calculate(node.key, key, bound);
+
+            if (distance <= radius) {
+                best.offer(new Match(node.word, distance));
+                if (best.size() > k) {
+                    best.poll();
+                }
+                radius = currentRadius(best, k, maxDistance);
+            }
+
+            // Triangle inequality: only children with |edge - distance| <= radius can match
+            long low = (long) distance - radius;
+            long high = (long) distance + radius;
+            for (Map.Entry<Integer, Node> entry : node.children.entrySet()) {
+                int edge = entry.getKey();
+                if (edge >= low && edge <= high) {
+                    stack.push(entry.getValue());
+                }
+            }
+        }
+
+        List<Match> result = new ArrayList<>(best);
+        result.sort(Comparator.comparingInt(Match::getDistance));
+        return result;
+    }
+
+    /**
+     * Search radius: maxDistance until k matches are held, then the k-th best distance
+     */
+    private int currentRadius(PriorityQueue<Match> best, int k, int maxDistance) {
+        if (best.size() < k) {
+            return maxDistance;
+        }
+        return Math.min(maxDistance, best.peek().getDistance());
+    }
+
+    /**
+     * Get the number of distinct words in the tree
+     *
+     * @return Word count
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Remove all words from the tree
+     */
+    public void clear() {
+        root = null;
+        size = 0;
+    }
+
+    /**
+     * Tree node: normalized key for distance, original word for display
+     */
+    private static class Node {
+        final String key;
+        final String word;
+        final Map<Integer, Node> children;
+        int maxEdge; // Largest child edge distance
+
+        Node(String key, String word) {
+            this.key = key;
+            this.word = word;
+            this.children = new HashMap<>();
+        }
+    }
+
+    /**
+     * A word found by a nearest-neighbour query with its edit distance
+     */
+    public static class Match {
+        private final String word;
+        private final int distance;
+
+        public Match(String word, int distance) {
+            this.word = word;
+            this.distance = distance;
+        }
+
+        public String getWord() {
+            return word;
+        }
+
+        public int getDistance() {
+            return distance;
+        }
+    }
+}
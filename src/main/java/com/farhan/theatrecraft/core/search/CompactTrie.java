@@ -0,0 +1,413 @@
+package com.farhan.theatrecraft.core.search;
+
+import java.util.*;
+import java.util.function.BiConsumer;
+
+/**
+ * Memory-compact radix (path-compressed) trie with primitive char arrays
+ * Chains of single-child nodes are merged into one edge whose label is a
+ * char[]; children are kept in arrays sorted by the first char of their
+ * label (binary search, no boxed Character keys, no per-node HashMap).
+ * Keys are not stored: they are rebuilt from edge labels while collecting.
+ *
+ * Optional ranked mode keeps the top-K terminal nodes of each subtree, best
+ * first, like Trie's ranked mode, so a ranked prefix query is a single walk.
+ * Writers must be externally serialized; readers may run concurrently with
+ * promote() (copy-on-write top arrays) but not with put()/clear().
+ *
+ * @param <V> Value stored at each key
+ */
+public class CompactTrie<V> {
+
+    private static final char[] NO_CHARS = new char[0];
+    private static final Node<?>[] NO_NODES = new Node<?>[0];
+
+    // Rough HotSpot sizes with compressed oops, used by estimateHeapBytes()
+    private static final int OBJECT_HEADER = 12;
+    private static final int ARRAY_HEADER = 16;
+    private static final int REFERENCE = 4;
+
+    private final Comparator<Node<V>> ranking; // null = unranked
+    private final int topK;
+    private Node<V> root;
+    private int size;
+
+    public CompactTrie() {
+        this(null, 0);
+    }
+
+    /**
+     * @param ranking Value order for ranked completions (best first), or null
+     * @param topK Completions kept per node in ranked mode
+     */
+    public CompactTrie(Comparator<V> ranking, int topK) {
+        this.ranking = ranking == null ? null : Comparator.comparing((Node<V> n) -> n.value, ranking);
+        this.topK = topK;
+        this.root = new Node<>(NO_CHARS);
+    }
+
+    /**
+     * Insert or replace the value for a key
+     *
+     * @param key The key (already normalized)
+     * @param value The value (not null)
+     */
+    public void put(String key, V value) {
+        Objects.requireNonNull(value, "value");
+        List<Node<V>> path = ranking == null ? null : new ArrayList<>();
+
+        Node<V> node = root;
+        int i = 0;
+        while (true) {
+            if (path != null) {
+                path.add(node);
+            }
+            if (i == key.length()) {
+                break;
+            }
+
+            int index = childIndex(node, key.charAt(i));
+            if (index < 0) {
+                // New leaf holding the rest of the key
+                Node<V> leaf = new Node<>(key.substring(i).toCharArray());
+                addChild(node, -(index + 1), leaf);
+                node = leaf;
+                if (path != null) {
+                    path.add(leaf);
+                }
+                break;
+            }
+
+            Node<V> child = node.children[index];
+            int common = commonPrefix(child.label, key, i);
+            if (common < child.label.length) {
+                // Split the edge: node -> mid(label[0..common]) -> child(label[common..])
+                Node<V> mid = new Node<>(Arrays.copyOf(child.label, common));
+                child.label = Arrays.copyOfRange(child.label, common, child.label.length);
+                mid.firstChars = new char[]{child.label[0]};
+                mid.children = newNodeArray(1);
+                mid.children[0] = child;
+                mid.top = child.top; // Same subtree, same completions
+                node.children[index] = mid;
+                child = mid;
+            }
+            node = child;
+            i += common;
+        }
+
+        if (node.value == null) {
+            size++;
+        }
+        node.value = value;
+
+        if (path != null) {
+            for (Node<V> onPath : path) {
+                offer(onPath, node);
+            }
+        }
+    }
+
+    /**
+     * Get the value for a key
+     *
+     * @param key The key
+     * @return The value, or null if absent
+     */
+    public V get(String key) {
+        Node<V> node = findExact(key, null);
+        return node == null ? null : node.value;
+    }
+
+    /**
+     * Re-rank a key after its ranking key increased
+     *
+     * @param key The key
+     * @return true if the key is present
+     */
+    public boolean promote(String key) {
+        if (ranking == null) {
+            return false;
+        }
+        List<Node<V>> path = new ArrayList<>();
+        Node<V> end = findExact(key, path);
+        if (end == null || end.value == null) {
+            return false;
+        }
+        for (Node<V> onPath : path) {
+            offer(onPath, end);
+        }
+        return true;
+    }
+
+    /**
+     * Ranked completions of a prefix (ranked mode only)
+     *
+     * @param prefix The prefix
+     * @param maxResults Maximum number of values (at most topK)
+     * @return Values, best first
+     */
+    public List<V> topByPrefix(String prefix, int maxResults) {
+        List<V> results = new ArrayList<>();
+        Located<V> located = locate(prefix);
+        if (located == null) {
+            return results;
+        }
+        for (Node<V> end : located.node.top) {
+            if (results.size() >= maxResults) {
+                break;
+            }
+            results.add(end.value);
+        }
+        return results;
+    }
+
+    /**
+     * Visit keys with the given prefix in lexicographic (char) order
+     *
+     * @param prefix The prefix
+     * @param maxResults Maximum number of keys to visit
+     * @param sink Receives each key and its value
+     */
+    public void collectByPrefix(String prefix, int maxResults, BiConsumer<String, V> sink) {
+        Located<V> located = locate(prefix);
+        if (located == null) {
+            return;
+        }
+        collect(located.node, new StringBuilder(located.key), new int[]{maxResults}, sink);
+    }
+
+    public boolean isRanked() {
+        return ranking != null;
+    }
+
+    public int getTopK() {
+        return topK;
+    }
+
+    /**
+     * Get number of keys
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Remove all keys
+     */
+    public void clear() {
+        root = new Node<>(NO_CHARS);
+        size = 0;
+    }
+
+    /**
+     * Estimate retained heap: nodes plus their label, child and top arrays
+     * (shared empty arrays are not counted)
+     *
+     * @return Approximate bytes
+     */
+    public long estimateHeapBytes() {
+        long bytes = 0;
+        Deque<Node<V>> stack = new ArrayDeque<>();
+        stack.push(root);
+        while (!stack.isEmpty()) {
+            Node<V> node = stack.pop();
+            bytes += align(OBJECT_HEADER + 5 * REFERENCE);
+            if (node.label.length > 0) {
+                bytes += align(ARRAY_HEADER + 2L * node.label.length);
+            }
+            if (node.children.length > 0) {
+                bytes += align(ARRAY_HEADER + 2L * node.firstChars.length);
+                bytes += align(ARRAY_HEADER + (long) REFERENCE * node.children.length);
+            }
+            if (node.top.length > 0) {
+                bytes += align(ARRAY_HEADER + (long) REFERENCE * node.top.length);
+            }
+            for (Node<V> child : node.children) {
+                stack.push(child);
+            }
+        }
+        return bytes;
+    }
+
+    /**
+     * Get number of nodes (for footprint reports)
+     */
+    public int getNodeCount() {
+        int count = 0;
+        Deque<Node<V>> stack = new ArrayDeque<>();
+        stack.push(root);
+        while (!stack.isEmpty()) {
+            Node<V> node = stack.pop();
+            count++;
+            for (Node<V> child : node.children) {
+                stack.push(child);
+            }
+        }
+        return count;
+    }
+
+    static long align(long bytes) {
+        return (bytes + 7) & ~7L;
+    }
+
+    /**
+     * Walk to the node for an exact key (null if absent), recording the path if asked
+     */
+    private Node<V> findExact(String key, List<Node<V>> path) {
+        Node<V> node = root;
+        int i = 0;
+        while (true) {
+            if (path != null) {
+                path.add(node);
+            }
+            if (i == key.length()) {
+                return node;
+            }
+            int index = childIndex(node, key.charAt(i));
+            if (index < 0) {
+                return null;
+            }
+            Node<V> child = node.children[index];
+            int common = commonPrefix(child.label, key, i);
+            if (common < child.label.length) {
+                return null; // Key ends inside an edge
+            }
+            node = child;
+            i += common;
+        }
+    }
+
+    /**
+     * Find the subtree holding every key with the prefix
+     * If the prefix ends inside an edge, that edge's child is the subtree root
+     */
+    private Located<V> locate(String prefix) {
+        Node<V> node = root;
+        int i = 0;
+        while (i < prefix.length()) {
+            int index = childIndex(node, prefix.charAt(i));
+            if (index < 0) {
+                return null;
+            }
+            Node<V> child = node.children[index];
+            int common = commonPrefix(child.label, prefix, i);
+            if (i + common == prefix.length()) {
+                // Prefix consumed, possibly part way along the edge
+                return new Located<>(child, prefix + new String(child.label, common, child.label.length - common));
+            }
+            if (common < child.label.length) {
+                return null; // Mismatch inside the edge
+            }
+            node = child;
+            i += common;
+        }
+        return new Located<>(node, prefix);
+    }
+
+    private void collect(Node<V> node, StringBuilder key, int[] remaining, BiConsumer<String, V> sink) {
+        if (remaining[0] <= 0) {
+            return;
+        }
+        if (node.value != null) {
+            sink.accept(key.toString(), node.value);
+            remaining[0]--;
+        }
+        for (Node<V> child : node.children) {
+            if (remaining[0] <= 0) {
+                return;
+            }
+            int length = key.length();
+            key.append(child.label);
+            collect(child, key, remaining, sink);
+            key.setLength(length);
+        }
+    }
+
+    /**
+     * Offer a terminal node to a node's top-K (copy-on-write)
+     */
+    private void offer(Node<V> node, Node<V> end) {
+        Node<V>[] current = node.top;
+        Node<V>[] updated;
+
+        if (Arrays.asList(current).contains(end)) {
+            updated = current.clone();
+        } else if (current.length < topK) {
+            updated = Arrays.copyOf(current, current.length + 1);
+            updated[current.length] = end;
+        } else if (current.length > 0 && ranking.compare(end, current[current.length - 1]) < 0) {
+            updated = current.clone();
+            updated[updated.length - 1] = end;
+        } else {
+            return;
+        }
+
+        Arrays.sort(updated, ranking);
+        node.top = updated;
+    }
+
+    private static int childIndex(Node<?> node, char c) {
+        return Arrays.binarySearch(node.firstChars, c);
+    }
+
+    private void addChild(Node<V> node, int insertAt, Node<V> child) {
+        int n = node.children.length;
+        char[] chars = new char[n + 1];
+        Node<V>[] children = newNodeArray(n + 1);
+
+        System.arraycopy(node.firstChars, 0, chars, 0, insertAt);
+        System.arraycopy(node.children, 0, children, 0, insertAt);
+        chars[insertAt] = child.label[0];
+        children[insertAt] = child;
+        System.arraycopy(node.firstChars, insertAt, chars, insertAt + 1, n - insertAt);
+        System.arraycopy(node.children, insertAt, children, insertAt + 1, n - insertAt);
+
+        node.firstChars = chars;
+        node.children = children;
+    }
+
+    private static int commonPrefix(char[] label, String key, int offset) {
+        int max = Math.min(label.length, key.length() - offset);
+        int i = 0;
+        while (i < max && label[i] == key.charAt(offset + i)) {
+            i++;
+        }
+        return i;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <V> Node<V>[] newNodeArray(int length) {
+        return length == 0 ? (Node<V>[]) NO_NODES : (Node<V>[]) new Node<?>[length];
+    }
+
+    /**
+     * Radix node; label is the edge from the parent
+     */
+    private static final class Node<V> {
+        char[] label;
+        char[] firstChars;      // First char of each child's label, sorted
+        Node<V>[] children;     // Parallel to firstChars
+        V value;                // Non-null if a key ends here
+        volatile Node<V>[] top; // Ranked mode: best terminal nodes in this subtree
+
+        Node(char[] label) {
+            this.label = label;
+            this.firstChars = NO_CHARS;
+            this.children = newNodeArray(0);
+            this.top = newNodeArray(0);
+        }
+    }
+
+    /**
+     * Subtree root for a prefix and the full key spelled up to that node
+     */
+    private static final class Located<V> {
+        final Node<V> node;
+        final String key;
+
+        Located(Node<V> node, String key) {
+            this.node = node;
+            this.key = key;
+        }
+    }
+}
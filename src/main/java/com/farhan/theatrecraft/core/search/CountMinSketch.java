@@ -0,0 +1,166 @@
+package com.farhan.theatrecraft.core.search;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Count-Min Sketch for approximate frequency counting in fixed memory
+ * A depth x width table of counters; each key increments one counter per row
+ * and its estimate is the minimum over its counters. Estimates never
+ * undercount, and with probability 1 - delta overcount by at most
+ * epsilon * N, where N is the total count, epsilon = e / width and
+ * delta = e^-depth. Each row picks its counter with its own seeded 64-bit
+ * hash of the key, so rows collide independently.
+ *
+ * Thread-safe and lock-free: each row is an AtomicLongArray and adds are
+ * plain atomic increments. (Conservative update is not used: without a lock
+ * two racing adds could both raise a counter to the same value and lose one.)
+ */
+public class CountMinSketch {
+
+    private final int width;
+    private final int depth;
+    private final AtomicLongArray[] rows;
+    private final long[] seeds;
+    private final LongAdder totalCount;
+
+    /**
+     * @param width Counters per row (error epsilon = e / width)
+     * @param depth Number of rows (failure probability delta = e^-depth)
+     */
+    public CountMinSketch(int width, int depth) {
+        if (width < 1 || depth < 1) {
+            throw new IllegalArgumentException("width and depth must be positive");
+        }
+        this.width = width;
+        this.depth = depth;
+        this.rows = new AtomicLongArray[depth];
+        this.seeds = new long[depth];
+        for (int i = 0; i < depth; i++) {
+            rows[i] = new AtomicLongArray(width);
+            seeds[i] = mix((i + 1) * 0x9E3779B97F4A7C15L);
+        }
+        this.totalCount = new LongAdder();
+    }
+
+    /**
+     * Add one occurrence of a key
+     *
+     * @param key The key
+     * @return New estimate for the key
+     */
+    public long add(String key) {
+        return add(key, 1);
+    }
+
+    /**
+     * Add several occurrences of a key (e.g. counts loaded from disk)
+     *
+     * @param key The key
+     * @param count Occurrences to add (positive)
+     * @return New estimate for the key
+     */
+    public long add(String key, long count) {
+        long min = Long.MAX_VALUE;
+        for (int i = 0; i < depth; i++) {
+            min = Math.min(min, rows[i].addAndGet(indexOf(key, i), count));
+        }
+        totalCount.add(count);
+        return min;
+    }
+
+    /**
+     * Estimated count of a key (never less than the true count)
+     *
+     * @param key The key
+     * @return Estimate
+     */
+    public long estimate(String key) {
+        long min = Long.MAX_VALUE;
+        for (int i = 0; i < depth; i++) {
+            min = Math.min(min, rows[i].get(indexOf(key, i)));
+        }
+        return min;
+    }
+
+    /**
+     * Get total number of additions (N)
+     *
+     * @return Total count
+     */
+    public long getTotalCount() {
+        return totalCount.sum();
+    }
+
+    public int getWidth() {
+        return width;
+    }
+
+    public int getDepth() {
+        return depth;
+    }
+
+    /**
+     * Relative error epsilon = e / width
+     */
+    public double getEpsilon() {
+        return Math.E / width;
+    }
+
+    /**
+     * Probability delta = e^-depth that an estimate exceeds the error bound
+     */
+    public double getDelta() {
+        return Math.exp(-depth);
+    }
+
+    /**
+     * Current additive error bound epsilon * N
+     */
+    public long getErrorBound() {
+        return (long) Math.ceil(getEpsilon() * getTotalCount());
+    }
+
+    /**
+     * Bytes used by the counter table
+     */
+    public long getMemoryBytes() {
+        return 8L * width * depth;
+    }
+
+    /**
+     * Reset all counters (not atomic with respect to concurrent adds)
+     */
+    public void clear() {
+        for (AtomicLongArray row : rows) {
+            for (int j = 0; j < width; j++) {
+                row.set(j, 0);
+            }
+        }
+        totalCount.reset();
+    }
+
+    /**
+     * Counter of a key in one row: the row's own seeded 64-bit hash of the key's characters
+     */
+    private int indexOf(String key, int row) {
+        long h = seeds[row] ^ key.length();
+        for (int i = 0; i < key.length(); i++) {
+            h = (h ^ key.charAt(i)) * 0x100000001B3L;
+            h = Long.rotateLeft(h, 27);
+        }
+        return (int) Long.remainderUnsigned(mix(h), width);
+    }
+
+    /**
+     * 64-bit finalizer (MurmurHash3 fmix64): spreads every input bit over the whole word
+     */
+    private static long mix(long h) {
+        h ^= h >>> 33;
+        h *= 0xff51afd7ed558ccdL;
+        h ^= h >>> 33;
+        h *= 0xc4ceb9fe1a85ec53L;
+        h ^= h >>> 33;
+        return h;
+    }
+}
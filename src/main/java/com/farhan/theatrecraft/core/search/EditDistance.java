@@ -1,7 +1,10 @@
 package com.farhan.theatrecraft.core.search;
 
 public class EditDistance {
-    
+
+    // Reusable rolling rows per thread, so the bounded kernel allocates nothing per call
+    private static final ThreadLocal<int[][]> ROWS = ThreadLocal.withInitial(() -> new int[2][32]);
+
     /**
      * Calculate Levenshtein distance (edit distance) between two strings
      */
@@ -9,37 +12,97 @@ public class EditDistance {
         if (str1 == null || str2 == null) {
             return Integer.MAX_VALUE;
         }
-        
+
         String s1 = str1.toLowerCase().trim();
         String s2 = str2.toLowerCase().trim();
-        
-        int[][] dp = new int[s1.length() + 1][s2.length() + 1];
-        
-        // Initialize base cases
-        for (int i = 0; i <= s1.length(); i++) {
-            dp[i][0] = i;
-        }
-        for (int j = 0; j <= s2.length(); j++) {
-            dp[0][j] = j;
-        }
-        
-        // Fill the dp table
-        for (int i = 1; i <= s1.length(); i++) {
-            for (int j = 1; j <= s2.length(); j++) {
-                if (s1.charAt(i - 1) == s2.charAt(j - 1)) {
-                    dp[i][j] = dp[i - 1][j - 1];
-                } else {
-                    dp[i][j] = 1 + Math.min(
-                        dp[i - 1][j - 1], // Replace
-                        Math.min(
-                            dp[i - 1][j],  // Delete
-                            dp[i][j - 1]   // Insert
-                        )
-                    );
-                }
+
+        return calculate(s1, s2, Integer.MAX_VALUE);
+    }
+
+    /**
+     * Calculate Levenshtein distance with a maximum distance threshold
+     * Inputs are compared as-is (callers normalize case/whitespace once up front).
+     * Uses two rolling rows, fills only the Ukkonen diagonal band of width
+     * 2 * maxDistance + 1, and stops as soon as every cell in a row exceeds
+     * the threshold.
+     *
+     * @param s1 First string (already normalized)
+     * @param s2 Second string (already normalized)
+     * @param maxDistance Largest distance of interest
+     * @return The edit distance, or maxDistance + 1 if it is larger than maxDistance
+     */
+    public static int calculate(String s1, String s2, int maxDistance) {
+        if (s1 == null || s2 == null) {
+            return Integer.MAX_VALUE;
+        }
+
+        // Columns run over the shorter string to keep the rows small
+        if (s2.length() > s1.length()) {
+            String tmp = s1;
+            s1 = s2;
+            s2 = tmp;
+        }
+
+        int n = s1.length();
+        int m = s2.length();
+
+        if (n - m > maxDistance) {
+            return maxDistance + 1; // Length difference alone exceeds the threshold
+        }
+        if (m == 0) {
+            return n;
+        }
+
+        // The distance never exceeds n, so clamp the band (also avoids overflow)
+        int threshold = Math.min(maxDistance, n);
+        int infinity = threshold + 1;
+
+        int[][] rows = ROWS.get();
+        if (rows[0].length < m + 2) {
+            rows[0] = new int[m + 2];
+            rows[1] = new int[m + 2];
+        }
+        int[] prev = rows[0];
+        int[] curr = rows[1];
+
+        // Row 0: distance from the empty prefix of s1
+        int initialHigh = Math.min(m, threshold);
+        for (int j = 0; j <= initialHigh; j++) {
+            prev[j] = j;
+        }
+        prev[initialHigh + 1] = infinity;
+
+        for (int i = 1; i <= n; i++) {
+            int low = Math.max(1, i - threshold);
+            int high = Math.min(m, i + threshold);
+
+            // Cell just left of the band
+            curr[low - 1] = (low == 1) ? i : infinity;
+            int rowMin = curr[low - 1];
+
+            char c1 = s1.charAt(i - 1);
+            for (int j = low; j <= high; j++) {
+                int value = prev[j - 1] + (c1 == s2.charAt(j - 1) ? 0 : 1); // Replace / match
+                value = Math.min(value, prev[j] + 1);                     // Delete
+                value = Math.min(value, curr[j - 1] + 1);                 // Insert
+                curr[j] = value;
+                rowMin = Math.min(rowMin, value);
+            }
+
+            // Cell just right of the band is read by the next row
+            if (high < m) {
+                curr[high + 1] = infinity;
             }
+
+            if (rowMin > threshold) {
+                return maxDistance + 1; // Every path already exceeds the threshold
+            }
+
+            int[] tmp = prev;
+            prev = curr;
+            curr = tmp;
         }
-        
-        return dp[s1.length()][s2.length()];
+
+        return prev[m] <= threshold ? prev[m] : maxDistance + 1;
     }
 }
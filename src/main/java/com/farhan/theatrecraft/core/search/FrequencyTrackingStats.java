@@ -0,0 +1,118 @@
+package com.farhan.theatrecraft.core.search;
+
+/**
+ * Search frequency tracking mode and its error bounds
+ * In approximate mode a Count-Min Sketch point estimate overcounts by at most
+ * pointErrorBound with probability 1 - delta, and a heavy hitter's count
+ * overcounts by at most heavyHitterErrorBound. Both bounds are 0 in exact mode.
+ */
+public class FrequencyTrackingStats {
+    private String mode;
+    private long totalQueries;
+    private int sketchWidth;
+    private int sketchDepth;
+    private double epsilon;
+    private double delta;
+    private long pointErrorBound;
+    private int heavyHitterCapacity;
+    private long heavyHitterErrorBound;
+    private long memoryBytes;
+
+    public FrequencyTrackingStats() {
+    }
+
+    public FrequencyTrackingStats(String mode, long totalQueries, int sketchWidth, int sketchDepth,
+                                  double epsilon, double delta, long pointErrorBound,
+                                  int heavyHitterCapacity, long heavyHitterErrorBound, long memoryBytes) {
+        this.mode = mode;
+        this.totalQueries = totalQueries;
+        this.sketchWidth = sketchWidth;
+        this.sketchDepth = sketchDepth;
+        this.epsilon = epsilon;
+        this.delta = delta;
+        this.pointErrorBound = pointErrorBound;
+        this.heavyHitterCapacity = heavyHitterCapacity;
+        this.heavyHitterErrorBound = heavyHitterErrorBound;
+        this.memoryBytes = memoryBytes;
+    }
+
+    public String getMode() {
+        return mode;
+    }
+
+    public void setMode(String mode) {
+        this.mode = mode;
+    }
+
+    public long getTotalQueries() {
+        return totalQueries;
+    }
+
+    public void setTotalQueries(long totalQueries) {
+        this.totalQueries = totalQueries;
+    }
+
+    public int getSketchWidth() {
+        return sketchWidth;
+    }
+
+    public void setSketchWidth(int sketchWidth) {
+        this.sketchWidth = sketchWidth;
+    }
+
+    public int getSketchDepth() {
+        return sketchDepth;
+    }
+
+    public void setSketchDepth(int sketchDepth) {
+        this.sketchDepth = sketchDepth;
+    }
+
+    public double getEpsilon() {
+        return epsilon;
+    }
+
+    public void setEpsilon(double epsilon) {
+        this.epsilon = epsilon;
+    }
+
+    public double getDelta() {
+        return delta;
+    }
+
+    public void setDelta(double delta) {
+        this.delta = delta;
+    }
+
+    public long getPointErrorBound() {
+        return pointErrorBound;
+    }
+
+    public void setPointErrorBound(long pointErrorBound) {
+        this.pointErrorBound = pointErrorBound;
+    }
+
+    public int getHeavyHitterCapacity() {
+        return heavyHitterCapacity;
+    }
+
+    public void setHeavyHitterCapacity(int heavyHitterCapacity) {
+        this.heavyHitterCapacity = heavyHitterCapacity;
+    }
+
+    public long getHeavyHitterErrorBound() {
+        return heavyHitterErrorBound;
+    }
+
+    public void setHeavyHitterErrorBound(long heavyHitterErrorBound) {
+        this.heavyHitterErrorBound = heavyHitterErrorBound;
+    }
+
+    public long getMemoryBytes() {
+        return memoryBytes;
+    }
+
+    public void setMemoryBytes(long memoryBytes) {
+        this.memoryBytes = memoryBytes;
+    }
+}
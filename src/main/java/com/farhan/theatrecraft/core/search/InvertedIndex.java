@@ -86,8 +86,17 @@ public class InvertedIndex {
      * @return List of URLOccurrence objects sorted by count descending
      */
     public List<URLOccurrence> getTopURLsWithHeap(String word, int topN) {
-        Map<String, Integer> urlCounts = getURLs(word);
-        
+        return getTopURLsWithHeap(getURLs(word), topN);
+    }
+    
+    /**
+     * Get top N URLs from a URL -> occurrence count map using Min Heap
+     * 
+     * @param urlCounts Map of URL -> occurrence count
+     * @param topN Number of top results to return
+     * @return List of URLOccurrence objects sorted by count descending
+     */
+    public static List<URLOccurrence> getTopURLsWithHeap(Map<String, Integer> urlCounts, int topN) {
         if (urlCounts.isEmpty()) {
             return new ArrayList<>();
         }
@@ -118,6 +127,24 @@ public class InvertedIndex {
         return result;
     }
     
+    /**
+     * Remove every entry for a URL
+     * 
+     * @param url The URL to remove
+     * @param words The words that were indexed for that URL
+     */
+    public void removeURL(String url, Collection<String> words) {
+        for (String word : words) {
+            Map<String, Integer> urlMap = index.get(word);
+            if (urlMap != null) {
+                urlMap.remove(url);
+                if (urlMap.isEmpty()) {
+                    index.remove(word);
+                }
+            }
+        }
+    }
+    
     /**
      * Calculate total occurrences of a word across all URLs
      * 
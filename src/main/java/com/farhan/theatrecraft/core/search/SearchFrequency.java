@@ -2,12 +2,12 @@ package com.farhan.theatrecraft.core.search;
 
 public class SearchFrequency {
     private String searchTerm;
-    private int count;
+    private long count;
 
     public SearchFrequency() {
     }
 
-    public SearchFrequency(String searchTerm, int count) {
+    public SearchFrequency(String searchTerm, long count) {
         this.searchTerm = searchTerm;
         this.count = count;
     }
@@ -20,11 +20,11 @@ public class SearchFrequency {
         this.searchTerm = searchTerm;
     }
 
-    public int getCount() {
+    public long getCount() {
         return count;
     }
 
-    public void setCount(int count) {
+    public void setCount(long count) {
         this.count = count;
     }
 }
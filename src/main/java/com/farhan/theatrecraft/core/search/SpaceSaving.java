@@ -0,0 +1,152 @@
+package com.farhan.theatrecraft.core.search;
+
+import java.util.*;
+
+/**
+ * Space-Saving heavy hitters (Metwally et al.)
+ * Monitors at most capacity keys. A new key replaces the key with the
+ * smallest count and inherits that count as its possible overestimation.
+ * Every key with true frequency above N / capacity is guaranteed to be
+ * monitored, and each reported count overestimates by at most its error
+ * (itself at most N / capacity). Not thread-safe.
+ */
+public class SpaceSaving {
+
+    private static final Comparator<Counter> ORDER = Comparator
+            .comparingLong((Counter c) -> c.count)
+            .thenComparing(c -> c.key);
+
+    private final int capacity;
+    private final Map<String, Counter> counters;
+    private final TreeSet<Counter> byCount; // Smallest count first
+    private long totalCount;
+
+    public SpaceSaving(int capacity) {
+        if (capacity < 1) {
+            throw new IllegalArgumentException("capacity must be positive");
+        }
+        this.capacity = capacity;
+        this.counters = new HashMap<>();
+        this.byCount = new TreeSet<>(ORDER);
+    }
+
+    /**
+     * Add one occurrence of a key
+     *
+     * @param key The key
+     */
+    public void add(String key) {
+        add(key, 1);
+    }
+
+    /**
+     * Add several occurrences of a key (e.g. counts loaded from disk)
+     *
+     * @param key The key
+     * @param count Occurrences to add (positive)
+     */
+    public void add(String key, long count) {
+        totalCount += count;
+
+        Counter counter = counters.get(key);
+        if (counter != null) {
+            byCount.remove(counter);
+            counter.count += count;
+            byCount.add(counter);
+            return;
+        }
+
+        if (counters.size() < capacity) {
+            counter = new Counter(key, count, 0);
+        } else {
+            // Replace the minimum; the newcomer may have been seen up to min times before
+            Counter min = byCount.pollFirst();
+            counters.remove(min.key);
+            counter = new Counter(key, min.count + count, min.count);
+        }
+        counters.put(key, counter);
+        byCount.add(counter);
+    }
+
+    /**
+     * Get the monitored keys with the highest counts
+     *
+     * @param limit Maximum number of entries
+     * @return Entries sorted by count, highest first
+     */
+    public List<HeavyHitter> getTop(int limit) {
+        List<HeavyHitter> result = new ArrayList<>();
+        Iterator<Counter> it = byCount.descendingIterator();
+        while (it.hasNext() && result.size() < limit) {
+            Counter counter = it.next();
+            result.add(new HeavyHitter(counter.key, counter.count, counter.error));
+        }
+        return result;
+    }
+
+    public int getCapacity() {
+        return capacity;
+    }
+
+    /**
+     * Get total number of additions (N)
+     */
+    public long getTotalCount() {
+        return totalCount;
+    }
+
+    /**
+     * Maximum overestimation of any reported count, N / capacity
+     */
+    public long getErrorBound() {
+        return totalCount / capacity;
+    }
+
+    /**
+     * Remove all counters
+     */
+    public void clear() {
+        counters.clear();
+        byCount.clear();
+        totalCount = 0;
+    }
+
+    private static class Counter {
+        final String key;
+        long count;
+        final long error;
+
+        Counter(String key, long count, long error) {
+            this.key = key;
+            this.count = count;
+            this.error = error;
+        }
+    }
+
+    /**
+     * Reported heavy hitter: count is an upper bound, count - error a lower bound
+     */
+    public static class HeavyHitter {
+        private final String key;
+        private final long count;
+        private final long error;
+
+        public HeavyHitter(String key, long count, long error) {
+            this.key = key;
+            this.count = count;
+            this.error = error;
+        }
+
+        public String getKey() {
+            return key;
+        }
+
+        public long getCount() {
+            return count;
+        }
+
+        public long getError() {
+            return error;
+        }
+    }
+}
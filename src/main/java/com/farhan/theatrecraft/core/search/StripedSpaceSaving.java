@@ -0,0 +1,122 @@
+package com.farhan.theatrecraft.core.search;
+
+import java.util.*;
+
+/**
+ * Thread-safe Space-Saving heavy hitters split into independently locked stripes
+ * Each key always lands in the same stripe (by hash), so every stripe is a
+ * plain SpaceSaving over its share of the stream, and concurrent adds of
+ * different keys rarely wait on each other. getTop merges the stripes' tops.
+ * With keys spread evenly, a key whose frequency exceeds about N / capacity is
+ * still monitored, and each reported count overestimates by at most its
+ * stripe's N_s / (capacity / stripes).
+ */
+public class StripedSpaceSaving {
+
+    private static final int MAX_STRIPES = 16;
+
+    private final int capacity;
+    private final SpaceSaving[] stripes;
+
+    public StripedSpaceSaving(int capacity) {
+        if (capacity < 1) {
+            throw new IllegalArgumentException("capacity must be positive");
+        }
+        // Power of two, and at least 8 counters per stripe
+        int count = Integer.highestOneBit(Math.max(1, Math.min(MAX_STRIPES, capacity / 8)));
+        this.stripes = new SpaceSaving[count];
+        for (int i = 0; i < count; i++) {
+            stripes[i] = new SpaceSaving((capacity + count - 1) / count);
+        }
+        this.capacity = stripes[0].getCapacity() * count;
+    }
+
+    /**
+     * Add one occurrence of a key
+     */
+    public void add(String key) {
+        add(key, 1);
+    }
+
+    /**
+     * Add several occurrences of a key
+     */
+    public void add(String key, long count) {
+        SpaceSaving stripe = stripeOf(key);
+        synchronized (stripe) {
+            stripe.add(key, count);
+        }
+    }
+
+    /**
+     * Get the monitored keys with the highest counts across all stripes
+     *
+     * @param limit Maximum number of entries
+     * @return Entries sorted by count, highest first
+     */
+    public List<SpaceSaving.HeavyHitter> getTop(int limit) {
+        List<SpaceSaving.HeavyHitter> merged = new ArrayList<>();
+        for (SpaceSaving stripe : stripes) {
+            synchronized (stripe) {
+                merged.addAll(stripe.getTop(limit));
+            }
+        }
+        merged.sort(Comparator.comparingLong(SpaceSaving.HeavyHitter::getCount).reversed()
+                .thenComparing(SpaceSaving.HeavyHitter::getKey));
+        return merged.size() > limit ? merged.subList(0, Math.max(0, limit)) : merged;
+    }
+
+    /**
+     * Total counters over all stripes
+     */
+    public int getCapacity() {
+        return capacity;
+    }
+
+    public int getStripeCount() {
+        return stripes.length;
+    }
+
+    /**
+     * Get total number of additions (N)
+     */
+    public long getTotalCount() {
+        long total = 0;
+        for (SpaceSaving stripe : stripes) {
+            synchronized (stripe) {
+                total += stripe.getTotalCount();
+            }
+        }
+        return total;
+    }
+
+    /**
+     * Maximum overestimation of any reported count (the largest stripe bound)
+     */
+    public long getErrorBound() {
+        long bound = 0;
+        for (SpaceSaving stripe : stripes) {
+            synchronized (stripe) {
+                bound = Math.max(bound, stripe.getErrorBound());
+            }
+        }
+        return bound;
+    }
+
+    /**
+     * Remove all counters
+     */
+    public void clear() {
+        for (SpaceSaving stripe : stripes) {
+            synchronized (stripe) {
+                stripe.clear();
+            }
+        }
+    }
+
+    private SpaceSaving stripeOf(String key) {
+        int h = key.hashCode();
+        h ^= h >>> 16;
+        return stripes[h & (stripes.length - 1)];
+    }
+}
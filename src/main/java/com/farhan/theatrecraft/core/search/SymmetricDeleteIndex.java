@@ -0,0 +1,175 @@
+package com.farhan.theatrecraft.core.search;
+
+import java.util.*;
+
+/**
+ * Symmetric Delete spelling index (SymSpell style)
+ * Every dictionary word is stored under all strings reachable from it by
+ * deleting up to maxEditDistance characters. A query generates its own
+ * deletes and looks them up, so candidates are found with a handful of hash
+ * lookups instead of an edit distance against every word.
+ * Only the first prefixLength characters are used for deletes, which keeps
+ * the index small for long words; candidates are verified with EditDistance.
+ */
+public class SymmetricDeleteIndex {
+
+    private final int maxEditDistance;
+    private final int prefixLength;
+
+    // delete string -> words that produce it
+    private final Map<String, List<String>> deletes;
+    private final Set<String> words;
+
+    public SymmetricDeleteIndex() {
+        this(2, 7);
+    }
+
+    public SymmetricDeleteIndex(int maxEditDistance, int prefixLength) {
+        this.maxEditDistance = maxEditDistance;
+        this.prefixLength = prefixLength;
+        this.deletes = new HashMap<>();
+        this.words = new HashSet<>();
+    }
+
+    /**
+     * Add a word and its deletes to the index (no-op if already present)
+     *
+     * @param word The word to add (should be normalized/lowercase)
+     */
+    public void add(String word) {
+        if (word == null || word.isEmpty() || !words.add(word)) {
+            return;
+        }
+
+        for (String delete : generateDeletes(prefix(word))) {
+            deletes.computeIfAbsent(delete, k -> new ArrayList<>(1)).add(word);
+        }
+    }
+
+    /**
+     * Look up the closest words within maxEditDistance of the query
+     *
+     * @param query The (possibly misspelled) word, normalized/lowercase
+     * @param maxResults Maximum number of suggestions
+     * @return Suggestions sorted by edit distance, then alphabetically
+     */
+    public List<String> lookup(String query, int maxResults) {
+        if (query == null || query.isEmpty() || words.isEmpty()) {
+            return new ArrayList<>();
+        }
+
+        Set<String> seen = new HashSet<>();
+        List<Suggestion> candidates = new ArrayList<>();
+
+        for (String delete : generateDeletes(prefix(query))) {
+            List<String> matches = deletes.get(delete);
+            if (matches == null) {
+                continue;
+            }
+
+            for (String candidate : matches) {
+                if (!seen.add(candidate)) {
+                    continue;
+                }
+                // Length difference is a lower bound on the edit distance
+                if (Math.abs(candidate.length() - query.length()) > maxEditDistance) {
+                    continue;
+                }
+
+                int distance = EditDistance.calculate(query, candidate, maxEditDistance);
+                if (distance <= maxEditDistance) {
+                    candidates.add(new Suggestion(candidate, distance));
+                }
+            }
+        }
+
+        candidates.sort(Comparator.comparingInt(Suggestion::getDistance)
+                .thenComparing(Suggestion::getWord));
+
+        List<String> result = new ArrayList<>();
+        for (int i = 0; i < candidates.size() && i < maxResults; i++) {
+            result.add(candidates.get(i).getWord());
+        }
+        return result;
+    }
+
+    /**
+     * Check if a word is in the dictionary
+     *
+     * @param word The word to check
+     * @return true if present
+     */
+    public boolean contains(String word) {
+        return word != null && words.contains(word);
+    }
+
+    /**
+     * Get the number of dictionary words
+     *
+     * @return Word count
+     */
+    public int size() {
+        return words.size();
+    }
+
+    /**
+     * Remove all words and deletes
+     */
+    public void clear() {
+        deletes.clear();
+        words.clear();
+    }
+
+    private String prefix(String word) {
+        return word.length() > prefixLength ? word.substring(0, prefixLength) : word;
+    }
+
+    /**
+     * All strings reachable by deleting 0..maxEditDistance characters (BFS by distance)
+     * Goes down to the empty string, so words no longer than maxEditDistance meet in the "" bucket
+     */
+    private Set<String> generateDeletes(String word) {
+        Set<String> result = new HashSet<>();
+        result.add(word);
+
+        List<String> frontier = Collections.singletonList(word);
+        for (int distance = 1; distance <= maxEditDistance; distance++) {
+            List<String> next = new ArrayList<>();
+            for (String current : frontier) {
+                if (current.isEmpty()) {
+                    continue;
+                }
+                for (int i = 0; i < current.length(); i++) {
+                    String delete = current.substring(0, i) + current.substring(i + 1);
+                    if (result.add(delete)) {
+                        next.add(delete);
+                    }
+                }
+            }
+            frontier = next;
+        }
+
+        return result;
+    }
+
+    /**
+     * Helper class for a candidate word with its edit distance
+     */
+    private static class Suggestion {
+        private final String word;
+        private final int distance;
+
+        Suggestion(String word, int distance) {
+            this.word = word;
+            this.distance = distance;
+        }
+
+        String getWord() {
+            return word;
+        }
+
+        int getDistance() {
+            return distance;
+        }
+    }
+}
@@ -0,0 +1,128 @@
+package com.farhan.theatrecraft.core.search;
+
+import java.util.*;
+
+/**
+ * Incrementally maintained top-K leaderboard of search terms
+ * Holds the K highest counts in a TreeSet ordered by count (descending) plus
+ * an index from term to its entry, so each update is O(log K). Readers get an
+ * immutable snapshot that is rebuilt in O(K) only after the board changed,
+ * so frequent polling of an unchanged board costs nothing.
+ *
+ * Counts are expected to only grow (search counters); an update with a lower
+ * count than the one on the board is ignored, which makes racing updates safe.
+ */
+public class TopKLeaderboard {
+
+    private static final Comparator<Entry> ORDER = Comparator
+            .comparingLong((Entry e) -> e.count).reversed()
+            .thenComparing(e -> e.term);
+
+    private final int capacity;
+    private final TreeSet<Entry> ranking;
+    private final Map<String, Entry> index;
+
+    // Immutable view for readers; null after a change until the next read rebuilds it
+    private volatile List<SearchFrequency> snapshot;
+
+    public TopKLeaderboard(int capacity) {
+        this.capacity = Math.max(1, capacity);
+        this.ranking = new TreeSet<>(ORDER);
+        this.index = new HashMap<>();
+        this.snapshot = Collections.emptyList();
+    }
+
+    /**
+     * Report the current count of a term
+     *
+     * @param term The search term
+     * @param count Its current total count
+     */
+    public synchronized void update(String term, long count) {
+        Entry entry = index.get(term);
+        if (entry != null) {
+            if (count <= entry.count) {
+                return; // Stale update from a racing thread
+            }
+            ranking.remove(entry);
+            entry.count = count;
+            ranking.add(entry);
+            snapshot = null;
+            return;
+        }
+
+        if (ranking.size() >= capacity) {
+            Entry last = ranking.last();
+            Entry candidate = new Entry(term, count);
+            if (ORDER.compare(candidate, last) >= 0) {
+                return; // Not good enough for the board
+            }
+            ranking.pollLast();
+            index.remove(last.term);
+            ranking.add(candidate);
+            index.put(term, candidate);
+        } else {
+            Entry added = new Entry(term, count);
+            ranking.add(added);
+            index.put(term, added);
+        }
+        snapshot = null;
+    }
+
+    /**
+     * Get the top entries, highest count first
+     *
+     * @param limit Maximum number of entries (at most the capacity)
+     * @return Immutable list of up to limit entries
+     */
+    public List<SearchFrequency> getTop(int limit) {
+        List<SearchFrequency> current = snapshot;
+        if (current == null) {
+            current = rebuildSnapshot();
+        }
+        return limit >= current.size() ? current : current.subList(0, Math.max(0, limit));
+    }
+
+    /**
+     * Get the board capacity K
+     *
+     * @return Maximum number of entries kept
+     */
+    public int getCapacity() {
+        return capacity;
+    }
+
+    /**
+     * Remove all entries
+     */
+    public synchronized void clear() {
+        ranking.clear();
+        index.clear();
+        snapshot = Collections.emptyList();
+    }
+
+    private synchronized List<SearchFrequency> rebuildSnapshot() {
+        if (snapshot != null) {
+            return snapshot; // Another reader rebuilt it first
+        }
+        List<SearchFrequency> entries = new ArrayList<>(ranking.size());
+        for (Entry entry : ranking) {
+            entries.add(new SearchFrequency(entry.term, entry.count));
+        }
+        snapshot = Collections.unmodifiableList(entries);
+        return snapshot;
+    }
+
+    /**
+     * Mutable board entry (re-inserted into the TreeSet on every count change)
+     */
+    private static class Entry {
+        final String term;
+        long count;
+
+        Entry(String term, long count) {
+            this.term = term;
+            this.count = count;
+        }
+    }
+}
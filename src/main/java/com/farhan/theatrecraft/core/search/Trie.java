@@ -1,39 +1,139 @@
 package com.farhan.theatrecraft.core.search;
 
 import com.farhan.theatrecraft.core.model.Product;
+import java.util.ArrayDeque;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.Deque;
 import java.util.List;
+import java.util.Map;
 
+/**
+ * Prefix tree over product names for autocomplete
+ * In ranked mode every node also stores the top-K completions of its subtree
+ * (best first by the given ranking), kept up to date on insert and promote,
+ * so a prefix query is a walk of |prefix| nodes with no subtree traversal.
+ * The compact backend stores the same data in a CompactTrie (radix trie over
+ * char arrays) instead of one HashMap per character node.
+ */
 public class Trie {
     private final TrieNode root;
+    private final Comparator<TrieNode> ranking; // null = unranked (DFS order)
+    private final int topK;
+    private final CompactTrie<Product> compact; // null = HashMap node backend
 
     public Trie() {
+        this(null, 0, false);
+    }
+
+    /**
+     * @param ranking Product order for completions (best first), or null for unranked
+     * @param topK Number of completions stored per node in ranked mode
+     * @param compact true to use the compact radix backend
+     */
+    public Trie(Comparator<Product> ranking, int topK, boolean compact) {
         this.root = new TrieNode();
+        this.ranking = ranking == null ? null : Comparator.comparing(TrieNode::getProduct, ranking);
+        this.topK = topK;
+        this.compact = compact ? new CompactTrie<>(ranking, topK) : null;
     }
 
     /**
      * Insert a product name into the trie (normalized to lowercase)
      */
-    public void insert(String word, Product product) {
+    public synchronized void insert(String word, Product product) {
         if (word == null || word.isEmpty()) {
             return;
         }
         
         String normalized = word.toLowerCase().trim();
+        if (compact != null) {
+            compact.put(normalized, product);
+            return;
+        }
+        
         TrieNode current = root;
+        List<TrieNode> path = new ArrayList<>(normalized.length() + 1);
+        path.add(root);
         
         for (char ch : normalized.toCharArray()) {
             current.getChildren().putIfAbsent(ch, new TrieNode());
             current = current.getChildren().get(ch);
+            path.add(current);
         }
         
         current.setEndOfWord(true);
         current.setProduct(product);
+        
+        if (ranking != null) {
+            for (TrieNode node : path) {
+                offerCompletion(node, current);
+            }
+        }
+    }
+
+    /**
+     * Re-rank a product name after its ranking key increased (e.g. search frequency)
+     * Only nodes on the name's path can hold it, so only they are updated
+     */
+    public synchronized void promote(String word) {
+        if (ranking == null || word == null || word.isEmpty()) {
+            return;
+        }
+        
+        String normalized = word.toLowerCase().trim();
+        if (compact != null) {
+            compact.promote(normalized);
+            return;
+        }
+        
+        TrieNode current = root;
+        List<TrieNode> path = new ArrayList<>(normalized.length() + 1);
+        path.add(root);
+        
+        for (char ch : normalized.toCharArray()) {
+            current = current.getChildren().get(ch);
+            if (current == null) {
+                return; // Not in the trie
+            }
+            path.add(current);
+        }
+        if (!current.isEndOfWord()) {
+            return;
+        }
+        
+        for (TrieNode node : path) {
+            offerCompletion(node, current);
+        }
+    }
+
+    /**
+     * Offer an end node to a node's top-K list (copy-on-write, so readers never lock)
+     */
+    private void offerCompletion(TrieNode node, TrieNode end) {
+        TrieNode[] current = node.getTopCompletions();
+        TrieNode[] updated;
+        
+        if (Arrays.asList(current).contains(end)) {
+            updated = current.clone(); // Already listed - its rank may have changed
+        } else if (current.length < topK) {
+            updated = Arrays.copyOf(current, current.length + 1);
+            updated[current.length] = end;
+        } else if (ranking.compare(end, current[current.length - 1]) < 0) {
+            updated = current.clone();
+            updated[updated.length - 1] = end; // Displace the weakest
+        } else {
+            return; // Does not make this node's top K
+        }
+        
+        Arrays.sort(updated, ranking);
+        node.setTopCompletions(updated);
     }
 
     /**
      * Search for products with the given prefix
-     * Returns up to maxResults products
+     * Returns up to maxResults products (best ranked first in ranked mode)
      * Only returns results if prefix length >= minLength
      */
     public List<Product> searchByPrefix(String prefix, int minLength, int maxResults) {
@@ -44,6 +144,14 @@ public class Trie {
         }
         
         String normalized = prefix.toLowerCase().trim();
+        if (compact != null) {
+            if (ranking != null && maxResults <= topK) {
+                return compact.topByPrefix(normalized, maxResults);
+            }
+            compact.collectByPrefix(normalized, maxResults, (name, product) -> results.add(product));
+            return results;
+        }
+        
         TrieNode current = root;
         
         // Navigate to the prefix node
@@ -55,6 +163,17 @@ public class Trie {
             current = next;
         }
         
+        // Ranked mode: the node already holds its best completions
+        if (ranking != null && maxResults <= topK) {
+            for (TrieNode end : current.getTopCompletions()) {
+                if (results.size() >= maxResults) {
+                    break;
+                }
+                results.add(end.getProduct());
+            }
+            return results;
+        }
+        
         // Collect all products under this prefix
         collectProducts(current, results, maxResults);
         return results; // Returns result
@@ -85,7 +204,83 @@ public class Trie {
      */
     public List<Product> getAllProducts() {
         List<Product> results = new ArrayList<>();
+        if (compact != null) {
+            compact.collectByPrefix("", Integer.MAX_VALUE, (name, product) -> results.add(product));
+            return results;
+        }
         collectProducts(root, results, Integer.MAX_VALUE);
         return results;
     }
+
+    /**
+     * Backend name for footprint reports
+     */
+    public String getBackend() {
+        return compact != null ? "compact" : "hashmap";
+    }
+
+    /**
+     * Get number of trie nodes
+     */
+    public synchronized int getNodeCount() {
+        if (compact != null) {
+            return compact.getNodeCount();
+        }
+        int count = 0;
+        Deque<TrieNode> stack = new ArrayDeque<>();
+        stack.push(root);
+        while (!stack.isEmpty()) {
+            TrieNode node = stack.pop();
+            count++;
+            stack.addAll(node.getChildren().values());
+        }
+        return count;
+    }
+
+    /**
+     * Estimate retained heap of the trie structure (products themselves not included)
+     * HashMap backend: node object, its HashMap and table, one entry per child,
+     * boxed Character keys outside the cached range and the top-K array.
+     */
+    public synchronized long estimateHeapBytes() {
+        if (compact != null) {
+            return compact.estimateHeapBytes();
+        }
+        long bytes = 0;
+        Deque<TrieNode> stack = new ArrayDeque<>();
+        stack.push(root);
+        while (!stack.isEmpty()) {
+            TrieNode node = stack.pop();
+            bytes += CompactTrie.align(12 + 4 + 1 + 4 + 4);     // TrieNode: children, isEndOfWord, product, topCompletions
+            bytes += estimateMapBytes(node.getChildren());
+            if (node.getTopCompletions().length > 0) {
+                bytes += CompactTrie.align(16 + 4L * node.getTopCompletions().length);
+            } else {
+                bytes += 16;                                    // Each node allocates its own empty array
+            }
+            stack.addAll(node.getChildren().values());
+        }
+        return bytes;
+    }
+
+    /**
+     * Approximate heap of a HashMap<Character, ?> (shared by Trie and WordTrie estimates)
+     */
+    static long estimateMapBytes(Map<Character, ?> map) {
+        long bytes = 48;                                        // HashMap object
+        if (!map.isEmpty()) {
+            int capacity = 16;
+            while (map.size() > capacity * 0.75) {
+                capacity <<= 1;
+            }
+            bytes += CompactTrie.align(16 + 4L * capacity);     // Table
+            bytes += 32L * map.size();                          // HashMap.Node per entry
+            for (Character key : map.keySet()) {
+                if (key > 127) {
+                    bytes += 16;                                // Boxed Character outside the cache
+                }
+            }
+        }
+        return bytes;
+    }
 }
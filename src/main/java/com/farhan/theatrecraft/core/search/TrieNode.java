@@ -8,11 +8,13 @@ public class TrieNode {
     private Map<Character, TrieNode> children;
     private boolean isEndOfWord;
     private Product product; // Store the product at the end of a word
+    private volatile TrieNode[] topCompletions; // Ranked mode: best end nodes in this subtree, best first
 
     public TrieNode() {
         this.children = new HashMap<>();
         this.isEndOfWord = false;
         this.product = null;
+        this.topCompletions = new TrieNode[0];
     }
 
     public Map<Character, TrieNode> getChildren() {
@@ -34,4 +36,12 @@ public class TrieNode {
     public void setProduct(Product product) {
         this.product = product;
     }
+
+    public TrieNode[] getTopCompletions() {
+        return topCompletions;
+    }
+
+    public void setTopCompletions(TrieNode[] topCompletions) {
+        this.topCompletions = topCompletions;
+    }
 }
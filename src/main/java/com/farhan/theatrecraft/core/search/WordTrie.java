@@ -6,13 +6,25 @@ import java.util.*;
  * Trie data structure for words extracted from URLs
  * Separate from product name Trie
  * Used for autocomplete and spell-check dictionary
+ * The compact backend keeps words in a CompactTrie (radix trie over char
+ * arrays, words rebuilt from edge labels) instead of HashMap nodes that also
+ * store each full word.
  */
 public class WordTrie {
     
     private final WordTrieNode root;
+    private final CompactTrie<Boolean> compact; // null = HashMap node backend
     
     public WordTrie() {
+        this(false);
+    }
+    
+    /**
+     * @param compact true to use the compact radix backend
+     */
+    public WordTrie(boolean compact) {
         this.root = new WordTrieNode();
+        this.compact = compact ? new CompactTrie<>() : null;
     }
     
     /**
@@ -27,6 +39,11 @@ public class WordTrie {
         }
         
         String normalized = word.toLowerCase().trim();
+        if (compact != null) {
+            compact.put(normalized, Boolean.TRUE);
+            return;
+        }
+        
         WordTrieNode current = root;
         
         for (char c : normalized.toCharArray()) {
@@ -65,6 +82,11 @@ public class WordTrie {
         }
         
         String normalized = prefix.toLowerCase().trim();
+        if (compact != null) {
+            compact.collectByPrefix(normalized, maxResults, (word, present) -> results.add(word));
+            return results;
+        }
+        
         WordTrieNode current = root;
         
         // Navigate to prefix node
@@ -115,6 +137,10 @@ public class WordTrie {
      */
     public List<String> getAllWords() {
         List<String> allWords = new ArrayList<>();
+        if (compact != null) {
+            compact.collectByPrefix("", Integer.MAX_VALUE, (word, present) -> allWords.add(word));
+            return allWords;
+        }
         collectAllWords(root, allWords);
         return allWords;
     }
@@ -147,6 +173,10 @@ public class WordTrie {
         }
         
         String normalized = word.toLowerCase().trim();
+        if (compact != null) {
+            return compact.get(normalized) != null;
+        }
+        
         WordTrieNode current = root;
         
         for (char c : normalized.toCharArray()) {
@@ -166,6 +196,9 @@ public class WordTrie {
      * @return Word count
      */
     public int size() {
+        if (compact != null) {
+            return compact.size();
+        }
         return countWords(root);
     }
     
@@ -189,9 +222,47 @@ public class WordTrie {
      * Clear all words from the Trie
      */
     public void clear() {
+        if (compact != null) {
+            compact.clear();
+            return;
+        }
         root.children.clear();
     }
     
+    /**
+     * Backend name for footprint reports
+     * 
+     * @return "compact" or "hashmap"
+     */
+    public String getBackend() {
+        return compact != null ? "compact" : "hashmap";
+    }
+    
+    /**
+     * Estimate retained heap of the Trie (nodes, maps, boxed keys and stored words)
+     * 
+     * @return Approximate bytes
+     */
+    public long estimateHeapBytes() {
+        if (compact != null) {
+            return compact.estimateHeapBytes();
+        }
+        
+        long bytes = 0;
+        Deque<WordTrieNode> stack = new ArrayDeque<>();
+        stack.push(root);
+        while (!stack.isEmpty()) {
+            WordTrieNode node = stack.pop();
+            bytes += CompactTrie.align(12 + 4 + 1 + 4);        // WordTrieNode: children, isEndOfWord, word
+            bytes += Trie.estimateMapBytes(node.children);
+            if (node.word != null) {
+                bytes += 24 + CompactTrie.align(16 + node.word.length()); // String + Latin-1 bytes
+            }
+            stack.addAll(node.children.values());
+        }
+        return bytes;
+    }
+    
     /**
      * Trie node for word storage
      */
@@ -1,38 +1,90 @@
 package com.farhan.theatrecraft.core.service;
 
+import com.farhan.theatrecraft.core.crawler.CrawlContext;
 import com.farhan.theatrecraft.core.crawler.ProductCrawler;
 import com.farhan.theatrecraft.core.model.Brand;
+import com.farhan.theatrecraft.core.model.CrawlJob;
+import com.farhan.theatrecraft.core.model.CrawlProgress;
 import com.farhan.theatrecraft.core.model.Product;
+import com.farhan.theatrecraft.core.storage.CrawlCheckpointRepository;
 import com.farhan.theatrecraft.core.storage.ProductCsvRepository;
 import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
 import org.springframework.stereotype.Service;
 
-import java.util.ArrayList;
-import java.util.List;
+import java.util.*;
+import java.util.concurrent.*;
 import java.util.stream.Collectors;
 
 @Service
 public class CrawlService {
 
+    private static final int MAX_FINISHED_JOBS = 20; // Finished job handles kept for polling
+
     private final ProductCsvRepository csvRepository;
+    private final CrawlCheckpointRepository checkpointRepository;
     private final List<ProductCrawler> crawlers;
     private final SearchService searchService;
-    private List<Product> products;
+    private final Semaphore brandPermits; // Caps browsers running at once, across all jobs
+    private final boolean resumeOnStartup;
+
+    // Copy-on-write: readers use the current list, writers publish a new one under productsLock
+    private volatile List<Product> products;
+    private final Object productsLock;
 
-    public CrawlService(ProductCsvRepository csvRepository, List<ProductCrawler> crawlers, SearchService searchService) {
+    private final Map<String, CrawlJob> jobs; // job id -> job, in creation order
+    private volatile CrawlJob activeCrawlAll;
+    private final Map<Brand, CrawlJob> activeBrandJobs; // Job crawling each brand (either kind), guarded by jobs
+
+    public CrawlService(ProductCsvRepository csvRepository, CrawlCheckpointRepository checkpointRepository,
+                        List<ProductCrawler> crawlers, SearchService searchService,
+                        @Value("${theatrecraft.crawl.max-concurrent-brands:3}") int maxConcurrentBrands,
+                        @Value("${theatrecraft.crawl.checkpoint.resume-on-startup:true}") boolean resumeOnStartup) {
         this.csvRepository = csvRepository;
+        this.checkpointRepository = checkpointRepository;
         this.crawlers = crawlers;
         this.searchService = searchService;
-        this.products = new ArrayList<>();
+        this.brandPermits = new Semaphore(Math.max(1, maxConcurrentBrands));
+        this.resumeOnStartup = resumeOnStartup;
+        this.products = Collections.emptyList();
+        this.productsLock = new Object();
+        this.jobs = Collections.synchronizedMap(new LinkedHashMap<>());
+        this.activeBrandJobs = new EnumMap<>(Brand.class);
     }
 
     @PostConstruct
     public void init() {
         // Load products from CSV on startup
-        this.products = csvRepository.loadAll();
+        this.products = Collections.unmodifiableList(csvRepository.loadAll());
         System.out.println("Loaded " + products.size() + " products from CSV");
     }
 
+    /**
+     * Restart brand crawls that were interrupted (e.g. by a shutdown), from their checkpoints
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void resumeInterruptedCrawls() {
+        if (!resumeOnStartup) {
+            return;
+        }
+        for (CrawlCheckpointRepository.Checkpoint checkpoint : checkpointRepository.findUnfinished()) {
+            Brand brand = checkpoint.getBrand();
+            if (crawlers.stream().noneMatch(c -> c.getBrand() == brand)) {
+                continue;
+            }
+            System.out.println("CrawlService: Resuming interrupted crawl of " + brand + " (" +
+                    checkpoint.getProducts().size() + " products already done)");
+            try {
+                startCrawlBrand(brand, checkpoint.isDelta());
+            } catch (IllegalStateException e) {
+                // Already started again (in the other mode) before the app was ready
+                System.err.println("CrawlService: Not resuming " + brand + " - " + e.getMessage());
+            }
+        }
+    }
+
     public List<Product> getAllProducts() {
         return new ArrayList<>(products);
     }
@@ -50,34 +102,354 @@ public class CrawlService {
     }
 
     /**
-     * Crawl only the selected brand, refresh that brand inside CSV,
-     * and keep the in-memory list updated.
+     * Start crawling one brand in the background
+     * The brand's products are replaced in memory and CSV when the crawl succeeds.
+     * If that brand is already being crawled in the same mode (on its own or by
+     * crawl-all), that job is returned instead.
+     *
+     * @param delta Only parse new or changed product pages, keep unchanged products
+     * @return The job handle to poll or subscribe to
+     * @throws IllegalStateException if the brand is already being crawled in the other mode
      */
-    public List<Product> crawlBrand(Brand brand) {
-    // Find crawler for this brand
-    ProductCrawler crawler = crawlers.stream()
-            .filter(c -> c.getBrand() == brand)
-            .findFirst()
-            .orElseThrow(() -> new IllegalArgumentException("No crawler found for brand: " + brand));
+    public CrawlJob startCrawlBrand(Brand brand, boolean delta) {
+        ProductCrawler crawler = findCrawler(brand);
+
+        synchronized (jobs) {
+            CrawlJob running = getRunningJob(brand);
+            if (running != null) {
+                requireMode(running, delta);
+                return running;
+            }
 
-    // Crawl fresh data for this brand
-    List<Product> crawledProducts = crawler.crawlProducts();
+            CrawlJob job = new CrawlJob(UUID.randomUUID().toString(), List.of(brand), delta);
+            registerJob(job);
+            activeBrandJobs.put(brand, job);
 
-    // Remove old products for this brand from the in-memory list
-    products.removeIf(p -> p.getBrand() == brand);
+            Thread.ofVirtual().name("crawl-" + brand + "-" + job.getId()).start(() -> runJob(job, List.of(crawler)));
+            return job;
+        }
+    }
 
-    // Add new products for this brand
-    products.addAll(crawledProducts);
+    /**
+     * Start crawling every brand in the background
+     * Brands run in parallel (at most max-concurrent-brands browsers at a time); the results are
+     * merged, the CSV is written once and the search state reloaded once at the end.
+     * If a crawl-all job is already running in the same mode, that job is returned instead.
+     *
+     * @param delta Only parse new or changed product pages, keep unchanged products
+     * @return The job handle to poll or subscribe to
+     * @throws IllegalStateException if a crawl-all job of the other mode is running, or a
+     *         single-brand job is still crawling one of the brands
+     */
+    public CrawlJob startCrawlAll(boolean delta) {
+        synchronized (jobs) {
+            CrawlJob running = activeCrawlAll;
+            if (running != null && !running.isFinished()) {
+                requireMode(running, delta);
+                return running;
+            }
 
-    // Save the full product list (all brands) back to CSV
-    csvRepository.saveAll(products);
+            List<Brand> brands = crawlers.stream().map(ProductCrawler::getBrand).collect(Collectors.toList());
+            for (Brand brand : brands) {
+                CrawlJob other = getRunningJob(brand);
+                if (other != null) {
+                    // Two jobs on one brand would race on its products, checkpoint and browsers
+                    throw new IllegalStateException(brand + " is already being crawled by job " + other.getId());
+                }
+            }
 
-    // Reload SearchService so Trie includes newly crawled products
-    searchService.reloadProducts();
+            CrawlJob job = new CrawlJob(UUID.randomUUID().toString(), brands, delta);
+            registerJob(job);
+            activeCrawlAll = job;
+            for (Brand brand : brands) {
+                activeBrandJobs.put(brand, job);
+            }
 
-    System.out.println("Crawled " + crawledProducts.size() + " products for brand: " + brand);
+            Thread.ofVirtual().name("crawl-all-" + job.getId()).start(() -> runJob(job, crawlers));
+            return job;
+        }
+    }
 
-    return crawledProducts;
-}
+    /**
+     * Get a crawl job by id
+     *
+     * @return The job, or null if unknown (or already evicted)
+     */
+    public CrawlJob getJob(String jobId) {
+        return jobs.get(jobId);
+    }
 
+    /**
+     * Reuse a running job only for a request of the same mode, so a full crawl is never
+     * silently answered with a delta one (or the other way round)
+     */
+    private static void requireMode(CrawlJob running, boolean delta) {
+        if (running.isDelta() != delta) {
+            throw new IllegalStateException("A " + (running.isDelta() ? "delta" : "full") +
+                    " crawl is already running as job " + running.getId());
+        }
+    }
+
+    /**
+     * The unfinished job crawling a brand, or null (caller holds jobs)
+     */
+    private CrawlJob getRunningJob(Brand brand) {
+        CrawlJob running = activeBrandJobs.get(brand);
+        return running != null && !running.isFinished() ? running : null;
+    }
+
+    /**
+     * Run the brand crawls of a job and publish the merged result
+     */
+    private void runJob(CrawlJob job, List<ProductCrawler> jobCrawlers) {
+        job.setStatus(CrawlJob.Status.RUNNING);
+        job.setStartedAt(System.currentTimeMillis());
+
+        Map<Brand, List<Product>> crawled = new ConcurrentHashMap<>();
+
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (ProductCrawler crawler : jobCrawlers) {
+                executor.submit(() -> {
+                    List<Product> result = crawlOne(crawler, job);
+                    if (result != null) {
+                        crawled.put(crawler.getBrand(), result);
+                    }
+                });
+            }
+        } // close() waits for every brand
+
+        int failed = job.getBrands().size() - crawled.size();
+        try {
+            if (crawled.isEmpty()) {
+                job.finish(CrawlJob.Status.FAILED, "No brand crawled; existing products kept");
+            } else if (!replaceBrands(crawled)) {
+                // Not saved: the checkpoints (released below) let the next crawl resume
+                job.finish(CrawlJob.Status.FAILED, "Could not save results to CSV; existing products kept");
+            } else {
+                // Saved: these brands start from scratch next time
+                crawled.keySet().forEach(brand -> checkpointRepository.delete(brand, job.getId()));
+                job.setTotalProducts(crawled.values().stream().mapToInt(List::size).sum());
+                if (failed > 0) {
+                    job.finish(CrawlJob.Status.PARTIAL, failed + " brand(s) failed; their existing products were kept");
+                } else {
+                    job.finish(CrawlJob.Status.COMPLETED, "Crawled " + job.getTotalProducts() + " products from " +
+                            crawled.size() + " brand(s) - " + describeChanges(job));
+                }
+            }
+        } catch (RuntimeException e) {
+            System.err.println("CrawlService: Could not publish crawl results - " + e.getMessage());
+            job.finish(CrawlJob.Status.FAILED, "Could not save results: " + e.getMessage());
+        } finally {
+            // Failed or unsaved brands keep their checkpoint file for the next crawl to resume
+            job.getBrands().keySet().forEach(brand -> checkpointRepository.release(brand, job.getId()));
+        }
+
+        System.out.println("CrawlService: Crawl job " + job.getId() + " " + job.getStatus() + " - " +
+            job.getTotalProducts() + " products in " + (job.getFinishedAt() - job.getStartedAt()) + " ms");
+    }
+
+    /**
+     * Crawl one brand under a concurrency permit, streaming its progress into the job
+     * Finished products go to the brand's checkpoint as they are parsed; a crawl that
+     * stops early resumes from there. Only a crawl that covered its whole listing is
+     * returned, so a partial failure never replaces the brand's existing products.
+     *
+     * @return The crawled products, or null if the crawl failed
+     */
+    private List<Product> crawlOne(ProductCrawler crawler, CrawlJob job) {
+        CrawlJob.BrandProgress progress = job.getBrand(crawler.getBrand());
+        try {
+            brandPermits.acquire();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            progress.setStatus(CrawlJob.Status.FAILED);
+            progress.setError("Interrupted");
+            return null;
+        }
+
+        Brand brand = crawler.getBrand();
+        List<Product> previous = getProductsByBrand(brand);
+        CrawlContext context = new CrawlContext(brand, job::publish, previous, job.isDelta());
+        CrawlCheckpointRepository.Checkpoint checkpoint;
+        try {
+            checkpoint = checkpointRepository.open(brand, job.getId(), job.isDelta());
+        } catch (IllegalStateException e) {
+            // Another job still owns this brand's checkpoint
+            brandPermits.release();
+            progress.setStatus(CrawlJob.Status.FAILED);
+            progress.setError(e.getMessage());
+            progress.setFinishedAt(System.currentTimeMillis());
+            context.publish(CrawlProgress.Type.BRAND_FINISHED, brand.getDisplayName() + " " + progress.getStatus());
+            return null;
+        }
+        context.resumeFrom(checkpoint.getProducts(), product -> checkpointRepository.append(brand, job.getId(), product));
+
+        progress.setStatus(CrawlJob.Status.RUNNING);
+        progress.setStartedAt(System.currentTimeMillis());
+        context.publish(CrawlProgress.Type.BRAND_STARTED, checkpoint.getProducts().isEmpty()
+                ? "Crawling " + brand.getDisplayName()
+                : "Resuming " + brand.getDisplayName() + " from checkpoint (" + checkpoint.getProducts().size() +
+                  " products done)");
+        try {
+            List<Product> result = crawler.crawlProducts(context);
+            if (result == null || result.isEmpty()) {
+                // An empty crawl almost always means the site did not load; keep the old products
+                progress.setStatus(CrawlJob.Status.FAILED);
+                progress.setError("No products found");
+                return null;
+            }
+            if (!context.isComplete()) {
+                // Stopped part way through the product pages; the checkpoint keeps what was done
+                progress.setStatus(CrawlJob.Status.FAILED);
+                progress.setError("Stopped after " + context.getProcessed() + " of " + context.getTotal() +
+                        " product pages; the next crawl resumes from the checkpoint");
+                return null;
+            }
+            progress.setProductCount(result.size());
+            recordChanges(progress, previous, result);
+            progress.setStatus(CrawlJob.Status.COMPLETED);
+            return result;
+        } catch (Exception e) {
+            System.err.println("CrawlService: Crawl failed for " + crawler.getBrand() + " - " + e.getMessage());
+            progress.setStatus(CrawlJob.Status.FAILED);
+            progress.setError(e.getMessage());
+            return null;
+        } finally {
+            progress.setFinishedAt(System.currentTimeMillis());
+            brandPermits.release();
+            context.publish(CrawlProgress.Type.BRAND_FINISHED, crawler.getBrand().getDisplayName() + " " +
+                    progress.getStatus());
+        }
+    }
+
+    /**
+     * Count added, updated, unchanged and removed products of a brand (matched by product URL)
+     * Unchanged = same details as before, whether the delta crawl carried the old
+     * product forward or the page was parsed again (new id) into the same product.
+     */
+    private void recordChanges(CrawlJob.BrandProgress progress, List<Product> previous, List<Product> result) {
+        Map<String, Product> previousByUrl = new HashMap<>();
+        for (Product product : previous) {
+            if (product.getProductUrl() != null && !product.getProductUrl().isEmpty()) {
+                previousByUrl.put(product.getProductUrl(), product);
+            }
+        }
+
+        int added = 0;
+        int updated = 0;
+        int unchanged = 0;
+        Set<String> kept = new HashSet<>();
+        for (Product product : result) {
+            Product old = previousByUrl.get(product.getProductUrl());
+            if (old == null) {
+                added++;
+            } else if (old == product || sameDetails(old, product)) {
+                unchanged++;
+            } else {
+                updated++;
+            }
+            if (old != null) {
+                kept.add(product.getProductUrl());
+            }
+        }
+
+        progress.setAddedCount(added);
+        progress.setUpdatedCount(updated);
+        progress.setUnchangedCount(unchanged);
+        // Products without a URL cannot be matched, so they are neither kept nor removed
+        progress.setRemovedCount(previousByUrl.size() - kept.size());
+    }
+
+    /**
+     * True if two products show the same details
+     * The id and fingerprint are ignored: a re-parsed page gets a new id, and a
+     * page can change (markup, ads) without changing the product.
+     */
+    private static boolean sameDetails(Product a, Product b) {
+        return a.getBrand() == b.getBrand()
+                && Objects.equals(a.getSourceSite(), b.getSourceSite())
+                && Objects.equals(a.getModelName(), b.getModelName())
+                && Objects.equals(a.getSystemType(), b.getSystemType())
+                && Objects.equals(a.getCategory(), b.getCategory())
+                && Objects.equals(a.getPrice(), b.getPrice())
+                && Objects.equals(a.getRating(), b.getRating())
+                && Objects.equals(a.getImageUrl(), b.getImageUrl())
+                && Objects.equals(a.getProductUrl(), b.getProductUrl())
+                && Objects.equals(a.getChannel(), b.getChannel())
+                && Objects.equals(a.getAudioFormat(), b.getAudioFormat())
+                && Objects.equals(a.getWifiFormat(), b.getWifiFormat())
+                && Objects.equals(a.getBluetoothVersion(), b.getBluetoothVersion())
+                && Objects.equals(a.getWeightKg(), b.getWeightKg())
+                && Objects.equals(a.getPower(), b.getPower());
+    }
+
+    private String describeChanges(CrawlJob job) {
+        int added = 0;
+        int updated = 0;
+        int unchanged = 0;
+        int removed = 0;
+        for (CrawlJob.BrandProgress progress : job.getBrands().values()) {
+            added += progress.getAddedCount();
+            updated += progress.getUpdatedCount();
+            unchanged += progress.getUnchangedCount();
+            removed += progress.getRemovedCount();
+        }
+        return added + " added, " + updated + " updated, " + unchanged + " unchanged, " + removed + " removed";
+    }
+
+    /**
+     * Replace the products of the given brands, save the full list to CSV
+     * and reload the search state (once for all brands)
+     * The new list is only published once it is saved, so memory never holds a
+     * crawl that would be lost on restart.
+     *
+     * @return true if the products were saved and published
+     */
+    private boolean replaceBrands(Map<Brand, List<Product>> crawled) {
+        synchronized (productsLock) {
+            List<Product> updated = new ArrayList<>(products.size());
+            for (Product product : products) {
+                if (product.getBrand() == null || !crawled.containsKey(product.getBrand())) {
+                    updated.add(product);
+                }
+            }
+            for (List<Product> brandProducts : crawled.values()) {
+                updated.addAll(brandProducts);
+            }
+
+            // Save the full product list (all brands) back to CSV
+            if (!csvRepository.saveAll(updated)) {
+                return false;
+            }
+            products = Collections.unmodifiableList(updated);
+        }
+
+        // Reload SearchService so Trie includes newly crawled products
+        searchService.reloadProducts();
+        return true;
+    }
+
+    private ProductCrawler findCrawler(Brand brand) {
+        return crawlers.stream()
+                .filter(c -> c.getBrand() == brand)
+                .findFirst()
+                .orElseThrow(() -> new IllegalArgumentException("No crawler found for brand: " + brand));
+    }
+
+    /**
+     * Remember a job, evicting the oldest finished jobs beyond MAX_FINISHED_JOBS
+     */
+    private void registerJob(CrawlJob job) {
+        synchronized (jobs) {
+            jobs.put(job.getId(), job);
+            long finished = jobs.values().stream().filter(CrawlJob::isFinished).count();
+            Iterator<CrawlJob> oldest = jobs.values().iterator();
+            while (finished > MAX_FINISHED_JOBS && oldest.hasNext()) {
+                if (oldest.next().isFinished()) {
+                    oldest.remove();
+                    finished--;
+                }
+            }
+        }
+    }
 }
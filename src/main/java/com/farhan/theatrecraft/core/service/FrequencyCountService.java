@@ -1,18 +1,16 @@
 package com.farhan.theatrecraft.core.service;
 
-import com.farhan.theatrecraft.core.model.Product;
-import com.farhan.theatrecraft.core.search.*;
 import com.farhan.theatrecraft.core.storage.ProductCsvRepository;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 
 import java.util.*;
-import java.util.stream.Collectors;
 
 /**
  * Frequency Count Service
  * Calculates global statistics for keyword occurrences across all product URLs
  * Shows total occurrences, total URLs searched, and URLs where keyword was found
+ * Occurrences come from the shared page corpus index
  */
 @Service
 public class FrequencyCountService {
@@ -23,16 +21,18 @@ public class FrequencyCountService {
     @Autowired
     private URLContentCache urlCache;
     
-    private final WordTrie wordTrie;
-    private final InvertedIndex invertedIndex;
+    @Autowired
+    private URLWordDictionary wordDictionary;
     
-    public FrequencyCountService() {
-        this.wordTrie = new WordTrie();
-        this.invertedIndex = new InvertedIndex();
-    }
+    @Autowired
+    private PageCorpusIndex corpusIndex;
+    
+    @Autowired
+    private PageFetchPipeline fetchPipeline;
     
     /**
-     * Search for keyword and return frequency statistics
+     * Search for keyword(s) and return frequency statistics
+     * Multi-term queries (e.g. "dolby atmos wifi") count every term in the same pass
      * 
      * @param keyword The keyword to search for
      * @return FrequencyCountResult with statistics and URL list
@@ -45,8 +45,8 @@ public class FrequencyCountService {
         
         String normalizedKeyword = keyword.trim().toLowerCase();
         
-        // Build index for this keyword
-        FrequencyStats stats = buildIndexAndCalculateStats(normalizedKeyword);
+        // Look up keyword in the shared corpus index
+        FrequencyStats stats = calculateStats(normalizedKeyword);
         
         if (stats.foundOnURLCount == 0) {
             // No results - try spell checker
@@ -56,7 +56,7 @@ public class FrequencyCountService {
         }
         
         // Get all URLs where keyword was found
-        List<String> foundURLs = new ArrayList<>(invertedIndex.getURLs(normalizedKeyword).keySet());
+        List<String> foundURLs = new ArrayList<>(stats.urlCounts.keySet());
         
         return new FrequencyCountResult(true, stats.totalOccurrences,
             stats.totalURLsSearched, stats.foundOnURLCount, foundURLs,
@@ -64,82 +64,32 @@ public class FrequencyCountService {
     }
     
     /**
-     * Build inverted index and calculate frequency statistics
+     * Calculate frequency statistics from the corpus index
+     * Pages are fetched in parallel and tokenized into the corpus index when they enter the cache
      * 
      * @param keyword The keyword to search for (normalized)
      * @return FrequencyStats object with calculated statistics
      */
-    private FrequencyStats buildIndexAndCalculateStats(String keyword) {
-        List<Product> products = productRepository.loadAll();
+    private FrequencyStats calculateStats(String keyword) {
+        List<String> urls = PageFetchPipeline.pageURLs(productRepository.loadAll());
+        int totalURLsSearched = urls.size();
         
-        System.out.println("FrequencyCountService: Analyzing keyword '" + keyword + "' across " + products.size() + " products");
+        System.out.println("FrequencyCountService: Analyzing keyword '" + keyword + "' across " + totalURLsSearched + " product pages");
         
-        // Clear previous index
-        invertedIndex.clear();
+        // Fetch and index pages in parallel, counting every term in the same pass
+        PageFetchPipeline.FetchReport report = fetchPipeline.findOccurrences(keyword, urls);
+        Map<String, Integer> urlCounts = report.getOccurrences();
         
-        int totalOccurrences = 0;
-        int totalURLsSearched = 0;
-        int foundOnURLCount = 0;
-        
-        for (Product product : products) {
-            String url = product.getProductUrl();
-            
-            if (url == null || url.isEmpty() || url.equals("https://example.com/product")) {
-                continue; // Skip invalid URLs
-            }
-            
-            totalURLsSearched++;
-            
-            try {
-                // Fetch URL content from cache or web
-                String content = urlCache.getContent(url);
-                
-                if (content == null) {
-                    continue; // Skip failed fetches
-                }
-                
-                // Extract words for Trie (autocomplete/spell-check)
-                extractAndIndexWords(content);
-                
-                // Count whole word occurrences using Boyer-Moore
-                int occurrenceCount = BoyerMoore.countWholeWordOccurrences(content, keyword);
-                
-                if (occurrenceCount > 0) {
-                    // Add to inverted index
-                    invertedIndex.addEntry(keyword, url, occurrenceCount);
-                    totalOccurrences += occurrenceCount;
-                    foundOnURLCount++;
-                }
-                
-            } catch (Exception e) {
-                System.err.println("FrequencyCountService: Error processing " + url + " - " + e.getMessage());
-            }
+        if (report.isPartial()) {
+            System.out.println("FrequencyCountService: Partial results, " + report.getTimedOutCount() + " pages timed out");
         }
+        int totalOccurrences = urlCounts.values().stream().mapToInt(Integer::intValue).sum();
+        int foundOnURLCount = urlCounts.size();
         
         System.out.println("FrequencyCountService: Analysis complete. Total occurrences: " + totalOccurrences +
             ", Found on " + foundOnURLCount + " URLs out of " + totalURLsSearched + " searched");
         
-        return new FrequencyStats(totalOccurrences, totalURLsSearched, foundOnURLCount);
-    }
-    
-    /**
-     * Extract words from text and add to Trie
-     * 
-     * @param content Text content to extract words from
-     */
-    private void extractAndIndexWords(String content) {
-        if (content == null || content.isEmpty()) {
-            return;
-        }
-        
-        // Split content into words
-        String[] words = content.toLowerCase().split("\\W+");
-        
-        for (String word : words) {
-            if (word.length() >= 3) {
-                wordTrie.insert(word);
-            }
-        }
+        return new FrequencyStats(totalOccurrences, totalURLsSearched, foundOnURLCount, urlCounts);
     }
     
     /**
@@ -153,36 +103,19 @@ public class FrequencyCountService {
             return Collections.emptyList();
         }
         
-        return wordTrie.searchByPrefix(prefix, 3, 5);
+        return wordDictionary.autocomplete(prefix, 3, 5);
     }
     
     /**
-     * Get spell check suggestions using edit distance
+     * Get spell check suggestions from the shared Symmetric Delete index
+     * Returns up to N closest words within edit distance 2 (per misspelled term for multi-term queries)
      * 
      * @param query The search query
      * @param maxSuggestions Maximum number of suggestions
      * @return List of suggested words
      */
     private List<String> getSpellCheckSuggestions(String query, int maxSuggestions) {
-        List<String> allWords = wordTrie.getAllWords();
-        
-        if (allWords.isEmpty()) {
-            return Collections.emptyList();
-        }
-        
-        // Calculate edit distance for each word
-        List<WordDistance> distances = new ArrayList<>();
-        for (String word : allWords) {
-            int distance = EditDistance.calculate(query, word);
-            distances.add(new WordDistance(word, distance));
-        }
-        
-        // Sort by distance and return top N
-        return distances.stream()
-                .sorted(Comparator.comparingInt(WordDistance::getDistance))
-                .limit(maxSuggestions)
-                .map(WordDistance::getWord)
-                .collect(Collectors.toList());
+        return wordDictionary.getQuerySuggestions(PageCorpusIndex.splitTerms(query), maxSuggestions);
     }
     
     /**
@@ -190,8 +123,8 @@ public class FrequencyCountService {
      */
     public void clearCache() {
         urlCache.clearCache();
-        invertedIndex.clear();
-        wordTrie.clear();
+        corpusIndex.clear();
+        wordDictionary.clear();
     }
     
     /**
@@ -201,32 +134,14 @@ public class FrequencyCountService {
         final int totalOccurrences;
         final int totalURLsSearched;
         final int foundOnURLCount;
+        final Map<String, Integer> urlCounts;
         
-        FrequencyStats(int totalOccurrences, int totalURLsSearched, int foundOnURLCount) {
+        FrequencyStats(int totalOccurrences, int totalURLsSearched, int foundOnURLCount,
+                       Map<String, Integer> urlCounts) {
             this.totalOccurrences = totalOccurrences;
             this.totalURLsSearched = totalURLsSearched;
             this.foundOnURLCount = foundOnURLCount;
-        }
-    }
-    
-    /**
-     * Helper class for word with edit distance
-     */
-    private static class WordDistance {
-        private final String word;
-        private final int distance;
-        
-        WordDistance(String word, int distance) {
-            this.word = word;
-            this.distance = distance;
-        }
-        
-        String getWord() {
-            return word;
-        }
-        
-        int getDistance() {
-            return distance;
+            this.urlCounts = urlCounts;
         }
     }
     
@@ -0,0 +1,400 @@
+package com.farhan.theatrecraft.core.service;
+
+import com.farhan.theatrecraft.core.search.AhoCorasick;
+import com.farhan.theatrecraft.core.search.InvertedIndex;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.util.*;
+
+/**
+ * Whole-corpus inverted index over product page text
+ * Each page is tokenized once, when its content enters URLContentCache, into
+ * word -> (URL, occurrence count) postings shared by Page Ranking and
+ * Frequency Count. A single-word keyword query over pages already indexed is
+ * then one posting-list lookup (see lookup).
+ * The index follows the cache: a page's postings are dropped when it expires
+ * or is evicted, and replaced when it is fetched again, so results respect the
+ * cache TTL and the index is no larger than the cache. Pages that have to be
+ * fetched for a query are counted as they are indexed (countOccurrences)
+ * rather than after the whole fetch, when early pages may already be evicted.
+ *
+ * Tokens are maximal runs of letters/digits, lower-cased, which matches the
+ * whole-word rule of AhoCorasick.countWholeWords for single-word keywords.
+ */
+@Component
+public class PageCorpusIndex implements URLContentCache.ContentListener {
+
+    @Autowired
+    private URLContentCache urlCache;
+
+    @Autowired
+    private URLWordDictionary wordDictionary;
+
+    private final InvertedIndex invertedIndex;
+
+    // URL -> words indexed for it (to replace or remove a page's postings)
+    private final Map<String, Set<String>> wordsByURL;
+
+    // Pages indexed for a query although the cache did not keep them, oldest first
+    private final LinkedHashSet<String> uncachedURLs;
+
+    // Most uncached pages kept indexed; older ones are dropped
+    private static final int MAX_UNCACHED_PAGES = 64;
+
+    public PageCorpusIndex() {
+        this.invertedIndex = new InvertedIndex();
+        this.wordsByURL = new HashMap<>();
+        this.uncachedURLs = new LinkedHashSet<>();
+    }
+
+    @PostConstruct
+    public void init() {
+        urlCache.addListener(this);
+    }
+
+    @Override
+    public void onContentLoaded(String url, String content) {
+        indexPage(url, content);
+    }
+
+    @Override
+    public void onContentRemoved(String url) {
+        // A concurrent refetch may already have put (and indexed) the page again
+        if (!urlCache.isCached(url)) {
+            removePage(url);
+        }
+    }
+
+    @Override
+    public void onCleared() {
+        clear();
+    }
+
+    /**
+     * Make sure a URL's content is fetched and indexed
+     *
+     * @param url The product URL
+     * @return true if the page is in the index, false if its content is unavailable
+     */
+    public boolean ensureIndexed(String url) {
+        return countOccurrences(url, Collections.emptyList(), null) >= 0;
+    }
+
+    /**
+     * Fetch and index a page if needed, and count whole-word occurrences of query terms on it
+     * Single-token terms are read from the page's postings in the same critical
+     * section that (re)indexes it, and multi-token terms are scanned in the text
+     * just fetched, so the count cannot be lost if the cache evicts the page (and
+     * the index drops it) later in the same query.
+     *
+     * @param url The page URL
+     * @param words Single-token terms, answered from postings (normalized/lowercase)
+     * @param automaton Automaton for the multi-token terms (may be null)
+     * @return Total occurrence count over all terms, or -1 if the content is unavailable
+     */
+    public int countOccurrences(String url, Collection<String> words, AhoCorasick automaton) {
+        // Always go through the cache: an expired page is refetched and
+        // reindexed through onContentRemoved/onContentLoaded
+        String content = urlCache.getContent(url);
+        if (content == null) {
+            removePage(url);
+            return -1;
+        }
+
+        // A page the cache declined to keep (e.g. too large) is not in the index
+        // any more; index it for this query but keep only the latest few
+        Map<String, Integer> counts = isIndexed(url) ? null : countWords(content);
+        boolean uncached = counts != null && !urlCache.isCached(url);
+        boolean added = false;
+        int occurrenceCount = 0;
+        synchronized (this) {
+            if (!wordsByURL.containsKey(url)) {
+                if (counts == null) {
+                    counts = countWords(content); // Dropped since the check above
+                }
+                replacePostings(url, counts);
+                if (uncached) {
+                    trackUncached(url);
+                }
+                added = true;
+            }
+            for (String word : words) {
+                Integer count = invertedIndex.getURLs(word).get(url);
+                if (count != null) {
+                    occurrenceCount += count;
+                }
+            }
+        }
+
+        if (added) {
+            addToDictionary(counts.keySet());
+        }
+        if (automaton != null) {
+            occurrenceCount += automaton.countAllWholeWords(content);
+        }
+        return occurrenceCount;
+    }
+
+    /**
+     * Tokenize a page and replace its postings
+     *
+     * @param url The page URL
+     * @param content The page text
+     */
+    public void indexPage(String url, String content) {
+        Map<String, Integer> counts = countWords(content);
+
+        synchronized (this) {
+            replacePostings(url, counts);
+        }
+        addToDictionary(counts.keySet());
+    }
+
+    /**
+     * Remove a page's postings
+     *
+     * @param url The page URL
+     */
+    public synchronized void removePage(String url) {
+        uncachedURLs.remove(url);
+        Set<String> words = wordsByURL.remove(url);
+        if (words != null) {
+            invertedIndex.removeURL(url, words);
+        }
+    }
+
+    /**
+     * Check if a URL has been indexed
+     *
+     * @param url The page URL
+     * @return true if indexed
+     */
+    public synchronized boolean isIndexed(String url) {
+        return wordsByURL.containsKey(url);
+    }
+
+    /**
+     * Get summed postings for several words, restricted to the given URLs
+     *
+     * @param words Words to look up (normalized/lowercase)
+     * @param urls URLs in scope
+     * @return Map of URL -> total occurrence count over all words
+     */
+    public synchronized Map<String, Integer> getPostings(Collection<String> words, Set<String> urls) {
+        Map<String, Integer> postings = new HashMap<>();
+        for (String word : words) {
+            for (Map.Entry<String, Integer> entry : invertedIndex.getURLs(word).entrySet()) {
+                if (urls.contains(entry.getKey())) {
+                    postings.merge(entry.getKey(), entry.getValue(), Integer::sum);
+                }
+            }
+        }
+        return postings;
+    }
+
+    /**
+     * Answer single-token terms from postings for every URL whose page is indexed and fresh
+     * The freshness check and the postings read happen under the index lock, so
+     * no page can be evicted in between. URLs not answered here (never fetched,
+     * expired or evicted) must go through countOccurrences.
+     *
+     * @param words Single-token terms (normalized/lowercase)
+     * @param urls URLs in scope (e.g. current product URLs)
+     * @return The postings of the answered URLs and the URLs still to fetch
+     */
+    public synchronized IndexLookup lookup(Collection<String> words, Collection<String> urls) {
+        Set<String> answered = new HashSet<>();
+        List<String> missing = new ArrayList<>();
+        for (String url : urls) {
+            // Expiry is lazy in the cache: an expired page keeps its postings until refetched
+            if (wordsByURL.containsKey(url) && urlCache.isCached(url)) {
+                answered.add(url);
+            } else {
+                missing.add(url);
+            }
+        }
+        return new IndexLookup(getPostings(words, answered), answered, missing);
+    }
+
+    /**
+     * Split a query into distinct terms on whitespace
+     *
+     * @param query The query (normalized/lowercase)
+     * @return Distinct terms in query order
+     */
+    public static List<String> splitTerms(String query) {
+        Set<String> terms = new LinkedHashSet<>();
+        if (query != null) {
+            for (String term : query.trim().split("\\s+")) {
+                if (!term.isEmpty()) {
+                    terms.add(term);
+                }
+            }
+        }
+        return new ArrayList<>(terms);
+    }
+
+    /**
+     * Terms answerable from postings
+     *
+     * @param terms Query terms
+     * @return Single-token terms
+     */
+    public static List<String> tokenTerms(List<String> terms) {
+        List<String> result = new ArrayList<>();
+        for (String term : terms) {
+            if (isSingleToken(term)) {
+                result.add(term);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Build one automaton for the terms that need a text scan
+     *
+     * @param terms Query terms
+     * @return Automaton for the multi-token terms, or null if there are none
+     */
+    public static AhoCorasick buildScanner(List<String> terms) {
+        List<String> scanTerms = new ArrayList<>();
+        for (String term : terms) {
+            if (!isSingleToken(term)) {
+                scanTerms.add(term);
+            }
+        }
+        return scanTerms.isEmpty() ? null : new AhoCorasick(scanTerms);
+    }
+
+    /**
+     * Check if a keyword is a single token, i.e. answerable from postings
+     *
+     * @param keyword The keyword
+     * @return true if it contains only letters and digits
+     */
+    public static boolean isSingleToken(String keyword) {
+        if (keyword == null || keyword.isEmpty()) {
+            return false;
+        }
+        for (int i = 0; i < keyword.length(); i++) {
+            if (!Character.isLetterOrDigit(keyword.charAt(i))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Get number of indexed pages
+     *
+     * @return Page count
+     */
+    public synchronized int getIndexedPageCount() {
+        return wordsByURL.size();
+    }
+
+    /**
+     * Clear the whole index
+     */
+    public synchronized void clear() {
+        invertedIndex.clear();
+        wordsByURL.clear();
+        uncachedURLs.clear();
+    }
+
+    /**
+     * Replace a page's postings with the given word counts (caller holds this)
+     */
+    private void replacePostings(String url, Map<String, Integer> counts) {
+        Set<String> previous = wordsByURL.remove(url);
+        if (previous != null) {
+            invertedIndex.removeURL(url, previous);
+        }
+
+        for (Map.Entry<String, Integer> entry : counts.entrySet()) {
+            invertedIndex.addEntry(entry.getKey(), url, entry.getValue());
+        }
+        wordsByURL.put(url, new HashSet<>(counts.keySet()));
+        uncachedURLs.remove(url);
+    }
+
+    /**
+     * Feed the autocomplete/spell-check vocabulary (3+ characters)
+     */
+    private void addToDictionary(Set<String> words) {
+        List<String> dictionaryWords = new ArrayList<>();
+        for (String word : words) {
+            if (word.length() >= 3) {
+                dictionaryWords.add(word);
+            }
+        }
+        wordDictionary.addWords(dictionaryWords);
+    }
+
+    /**
+     * Remember a page indexed outside the cache, dropping the oldest beyond MAX_UNCACHED_PAGES
+     */
+    private synchronized void trackUncached(String url) {
+        uncachedURLs.add(url);
+        if (uncachedURLs.size() > MAX_UNCACHED_PAGES) {
+            removePage(uncachedURLs.iterator().next());
+        }
+    }
+
+    /**
+     * Count occurrences of each token (run of letters/digits, lower-cased) in one pass
+     */
+    private static Map<String, Integer> countWords(String content) {
+        Map<String, Integer> counts = new HashMap<>();
+        if (content == null || content.isEmpty()) {
+            return counts;
+        }
+
+        String text = content.toLowerCase();
+        int length = text.length();
+        int i = 0;
+        while (i < length) {
+            while (i < length && !Character.isLetterOrDigit(text.charAt(i))) {
+                i++;
+            }
+            int start = i;
+            while (i < length && Character.isLetterOrDigit(text.charAt(i))) {
+                i++;
+            }
+            if (i > start) {
+                counts.merge(text.substring(start, i), 1, Integer::sum);
+            }
+        }
+
+        return counts;
+    }
+
+    /**
+     * Result of lookup: postings for the URLs answered from the index, and the rest
+     */
+    public static class IndexLookup {
+        private final Map<String, Integer> postings;
+        private final Set<String> answeredURLs;
+        private final List<String> missingURLs;
+
+        IndexLookup(Map<String, Integer> postings, Set<String> answeredURLs, List<String> missingURLs) {
+            this.postings = postings;
+            this.answeredURLs = answeredURLs;
+            this.missingURLs = missingURLs;
+        }
+
+        public Map<String, Integer> getPostings() {
+            return postings;
+        }
+
+        public Set<String> getAnsweredURLs() {
+            return answeredURLs;
+        }
+
+        public List<String> getMissingURLs() {
+            return missingURLs;
+        }
+    }
+}
@@ -0,0 +1,260 @@
+package com.farhan.theatrecraft.core.service;
+
+import com.farhan.theatrecraft.core.model.Product;
+import com.farhan.theatrecraft.core.search.AhoCorasick;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.net.URI;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.function.ToIntFunction;
+
+/**
+ * Parallel page fetching pipeline for keyword analysis
+ * Fetches product pages on virtual threads with a per-host concurrency cap
+ * and an overall deadline. Each page is tokenized into the corpus index as
+ * soon as it arrives and, for a keyword query, counted right then. Pages
+ * still loading at the deadline are reported as timed out and the caller
+ * works with the partial set; their fetches are left to finish in the
+ * background so the page is cached for the next request.
+ */
+@Component
+public class PageFetchPipeline {
+
+    @Autowired
+    private PageCorpusIndex corpusIndex;
+
+    private final int maxPerHost;
+    private final long deadlineMillis;
+
+    // fetchOne results other than an occurrence count
+    private static final int FAILED = -1;
+    private static final int TIMED_OUT = -2; // Still waiting for its host permit at the deadline
+
+    // host -> permits for concurrent fetches against that host
+    private final Map<String, Semaphore> hostPermits;
+
+    public PageFetchPipeline(
+            @Value("${theatrecraft.page-fetch.max-per-host:4}") int maxPerHost,
+            @Value("${theatrecraft.page-fetch.deadline-seconds:60}") long deadlineSeconds) {
+        this.maxPerHost = maxPerHost;
+        this.deadlineMillis = TimeUnit.SECONDS.toMillis(deadlineSeconds);
+        this.hostPermits = new ConcurrentHashMap<>();
+    }
+
+    /**
+     * Fetch and index all URLs in parallel
+     *
+     * @param urls The page URLs
+     * @return FetchReport with indexed, failed and timed-out URLs
+     */
+    public FetchReport fetchAndIndex(Collection<String> urls) {
+        return run(urls, url -> corpusIndex.ensureIndexed(url) ? 0 : FAILED);
+    }
+
+    /**
+     * Count whole-word occurrences of a query on each page
+     * Single-token terms are answered from corpus postings for every page that is
+     * already indexed and fresh, so a warm query is one posting-list lookup; only
+     * the remaining pages are fetched, and each is counted as it is indexed (so a
+     * page the cache evicts later in the query still counts). Multi-token terms
+     * need each page's text, so a query with any of them scans every page in one
+     * Aho-Corasick pass. Counts are summed over terms, and only pages that
+     * finished before the deadline count.
+     *
+     * @param query The query (normalized/lowercase), terms separated by whitespace
+     * @param urls The page URLs
+     * @return FetchReport whose occurrences map URL -> count for URLs with at least one occurrence
+     */
+    public FetchReport findOccurrences(String query, Collection<String> urls) {
+        List<String> terms = PageCorpusIndex.splitTerms(query);
+        List<String> tokenTerms = PageCorpusIndex.tokenTerms(terms);
+        AhoCorasick automaton = PageCorpusIndex.buildScanner(terms);
+
+        if (automaton != null) {
+            return run(urls, url -> corpusIndex.countOccurrences(url, tokenTerms, automaton));
+        }
+
+        PageCorpusIndex.IndexLookup lookup = corpusIndex.lookup(tokenTerms, new LinkedHashSet<>(urls));
+        if (lookup.getMissingURLs().isEmpty()) {
+            return new FetchReport(lookup.getAnsweredURLs(), 0, 0, lookup.getPostings());
+        }
+
+        FetchReport fetched = run(lookup.getMissingURLs(), url -> corpusIndex.countOccurrences(url, tokenTerms, null));
+        Set<String> indexedURLs = new HashSet<>(lookup.getAnsweredURLs());
+        indexedURLs.addAll(fetched.getIndexedURLs());
+        Map<String, Integer> occurrences = new HashMap<>(lookup.getPostings());
+        occurrences.putAll(fetched.getOccurrences());
+        return new FetchReport(indexedURLs, fetched.getFailedCount(), fetched.getTimedOutCount(), occurrences);
+    }
+
+    /**
+     * Run a page task for every URL in parallel, up to the deadline
+     *
+     * @param urls The page URLs
+     * @param pageTask Fetches and indexes one page; returns its occurrence count, or -1 if unavailable
+     * @return FetchReport with the pages that finished in time and their non-zero counts
+     */
+    private FetchReport run(Collection<String> urls, ToIntFunction<String> pageTask) {
+        long deadline = System.currentTimeMillis() + deadlineMillis;
+
+        Set<String> indexedURLs = new HashSet<>();
+        Map<String, Integer> occurrences = new HashMap<>();
+
+        ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+        try {
+            Map<String, Future<Integer>> futures = new LinkedHashMap<>();
+            for (String url : new LinkedHashSet<>(urls)) {
+                futures.put(url, executor.submit(() -> fetchOne(url, deadline, pageTask)));
+            }
+
+            // Each page is counted once, by the outcome it had at the deadline
+            int failed = 0;
+            int timedOut = 0;
+            Iterator<Map.Entry<String, Future<Integer>>> pending = futures.entrySet().iterator();
+            while (pending.hasNext()) {
+                Map.Entry<String, Future<Integer>> entry = pending.next();
+                long remaining = deadline - System.currentTimeMillis();
+                try {
+                    int occurrenceCount = entry.getValue().get(Math.max(0, remaining), TimeUnit.MILLISECONDS);
+                    if (occurrenceCount == TIMED_OUT) {
+                        timedOut++;
+                    } else if (occurrenceCount == FAILED) {
+                        failed++;
+                    } else {
+                        indexedURLs.add(entry.getKey());
+                        if (occurrenceCount > 0) {
+                            occurrences.put(entry.getKey(), occurrenceCount);
+                        }
+                    }
+                } catch (TimeoutException e) {
+                    // Not cancelled: interrupting the fetch would only throw the page away
+                    timedOut++;
+                } catch (ExecutionException e) {
+                    // fetchOne handles its own errors; treat anything else as a failure
+                    System.err.println("PageFetchPipeline: Page task failed - " + e.getCause());
+                    failed++;
+                } catch (InterruptedException e) {
+                    // Caller gave up: this page and all uncollected ones are cut short
+                    Thread.currentThread().interrupt();
+                    entry.getValue().cancel(true);
+                    timedOut++;
+                    while (pending.hasNext()) {
+                        pending.next().getValue().cancel(true);
+                        timedOut++;
+                    }
+                }
+            }
+
+            if (timedOut > 0) {
+                System.out.println("PageFetchPipeline: Deadline reached, " + timedOut + " pages still loading");
+            }
+
+            // Only count pages that finished before the deadline
+            return new FetchReport(indexedURLs, failed, timedOut, occurrences);
+        } finally {
+            // Stragglers keep running (not interrupted) and only warm the cache and index
+            executor.shutdown();
+        }
+    }
+
+    /**
+     * Product page URLs worth fetching (skips missing and placeholder URLs)
+     *
+     * @param products The products
+     * @return Their page URLs
+     */
+    public static List<String> pageURLs(List<Product> products) {
+        List<String> urls = new ArrayList<>();
+        for (Product product : products) {
+            String url = product.getProductUrl();
+            if (url == null || url.isEmpty() || url.equals("https://example.com/product")) {
+                continue; // Skip invalid URLs
+            }
+            urls.add(url);
+        }
+        return urls;
+    }
+
+    /**
+     * Run the page task for one URL under its host permit
+     * A page still waiting for its host permit at the deadline is timed out, not failed.
+     *
+     * @return The page's occurrence count, FAILED or TIMED_OUT
+     */
+    private int fetchOne(String url, long deadline, ToIntFunction<String> pageTask) {
+        Semaphore permits = hostPermits.computeIfAbsent(hostOf(url), h -> new Semaphore(maxPerHost));
+
+        try {
+            long remaining = deadline - System.currentTimeMillis();
+            if (!permits.tryAcquire(Math.max(0, remaining), TimeUnit.MILLISECONDS)) {
+                return TIMED_OUT;
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return FAILED;
+        }
+
+        try {
+            return Math.max(FAILED, pageTask.applyAsInt(url));
+        } catch (Exception e) {
+            System.err.println("PageFetchPipeline: Error processing " + url + " - " + e.getMessage());
+            return FAILED;
+        } finally {
+            permits.release();
+        }
+    }
+
+    private static String hostOf(String url) {
+        try {
+            String host = URI.create(url).getHost();
+            return host != null ? host : url;
+        } catch (IllegalArgumentException e) {
+            return url;
+        }
+    }
+
+    /**
+     * Outcome of a pipeline run
+     */
+    public static class FetchReport {
+        private final Set<String> indexedURLs;
+        private final int failedCount;
+        private final int timedOutCount;
+        private final Map<String, Integer> occurrences; // Set by findOccurrences, else empty
+
+        public FetchReport(Set<String> indexedURLs, int failedCount, int timedOutCount) {
+            this(indexedURLs, failedCount, timedOutCount, Collections.emptyMap());
+        }
+
+        public FetchReport(Set<String> indexedURLs, int failedCount, int timedOutCount,
+                           Map<String, Integer> occurrences) {
+            this.indexedURLs = indexedURLs;
+            this.failedCount = failedCount;
+            this.timedOutCount = timedOutCount;
+            this.occurrences = occurrences;
+        }
+
+        public Set<String> getIndexedURLs() {
+            return indexedURLs;
+        }
+
+        public int getFailedCount() {
+            return failedCount;
+        }
+
+        public int getTimedOutCount() {
+            return timedOutCount;
+        }
+
+        public Map<String, Integer> getOccurrences() {
+            return occurrences;
+        }
+
+        public boolean isPartial() {
+            return timedOutCount > 0;
+        }
+    }
+}
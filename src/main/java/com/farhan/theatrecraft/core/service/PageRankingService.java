@@ -1,19 +1,17 @@
 package com.farhan.theatrecraft.core.service;
 
-import com.farhan.theatrecraft.core.model.Product;
 import com.farhan.theatrecraft.core.search.*;
 import com.farhan.theatrecraft.core.storage.ProductCsvRepository;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 
 import java.util.*;
-import java.util.regex.Pattern;
-import java.util.stream.Collectors;
 
 /**
  * Page Ranking Service
  * Searches for keywords in product URLs and ranks them by occurrence count
- * Uses Boyer-Moore algorithm, Jsoup for fetching, and Min Heap for sorting
+ * Uses the shared page corpus index (postings for single words, an Aho-Corasick scan for multi-token
+ * terms) through the fetch pipeline, Jsoup for fetching, and Min Heap for sorting
  */
 @Service
 public class PageRankingService {
@@ -24,19 +22,18 @@ public class PageRankingService {
     @Autowired
     private URLContentCache urlCache;
     
-    private final WordTrie wordTrie;
-    private final InvertedIndex invertedIndex;
+    @Autowired
+    private URLWordDictionary wordDictionary;
     
-    // Pattern to split text into words (alphanumeric sequences)
-    private static final Pattern WORD_PATTERN = Pattern.compile("\\w+");
+    @Autowired
+    private PageCorpusIndex corpusIndex;
     
-    public PageRankingService() {
-        this.wordTrie = new WordTrie();
-        this.invertedIndex = new InvertedIndex();
-    }
+    @Autowired
+    private PageFetchPipeline fetchPipeline;
     
     /**
      * Search for a keyword across all product URLs
+     * Multi-term queries (e.g. "dolby atmos wifi") rank by the summed occurrences of all terms
      * Returns top 10 URLs ranked by occurrence count
      * 
      * @param keyword The keyword to search for
@@ -50,11 +47,11 @@ public class PageRankingService {
         
         String normalizedKeyword = keyword.trim().toLowerCase();
         
-        // Build inverted index for this keyword on-demand
-        buildIndexForKeyword(normalizedKeyword);
+        // Look up keyword occurrences in the shared corpus index
+        PageFetchPipeline.FetchReport report = findKeywordOccurrences(normalizedKeyword);
         
         // Get top 10 URLs using Min Heap
-        List<InvertedIndex.URLOccurrence> topURLs = invertedIndex.getTopURLsWithHeap(normalizedKeyword, 10);
+        List<InvertedIndex.URLOccurrence> topURLs = InvertedIndex.getTopURLsWithHeap(report.getOccurrences(), 10);
         
         if (topURLs.isEmpty()) {
             // No results - try spell checker
@@ -63,84 +60,30 @@ public class PageRankingService {
                 "No results found. Did you mean:");
         }
         
-        return new PageRankingResult(true, topURLs, Collections.emptyList(), 
-            "Found " + topURLs.size() + " results");
-    }
-    
-    /**
-     * Build inverted index for a specific keyword
-     * Fetches all product URLs, searches for keyword using Boyer-Moore
-     * 
-     * @param keyword The keyword to index (should be normalized)
-     */
-    private void buildIndexForKeyword(String keyword) {
-        List<Product> products = productRepository.loadAll();
-        
-        System.out.println("PageRankingService: Building index for keyword '" + keyword + "' across " + products.size() + " products");
-        
-        // Clear previous index for this keyword
-        invertedIndex.clear();
-        
-        int successCount = 0;
-        int failCount = 0;
-        
-        for (Product product : products) {
-            String url = product.getProductUrl();
-            
-            if (url == null || url.isEmpty() || url.equals("https://example.com/product")) {
-                continue; // Skip invalid URLs
-            }
-            
-            try {
-                // Fetch URL content from cache or web
-                String content = urlCache.getContent(url);
-                
-                if (content == null) {
-                    failCount++;
-                    continue; // Skip failed fetches
-                }
-                
-                // Extract words and build Trie (for autocomplete/spell-check)
-                extractAndIndexWords(content);
-                
-                // Search for keyword as whole word using Boyer-Moore
-                int occurrenceCount = BoyerMoore.countWholeWordOccurrences(content, keyword);
-                
-                if (occurrenceCount > 0) {
-                    // Add to inverted index
-                    invertedIndex.addEntry(keyword, url, occurrenceCount);
-                    successCount++;
-                }
-                
-            } catch (Exception e) {
-                System.err.println("PageRankingService: Error processing " + url + " - " + e.getMessage());
-                failCount++;
-            }
+        String message = "Found " + topURLs.size() + " results";
+        if (report.isPartial()) {
+            message += " (partial: " + report.getTimedOutCount() + " pages still loading)";
         }
-        
-        System.out.println("PageRankingService: Index built. Success: " + successCount + ", Failed: " + failCount);
+        return new PageRankingResult(true, topURLs, Collections.emptyList(), message);
     }
     
     /**
-     * Extract words from text content and add to Trie
-     * Used for autocomplete and spell-check dictionary
+     * Find occurrences of a keyword across all product URLs
+     * Pages are fetched in parallel and tokenized into the corpus index when they enter the cache
      * 
-     * @param content Text content to extract words from
+     * @param keyword The keyword to look up (should be normalized)
+     * @return FetchReport with URL -> occurrence count and the failed and timed-out pages
      */
-    private void extractAndIndexWords(String content) {
-        if (content == null || content.isEmpty()) {
-            return;
-        }
+    private PageFetchPipeline.FetchReport findKeywordOccurrences(String keyword) {
+        List<String> urls = PageFetchPipeline.pageURLs(productRepository.loadAll());
         
-        // Split content into words (alphanumeric sequences)
-        String[] words = content.toLowerCase().split("\\W+");
+        System.out.println("PageRankingService: Looking up keyword '" + keyword + "' across " + urls.size() + " product pages");
         
-        for (String word : words) {
-            // Only index words with 3+ characters (autocomplete minimum)
-            if (word.length() >= 3) {
-                wordTrie.insert(word);
-            }
-        }
+        PageFetchPipeline.FetchReport report = fetchPipeline.findOccurrences(keyword, urls);
+        
+        System.out.println("PageRankingService: Lookup done. Success: " + report.getOccurrences().size() + ", Failed: " + report.getFailedCount()
+            + ", Timed out: " + report.getTimedOutCount());
+        return report;
     }
     
     /**
@@ -154,37 +97,19 @@ public class PageRankingService {
             return Collections.emptyList();
         }
         
-        return wordTrie.searchByPrefix(prefix, 3, 5);
+        return wordDictionary.autocomplete(prefix, 3, 5);
     }
     
     /**
-     * Get spell check suggestions using edit distance
-     * Returns top N closest words from Trie
+     * Get spell check suggestions from the shared Symmetric Delete index
+     * Returns up to N closest words within edit distance 2 (per misspelled term for multi-term queries)
      * 
      * @param query The search query
      * @param maxSuggestions Maximum number of suggestions (typically 3)
      * @return List of suggested words
      */
     private List<String> getSpellCheckSuggestions(String query, int maxSuggestions) {
-        List<String> allWords = wordTrie.getAllWords();
-        
-        if (allWords.isEmpty()) {
-            return Collections.emptyList();
-        }
-        
-        // Calculate edit distance for each word
-        List<WordDistance> distances = new ArrayList<>();
-        for (String word : allWords) {
-            int distance = EditDistance.calculate(query, word);
-            distances.add(new WordDistance(word, distance));
-        }
-        
-        // Sort by distance and return top N
-        return distances.stream()
-                .sorted(Comparator.comparingInt(WordDistance::getDistance))
-                .limit(maxSuggestions)
-                .map(WordDistance::getWord)
-                .collect(Collectors.toList());
+        return wordDictionary.getQuerySuggestions(PageCorpusIndex.splitTerms(query), maxSuggestions);
     }
     
     /**
@@ -193,37 +118,25 @@ public class PageRankingService {
      * @return Number of words in Trie
      */
     public int getTrieSize() {
-        return wordTrie.size();
+        return wordDictionary.size();
     }
     
     /**
-     * Clear cache (for testing/debugging)
+     * Heap footprint of the shared word Trie (for debugging)
+     * 
+     * @return backend, word count and estimated bytes
      */
-    public void clearCache() {
-        urlCache.clearCache();
-        invertedIndex.clear();
-        wordTrie.clear();
+    public Map<String, Object> getTrieFootprint() {
+        return wordDictionary.getFootprint();
     }
     
     /**
-     * Helper class for word with edit distance
+     * Clear cache (for testing/debugging)
      */
-    private static class WordDistance {
-        private final String word;
-        private final int distance;
-        
-        WordDistance(String word, int distance) {
-            this.word = word;
-            this.distance = distance;
-        }
-        
-        String getWord() {
-            return word;
-        }
-        
-        int getDistance() {
-            return distance;
-        }
+    public void clearCache() {
+        urlCache.clearCache();
+        corpusIndex.clear();
+        wordDictionary.clear();
     }
     
     /**
@@ -0,0 +1,86 @@
+package com.farhan.theatrecraft.core.service;
+
+import com.farhan.theatrecraft.core.model.Product;
+import com.farhan.theatrecraft.core.search.BKTree;
+import com.farhan.theatrecraft.core.search.Trie;
+
+import java.util.*;
+
+/**
+ * Immutable product search state: catalog, autocomplete Trie, exact-match
+ * name index and spell-check BK-Tree, always built and published together.
+ * SearchService builds a new snapshot off to the side on reload and swaps a
+ * single volatile reference, so a request that reads the reference once sees
+ * one consistent catalog and never a half-built one.
+ * (The Trie's ranked completions still move as search counts grow; that is
+ * the only state changed after publication.)
+ */
+final class SearchIndexSnapshot {
+
+    static final SearchIndexSnapshot EMPTY =
+            new SearchIndexSnapshot(Collections.emptyList(), new Trie(), Collections.emptyMap(), new BKTree());
+
+    private final List<Product> products;
+    private final Trie trie;
+    private final Map<String, Product> productsByName; // normalized model name -> Product for O(1) exact match
+    private final BKTree spellCheckTree; // BK-Tree over product names for "Did you mean"
+
+    private SearchIndexSnapshot(List<Product> products, Trie trie, Map<String, Product> productsByName,
+                                BKTree spellCheckTree) {
+        this.products = products;
+        this.trie = trie;
+        this.productsByName = productsByName;
+        this.spellCheckTree = spellCheckTree;
+    }
+
+    /**
+     * Build every search structure for a catalog
+     *
+     * @param products Products to index
+     * @param trie A new, empty Trie (configured ranking/backend)
+     * @return The snapshot, ready to publish
+     */
+    static SearchIndexSnapshot build(List<Product> products, Trie trie) {
+        Map<String, Product> nameIndex = new HashMap<>();
+        BKTree nameTree = new BKTree();
+
+        for (Product product : products) {
+            if (product.getModelName() != null && !product.getModelName().isEmpty()) {
+                trie.insert(product.getModelName(), product);
+                // Keep the first product for a name, matching the old linear scan order
+                nameIndex.putIfAbsent(normalizeName(product.getModelName()), product);
+                nameTree.insert(product.getModelName());
+            }
+        }
+
+        return new SearchIndexSnapshot(Collections.unmodifiableList(new ArrayList<>(products)), trie,
+                Collections.unmodifiableMap(nameIndex), nameTree);
+    }
+
+    /**
+     * Normalize a product name into its name index key (same rules as KMPSearch.exactMatch)
+     */
+    static String normalizeName(String name) {
+        return name.trim().toLowerCase(Locale.ROOT);
+    }
+
+    List<Product> getProducts() {
+        return products;
+    }
+
+    Trie getTrie() {
+        return trie;
+    }
+
+    Product findByName(String name) {
+        return productsByName.get(normalizeName(name));
+    }
+
+    int getNameCount() {
+        return productsByName.size();
+    }
+
+    BKTree getSpellCheckTree() {
+        return spellCheckTree;
+    }
+}
@@ -3,68 +3,223 @@ package com.farhan.theatrecraft.core.service;
 import com.farhan.theatrecraft.core.model.Product;
 import com.farhan.theatrecraft.core.search.*;
 import com.farhan.theatrecraft.core.storage.ProductCsvRepository;
+import com.farhan.theatrecraft.core.storage.SearchFrequencyCsvRepository;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
-import java.io.*;
-import java.nio.file.*;
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
 import java.util.stream.Collectors;
 
 @Service
 public class SearchService {
     
-    private final Trie trie;
-    private final Map<String, Integer> searchFrequency; // HashMap for frequency tracking
+    private final String autocompleteRanking;
+    private final Comparator<Product> autocompleteOrder; // null when ranking is "none"
+    private final int autocompleteTopK;
+    private final boolean compactTrie;
+    private final ConcurrentHashMap<String, LongAdder> searchFrequency; // Striped counters, safe under concurrent searches (exact mode only)
+    private final TopKLeaderboard leaderboard; // Top searches, refreshed in batches from the counters
+    private final Set<String> dirtyTerms; // Names counted since the last ranking refresh
+    private final Object refreshLock;
     private final ProductCsvRepository productRepository;
-    private final String frequencyFilePath = "search_frequency.csv";
-    private List<Product> allProducts;
+    private final SearchFrequencyCsvRepository frequencyRepository;
+    // Catalog + Trie + name index + BK-Tree, replaced as a whole on reload; read it once per request
+    private volatile SearchIndexSnapshot index;
+    private final Object reloadLock;
 
-    public SearchService(ProductCsvRepository productRepository) {
+    // Write-behind persistence: increments only touch memory, a background flusher saves the CSV
+    private final boolean writeBehind;
+    private final int flushAfterUpdates; // <= 0: flush on the interval only
+    private final AtomicInteger pendingUpdates;
+    private final AtomicBoolean flushQueued; // A threshold flush is waiting on the worker
+    private final Object flushLock;
+    private final ScheduledExecutorService frequencyWorker; // Ranking refresh, plus CSV flushes in write-behind mode
+
+    // Approximate mode: every raw query goes into fixed-size, thread-safe structures
+    // and no exact counters are kept (null in exact mode)
+    private final CountMinSketch querySketch; // Point estimates for any query, lock-free
+    private final StripedSpaceSaving queryHeavyHitters; // Most frequent queries for getTopSearches
+
+    public SearchService(ProductCsvRepository productRepository,
+                         SearchFrequencyCsvRepository frequencyRepository,
+                         @Value("${theatrecraft.search-frequency.write-behind:true}") boolean writeBehind,
+                         @Value("${theatrecraft.search-frequency.flush-interval-seconds:5}") long flushIntervalSeconds,
+                         @Value("${theatrecraft.search-frequency.flush-after-updates:50}") int flushAfterUpdates,
+                         @Value("${theatrecraft.search-frequency.leaderboard-size:100}") int leaderboardSize,
+                         @Value("${theatrecraft.search-frequency.ranking-refresh-millis:500}") long rankingRefreshMillis,
+                         @Value("${theatrecraft.search-frequency.mode:exact}") String mode,
+                         @Value("${theatrecraft.search-frequency.sketch-width:2719}") int sketchWidth,
+                         @Value("${theatrecraft.search-frequency.sketch-depth:5}") int sketchDepth,
+                         @Value("${theatrecraft.search-frequency.heavy-hitters:200}") int heavyHitterCapacity,
+                         @Value("${theatrecraft.autocomplete.ranking:frequency}") String autocompleteRanking,
+                         @Value("${theatrecraft.autocomplete.top-k:5}") int autocompleteTopK,
+                         @Value("${theatrecraft.trie.backend:compact}") String trieBackend) {
         this.productRepository = productRepository;
-        this.trie = new Trie();
-        this.searchFrequency = new HashMap<>();
-        this.allProducts = new ArrayList<>();
+        this.frequencyRepository = frequencyRepository;
+        this.writeBehind = writeBehind;
+        this.flushAfterUpdates = flushAfterUpdates;
+        this.pendingUpdates = new AtomicInteger();
+        this.flushQueued = new AtomicBoolean();
+        this.flushLock = new Object();
+        this.autocompleteRanking = autocompleteRanking.trim().toLowerCase(Locale.ROOT);
+        this.autocompleteOrder = buildAutocompleteRanking(this.autocompleteRanking);
+        this.autocompleteTopK = Math.max(1, autocompleteTopK);
+        this.compactTrie = "compact".equalsIgnoreCase(trieBackend);
+        this.searchFrequency = new ConcurrentHashMap<>();
+        this.leaderboard = new TopKLeaderboard(leaderboardSize);
+        this.dirtyTerms = ConcurrentHashMap.newKeySet();
+        this.refreshLock = new Object();
+        this.index = SearchIndexSnapshot.EMPTY;
+        this.reloadLock = new Object();
+        if ("approximate".equalsIgnoreCase(mode)) {
+            this.querySketch = new CountMinSketch(sketchWidth, sketchDepth);
+            this.queryHeavyHitters = new StripedSpaceSaving(heavyHitterCapacity);
+            System.out.println("SearchService: Approximate frequency mode (sketch " + sketchWidth + "x" + sketchDepth +
+                ", " + heavyHitterCapacity + " heavy hitters)");
+        } else {
+            this.querySketch = null;
+            this.queryHeavyHitters = null;
+        }
         
-        // Initialize on startup
-        loadProducts();
+        // Initialize on startup (frequencies first: they rank the trie's completions)
         loadSearchFrequency();
+        loadProducts();
+
+        this.frequencyWorker = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "search-frequency-worker");
+            thread.setDaemon(true);
+            return thread;
+        });
+        // The executor rejects a delay of 0 or less; fall back to the shortest one rather than fail startup
+        long refreshMillis = positiveInterval("ranking-refresh-millis", rankingRefreshMillis);
+        frequencyWorker.scheduleWithFixedDelay(this::refreshRankings,
+                refreshMillis, refreshMillis, TimeUnit.MILLISECONDS);
+        if (writeBehind) {
+            long flushSeconds = positiveInterval("flush-interval-seconds", flushIntervalSeconds);
+            frequencyWorker.scheduleWithFixedDelay(this::flushSearchFrequency,
+                    flushSeconds, flushSeconds, TimeUnit.SECONDS);
+        }
+    }
+
+    private static long positiveInterval(String property, long value) {
+        if (value > 0) {
+            return value;
+        }
+        System.err.println("SearchService: theatrecraft.search-frequency." + property + "=" + value +
+            " must be positive; using 1");
+        return 1;
     }
 
     /**
-     * Load all products and build the Trie
+     * Stop the background worker and write any pending counts
      */
-    private void loadProducts() {
-        allProducts = productRepository.loadAll();
-        
-        // Build Trie with product names
-        for (Product product : allProducts) {
-            if (product.getModelName() != null && !product.getModelName().isEmpty()) {
-                trie.insert(product.getModelName(), product);
-            }
+    @PreDestroy
+    public void shutdown() {
+        frequencyWorker.shutdown();
+        try {
+            frequencyWorker.awaitTermination(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
         }
+        flushSearchFrequency();
+    }
+
+    /**
+     * Load all products and build the Trie, the exact-match name index and the spell-check BK-Tree
+     * The new structures are built off to the side and published with one volatile write,
+     * so searches keep using the previous catalog until the new one is complete
+     */
+    private void loadProducts() {
+        List<Product> products = productRepository.loadAll();
+        Trie trie = new Trie(autocompleteOrder, autocompleteTopK, compactTrie);
+        SearchIndexSnapshot snapshot = SearchIndexSnapshot.build(products, trie);
+        index = snapshot;
         
-        System.out.println("SearchService: Loaded " + allProducts.size() + " products into Trie");
+        System.out.println("SearchService: Loaded " + snapshot.getProducts().size() + " products into Trie (" +
+            trie.getBackend() + ", ~" + trie.estimateHeapBytes() / 1024 + " KB)");
     }
 
     /**
      * Reload products (call this after crawling new data)
+     * Concurrent reloads are serialized; searches are never blocked
      */
     public void reloadProducts() {
-        allProducts.clear();
-        loadProducts();
+        synchronized (reloadLock) {
+            loadProducts();
+        }
     }
 
     /**
-     * Autocomplete - returns up to 5 suggestions when input length >= 3
+     * Product order for ranked autocomplete (best first), or null for unranked
+     * frequency: most searched; rating: highest rated; price: cheapest. Ties go by name.
+     */
+    private Comparator<Product> buildAutocompleteRanking(String ranking) {
+        Comparator<Product> byName = Comparator.comparing(Product::getModelName,
+                Comparator.nullsLast(String.CASE_INSENSITIVE_ORDER));
+
+        switch (ranking) {
+            case "frequency":
+                return Comparator.comparingLong((Product p) -> getProductSearchCount(p)).reversed()
+                        .thenComparing(byName);
+            case "rating":
+                return Comparator.comparing(Product::getRating, Comparator.nullsLast(Comparator.<Double>reverseOrder()))
+                        .thenComparing(byName);
+            case "price":
+                return Comparator.comparing(Product::getPrice, Comparator.nullsLast(Comparator.<Double>naturalOrder()))
+                        .thenComparing(byName);
+            default:
+                return null; // "none": first matches in trie order
+        }
+    }
+
+    /**
+     * Search count of a product (0 if never searched); the sketch estimate in approximate mode
+     */
+    private long getProductSearchCount(Product product) {
+        if (product.getModelName() == null) {
+            return 0;
+        }
+        if (querySketch != null) {
+            return querySketch.estimate(normalizeQuery(product.getModelName()));
+        }
+        LongAdder counter = searchFrequency.get(product.getModelName().trim());
+        return counter == null ? 0 : counter.sum();
+    }
+
+    /**
+     * Heap footprint report for the product name Trie
+     */
+    public Map<String, Object> getTrieFootprint() {
+        SearchIndexSnapshot snapshot = index;
+        Trie trie = snapshot.getTrie();
+        Map<String, Object> report = new LinkedHashMap<>();
+        report.put("backend", trie.getBackend());
+        report.put("names", snapshot.getNameCount());
+        report.put("nodes", trie.getNodeCount());
+        report.put("estimatedBytes", trie.estimateHeapBytes());
+        return report;
+    }
+
+    /**
+     * Autocomplete - returns up to autocomplete.top-k suggestions when input length >= 3
+     * Ranked mode reads the precomputed completions of the prefix node
      */
     public AutocompleteResult autocomplete(String prefix) {
-        List<Product> suggestions = trie.searchByPrefix(prefix, 3, 5);
+        List<Product> suggestions = index.getTrie().searchByPrefix(prefix, 3, autocompleteTopK);
         return new AutocompleteResult(suggestions);
     }
 
     /**
-     * Main search method using KMP algorithm
-     * Returns exact match or suggestions
+     * Main search method
+     * Exact match is a hash lookup on the normalized name, otherwise returns suggestions
      */
     public SearchResult search(String query) {
         if (query == null || query.trim().isEmpty()) {
@@ -72,18 +227,19 @@ public class SearchService {
         }
 
         String normalizedQuery = query.trim();
+        recordQuery(normalizedQuery);
+        SearchIndexSnapshot snapshot = index; // One catalog for the whole request
 
-        // Step 1: Try exact match using KMP
-        for (Product product : allProducts) {
-            if (product.getModelName() != null && KMPSearch.exactMatch(product.getModelName(), normalizedQuery)) {
-                // Exact match found - increment frequency
-                incrementSearchFrequency(product.getModelName());
-                return new SearchResult(true, product, Collections.emptyList(), "Exact match found");
-            }
+        // Step 1: Try exact match using the name index
+        Product match = snapshot.findByName(normalizedQuery);
+        if (match != null) {
+            // Exact match found - increment frequency
+            incrementSearchFrequency(match.getModelName());
+            return new SearchResult(true, match, Collections.emptyList(), "Exact match found");
         }
 
         // Step 2: No exact match - try spell checker using Edit Distance
-        List<String> suggestions = getSpellCheckSuggestions(normalizedQuery, 3);
+        List<String> suggestions = getSpellCheckSuggestions(snapshot, normalizedQuery, 3);
         
         if (!suggestions.isEmpty()) {
             return new SearchResult(false, null, suggestions, "No exact match. Did you mean:");
@@ -102,53 +258,35 @@ public class SearchService {
             return null;
         }
 
+        recordQuery(productName);
+
         // Find exact match
-        for (Product product : allProducts) {
-            if (product.getModelName() != null && product.getModelName().equalsIgnoreCase(productName.trim())) {
-                // Increment frequency for successful selection
-                incrementSearchFrequency(product.getModelName());
-                return product;
-            }
+        Product product = index.findByName(productName);
+        if (product != null) {
+            // Increment frequency for successful selection
+            incrementSearchFrequency(product.getModelName());
         }
 
-        return null;
+        return product;
     }
 
     /**
-     * Get spell check suggestions using Trie and Edit Distance
+     * Get spell check suggestions using the BK-Tree over product names
      * Returns top N closest product names with minimum edit distance
      * NO CUTOFF - always returns the closest matches
      */
-    private List<String> getSpellCheckSuggestions(String query, int maxSuggestions) {
-        List<ProductDistance> distances = new ArrayList<>();
-        
-        // Get all products from Trie
-        List<Product> allTrieProducts = trie.getAllProducts();
+    private List<String> getSpellCheckSuggestions(SearchIndexSnapshot snapshot, String query, int maxSuggestions) {
+        // k-nearest search; the radius shrinks as closer names are found
+        List<BKTree.Match> matches = snapshot.getSpellCheckTree().findNearest(query, maxSuggestions, Integer.MAX_VALUE);
         
-        // Calculate edit distance for each product
-        for (Product product : allTrieProducts) {
-            if (product.getModelName() != null && !product.getModelName().isEmpty()) {
-                int distance = EditDistance.calculate(query.toLowerCase(), product.getModelName().toLowerCase());
-                distances.add(new ProductDistance(product.getModelName(), distance));
-            }
-        }
-        
-        // Sort by distance (closest first) and return top N
-        // NO CUTOFF - always return the closest matches regardless of distance
-        List<String> suggestions = distances.stream()
-                .sorted(Comparator.comparingInt(ProductDistance::getDistance))
-                .limit(maxSuggestions)
-                .map(ProductDistance::getProductName)
+        List<String> suggestions = matches.stream()
+                .map(BKTree.Match::getWord)
                 .collect(Collectors.toList());
         
         System.out.println("SearchService: Found " + suggestions.size() + " spell check suggestions for '" + query + "'");
-        if (!suggestions.isEmpty()) {
-            System.out.println("  Top suggestion: " + suggestions.get(0) + " (distance: " + 
-                distances.stream()
-                    .filter(pd -> pd.getProductName().equals(suggestions.get(0)))
-                    .findFirst()
-                    .map(ProductDistance::getDistance)
-                    .orElse(-1) + ")");
+        if (!matches.isEmpty()) {
+            System.out.println("  Top suggestion: " + matches.get(0).getWord() + " (distance: " + 
+                matches.get(0).getDistance() + ")");
         }
         
         return suggestions;
@@ -156,87 +294,233 @@ public class SearchService {
 
     /**
      * Increment search frequency for a product name
+     * Lock-free: a LongAdder spreads contention on hot keys across cells, and the
+     * name is only marked dirty; the leaderboard and the trie ranking pick up the
+     * new count in the next batched refresh instead of being locked per search.
+     * In write-behind mode the CSV is saved later by the worker (on its interval,
+     * or as soon as flushAfterUpdates increments are pending)
      */
     private void incrementSearchFrequency(String productName) {
         String normalized = productName.trim();
-        searchFrequency.put(normalized, searchFrequency.getOrDefault(normalized, 0) + 1);
-        saveSearchFrequency();
-        System.out.println("SearchService: Incremented frequency for '" + normalized + "' to " + searchFrequency.get(normalized));
+        if (querySketch != null) {
+            // Approximate mode: recordQuery already counted it; only the trie ranking needs to hear
+            markDirty(normalized);
+            return;
+        }
+
+        // Plain get first: computeIfAbsent would lock the bin on every hit of a hot key
+        LongAdder counter = searchFrequency.get(normalized);
+        if (counter == null) {
+            counter = searchFrequency.computeIfAbsent(normalized, key -> new LongAdder());
+        }
+        counter.increment();
+        markDirty(normalized);
+        countPendingUpdate();
+    }
+
+    /**
+     * Note one unsaved increment and save now (write-through) or queue a flush once
+     * flushAfterUpdates increments are pending
+     */
+    private void countPendingUpdate() {
+        int pending = pendingUpdates.incrementAndGet();
+        if (!writeBehind) {
+            flushSearchFrequency();
+        } else if (flushAfterUpdates > 0 && pending >= flushAfterUpdates && flushQueued.compareAndSet(false, true)) {
+            // >= rather than ==: a failed flush puts its count back, possibly past the threshold
+            frequencyWorker.execute(() -> {
+                flushQueued.set(false);
+                flushSearchFrequency();
+            });
+        }
     }
 
     /**
-     * Get top N most searched products
+     * Mark a name for the next ranking refresh
+     */
+    private void markDirty(String name) {
+        // contains() first: add() would lock the bin even when the name is already marked
+        if (!dirtyTerms.contains(name)) {
+            dirtyTerms.add(name);
+        }
+    }
+
+    /**
+     * Push the current counts of names searched since the last refresh into the
+     * leaderboard and, for frequency ranking, the trie's precomputed completions
+     * Runs on the worker every ranking-refresh-millis and before leaderboard reads,
+     * so only refreshes (never searches) take the leaderboard and trie locks
+     */
+    private void refreshRankings() {
+        if (dirtyTerms.isEmpty()) {
+            return;
+        }
+        synchronized (refreshLock) {
+            Trie trie = "frequency".equals(autocompleteRanking) ? index.getTrie() : null;
+            Iterator<String> terms = dirtyTerms.iterator();
+            while (terms.hasNext()) {
+                // Unmark before reading the count, so a concurrent increment marks it again
+                String term = terms.next();
+                terms.remove();
+                LongAdder counter = searchFrequency.get(term);
+                if (counter != null) {
+                    leaderboard.update(term, counter.sum());
+                }
+                if (trie != null) {
+                    trie.promote(term);
+                }
+            }
+        }
+    }
+
+    /**
+     * Get top N most searched products (raw queries in approximate mode)
+     * Served from the leaderboard snapshot (refreshed first); only limits beyond its size fall back to sorting all counters
      */
     public List<SearchFrequency> getTopSearches(int limit) {
-        return searchFrequency.entrySet().stream()
+        if (queryHeavyHitters != null) {
+            // Approximate mode: heavy hitters over raw queries (counts may overestimate, see getFrequencyStats)
+            return queryHeavyHitters.getTop(limit).stream()
+                    .map(hitter -> new SearchFrequency(hitter.getKey(), hitter.getCount()))
+                    .collect(Collectors.toList());
+        }
+
+        if (limit <= leaderboard.getCapacity()) {
+            refreshRankings(); // Cheap when nothing was searched since the last refresh
+            return leaderboard.getTop(limit);
+        }
+
+        return snapshotSearchFrequency().entrySet().stream()
                 .map(entry -> new SearchFrequency(entry.getKey(), entry.getValue()))
-                .sorted((a, b) -> Integer.compare(b.getCount(), a.getCount())) // Sort descending
+                .sorted((a, b) -> Long.compare(b.getCount(), a.getCount())) // Sort descending
                 .limit(limit)
                 .collect(Collectors.toList());
     }
 
     /**
-     * Load search frequency from CSV file
+     * Record a raw query in approximate mode (no-op in exact mode)
      */
-    private void loadSearchFrequency() {
-        File file = new File(frequencyFilePath);
-        if (!file.exists()) {
-            System.out.println("SearchService: No search frequency file found. Starting fresh.");
+    private void recordQuery(String query) {
+        if (querySketch == null) {
             return;
         }
+        // No shared lock: the sketch is lock-free and the heavy hitters lock only the key's stripe
+        String key = normalizeQuery(query);
+        querySketch.add(key);
+        queryHeavyHitters.add(key);
+        countPendingUpdate();
+    }
 
-        try (BufferedReader reader = new BufferedReader(new FileReader(file))) {
-            String line;
-            reader.readLine(); // Skip header
-            
-            while ((line = reader.readLine()) != null) {
-                String[] parts = line.split(",", 2);
-                if (parts.length == 2) {
-                    String productName = parts[0].trim();
-                    int count = Integer.parseInt(parts[1].trim());
-                    searchFrequency.put(productName, count);
-                }
-            }
-            
-            System.out.println("SearchService: Loaded " + searchFrequency.size() + " search frequencies");
-        } catch (Exception e) {
-            System.err.println("SearchService: Error loading search frequency: " + e.getMessage());
+    /**
+     * Normalize a raw query for approximate counting (case and whitespace insensitive)
+     */
+    private static String normalizeQuery(String query) {
+        return query.trim().replaceAll("\\s+", " ").toLowerCase(Locale.ROOT);
+    }
+
+    /**
+     * Get the search count of a query
+     * Exact mode: counter of a matched product name. Approximate mode: Count-Min
+     * estimate for any raw query (never below the true count)
+     */
+    public long estimateSearchFrequency(String query) {
+        if (query == null || query.trim().isEmpty()) {
+            return 0;
         }
+        if (querySketch != null) {
+            return querySketch.estimate(normalizeQuery(query));
+        }
+        LongAdder counter = searchFrequency.get(query.trim());
+        return counter == null ? 0 : counter.sum();
     }
 
     /**
-     * Save search frequency to CSV file
+     * Get the frequency tracking mode, memory use and current error bounds
      */
-    private void saveSearchFrequency() {
-        try (PrintWriter writer = new PrintWriter(new FileWriter(frequencyFilePath))) {
-            writer.println("productName,count");
-            
-            for (Map.Entry<String, Integer> entry : searchFrequency.entrySet()) {
-                writer.println(entry.getKey() + "," + entry.getValue());
+    public FrequencyTrackingStats getFrequencyStats() {
+        if (querySketch == null) {
+            long total = 0;
+            for (LongAdder counter : searchFrequency.values()) {
+                total += counter.sum();
             }
-        } catch (Exception e) {
-            System.err.println("SearchService: Error saving search frequency: " + e.getMessage());
+            return new FrequencyTrackingStats("exact", total, 0, 0, 0, 0, 0, 0, 0, 0);
         }
+
+        // Sketch table plus roughly 100 bytes per monitored heavy hitter
+        long memoryBytes = querySketch.getMemoryBytes() + 100L * queryHeavyHitters.getCapacity();
+        return new FrequencyTrackingStats("approximate", querySketch.getTotalCount(),
+            querySketch.getWidth(), querySketch.getDepth(), querySketch.getEpsilon(), querySketch.getDelta(),
+            querySketch.getErrorBound(), queryHeavyHitters.getCapacity(), queryHeavyHitters.getErrorBound(),
+            memoryBytes);
     }
 
     /**
-     * Helper class for storing product name with its edit distance
+     * Load search frequency from CSV file
+     * Approximate mode seeds the sketch and heavy hitters with the saved counts instead
      */
-    private static class ProductDistance {
-        private final String productName;
-        private final int distance;
+    private void loadSearchFrequency() {
+        Map<String, Long> counts = frequencyRepository.loadAll();
+        if (counts.isEmpty()) {
+            System.out.println("SearchService: No search frequencies found. Starting fresh.");
+            return;
+        }
+
+        if (querySketch != null) {
+            for (Map.Entry<String, Long> entry : counts.entrySet()) {
+                if (entry.getValue() > 0) {
+                    String key = normalizeQuery(entry.getKey());
+                    querySketch.add(key, entry.getValue());
+                    queryHeavyHitters.add(key, entry.getValue());
+                }
+            }
+            System.out.println("SearchService: Seeded sketch with " + counts.size() + " saved search frequencies");
+            return;
+        }
 
-        public ProductDistance(String productName, int distance) {
-            this.productName = productName;
-            this.distance = distance;
+        for (Map.Entry<String, Long> entry : counts.entrySet()) {
+            LongAdder counter = new LongAdder();
+            counter.add(entry.getValue());
+            searchFrequency.put(entry.getKey(), counter);
+            leaderboard.update(entry.getKey(), entry.getValue());
         }
+        System.out.println("SearchService: Loaded " + searchFrequency.size() + " search frequencies");
+    }
+
+    /**
+     * Save search frequency to CSV file if there are pending increments
+     * The file is replaced atomically; on failure the increments stay pending for the next flush
+     */
+    private void flushSearchFrequency() {
+        synchronized (flushLock) {
+            int pending = pendingUpdates.getAndSet(0);
+            if (pending == 0) {
+                return;
+            }
 
-        public String getProductName() {
-            return productName;
+            if (!frequencyRepository.saveAll(snapshotSearchFrequency())) {
+                pendingUpdates.addAndGet(pending);
+            }
         }
+    }
 
-        public int getDistance() {
-            return distance;
+    /**
+     * Point-in-time copy of the counters
+     * Iterating a ConcurrentHashMap never blocks writers; each sum() is a read of the adder's cells.
+     * In approximate mode this is the monitored heavy hitters (normalized queries and their
+     * estimated counts): the sketch cannot be enumerated, so queries outside the heavy
+     * hitters start from zero after a restart.
+     */
+    private Map<String, Long> snapshotSearchFrequency() {
+        Map<String, Long> snapshot = new HashMap<>();
+        if (queryHeavyHitters != null) {
+            for (SpaceSaving.HeavyHitter hitter : queryHeavyHitters.getTop(queryHeavyHitters.getCapacity())) {
+                snapshot.put(hitter.getKey(), hitter.getCount());
+            }
+            return snapshot;
+        }
+        for (Map.Entry<String, LongAdder> entry : searchFrequency.entrySet()) {
+            snapshot.put(entry.getKey(), entry.getValue().sum());
         }
+        return snapshot;
     }
 }
@@ -1,58 +1,191 @@
 package com.farhan.theatrecraft.core.service;
 
+import com.farhan.theatrecraft.core.storage.PageContentStore;
 import org.jsoup.Jsoup;
 import org.jsoup.nodes.Document;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 
-import java.util.HashMap;
+import java.nio.channels.ClosedByInterruptException;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
 
 /**
  * Cache for URL content to avoid redundant HTTP requests
  * Stores fetched HTML content and parsed text from product URLs
+ *
+ * Thread-safe and bounded by an approximate byte weight. Eviction follows
+ * W-TinyLFU: new entries land in a small LRU window; entries leaving the
+ * window are only admitted to the main LRU space if a frequency sketch says
+ * they are accessed more often than the main space's eviction victim.
+ * Entries expire after a TTL, and failed fetches (null content) after a
+ * shorter negative TTL so broken URLs are retried eventually.
+ * Concurrent misses for the same URL share a single in-flight fetch. A fetch
+ * whose thread is interrupted is not a failure: nothing is cached and any
+ * waiters fetch the page again.
+ * Fetched pages are also written to a disk-backed PageContentStore, which is
+ * consulted on a miss before going to the network, so restarts start warm.
+ * Listeners hear about every page that enters the cache and every page that
+ * leaves it (expiry, eviction, invalidation, clear), so derived data such as
+ * the corpus index follows the cache's TTL and size bound.
  */
 @Component
 public class URLContentCache {
-    
-    // Cache structure: URL -> CachedContent
+
+    // Cache structure: URL -> CachedContent (lock-free reads)
     private final Map<String, CachedContent> cache;
-    
+
     // Jsoup connection timeout (10 seconds)
     private static final int TIMEOUT_MS = 10000;
-    
-    public URLContentCache() {
-        this.cache = new HashMap<>();
+
+    // Share of the capacity given to the admission window
+    private static final double WINDOW_RATIO = 0.01;
+
+    // Rough page size used to size the frequency sketch
+    private static final int AVERAGE_ENTRY_BYTES = 32 * 1024;
+
+    // URL -> fetch in progress, so concurrent misses wait on one request (single-flight)
+    private final Map<String, CompletableFuture<String>> inFlight;
+
+    // Notified when page content enters or leaves the cache (e.g. corpus indexing)
+    private final List<ContentListener> listeners;
+
+    private final long maxWeight;
+    private final long windowMaxWeight;
+    private final long ttlMillis;
+    private final long negativeTtlMillis;
+
+    // Eviction policy state, guarded by policyLock
+    private final ReentrantLock policyLock;
+    private final LinkedHashMap<String, CachedContent> window;
+    private final LinkedHashMap<String, CachedContent> main;
+    private final FrequencySketch sketch;
+    private long windowWeight;
+    private long mainWeight;
+
+    // Persistent tier behind the in-memory cache
+    private final PageContentStore pageStore;
+
+    public URLContentCache(
+            PageContentStore pageStore,
+            @Value("${theatrecraft.url-cache.max-bytes:67108864}") long maxWeight,
+            @Value("${theatrecraft.url-cache.ttl-minutes:360}") long ttlMinutes,
+            @Value("${theatrecraft.url-cache.negative-ttl-minutes:5}") long negativeTtlMinutes) {
+        this.pageStore = pageStore;
+        this.cache = new ConcurrentHashMap<>();
+        this.inFlight = new ConcurrentHashMap<>();
+        this.listeners = new CopyOnWriteArrayList<>();
+        this.maxWeight = maxWeight;
+        this.windowMaxWeight = Math.max(1, (long) (maxWeight * WINDOW_RATIO));
+        this.ttlMillis = TimeUnit.MINUTES.toMillis(ttlMinutes);
+        this.negativeTtlMillis = TimeUnit.MINUTES.toMillis(negativeTtlMinutes);
+        this.policyLock = new ReentrantLock();
+        this.window = new LinkedHashMap<>(16, 0.75f, true);
+        this.main = new LinkedHashMap<>(16, 0.75f, true);
+        this.sketch = new FrequencySketch((int) Math.min(Integer.MAX_VALUE, maxWeight / AVERAGE_ENTRY_BYTES));
     }
-    
+
+    /**
+     * Register a listener for content entering or leaving the cache
+     *
+     * @param listener The listener to notify
+     */
+    public void addListener(ContentListener listener) {
+        listeners.add(listener);
+    }
+
     /**
      * Get text content from URL (from cache or fetch if not cached)
-     * 
+     *
      * @param url The URL to fetch content from
      * @return Extracted text content, or null if fetch fails
      */
     public String getContent(String url) {
         // Check cache first
-        if (cache.containsKey(url)) {
-            CachedContent cached = cache.get(url);
-            System.out.println("URLContentCache: Cache hit for " + url);
-            return cached.textContent;
-        }
-        
-        // Not in cache - fetch from URL
-        System.out.println("URLContentCache: Fetching content from " + url);
-        String content = fetchContent(url);
-        
-        // Cache the result (even if null, to avoid re-fetching failed URLs)
-        cache.put(url, new CachedContent(url, content, System.currentTimeMillis()));
-        
-        return content;
-    }
-    
+        CachedContent cached = cache.get(url);
+        if (cached != null) {
+            if (!isExpired(cached)) {
+                System.out.println("URLContentCache: Cache hit for " + url);
+                recordAccess(url);
+                return cached.textContent;
+            }
+            // Expired - drop it and fetch again
+            System.out.println("URLContentCache: Expired " + url);
+            remove(url, cached);
+        }
+
+        // Not in cache - join a fetch already in progress, or lead a new one
+        CompletableFuture<String> flight = new CompletableFuture<>();
+        CompletableFuture<String> existing = inFlight.putIfAbsent(url, flight);
+        if (existing != null) {
+            System.out.println("URLContentCache: Waiting on in-flight fetch for " + url);
+            try {
+                return existing.join();
+            } catch (CancellationException e) {
+                // The leader was interrupted before it got the page; try again ourselves
+                return getContent(url);
+            }
+        }
+
+        String content = null;
+        boolean cancelled = false;
+        try {
+            // Another leader may have finished between our miss and putIfAbsent
+            cached = cache.get(url);
+            if (cached != null && !isExpired(cached)) {
+                content = cached.textContent;
+                return content;
+            }
+
+            // Then the disk tier, keeping the original fetch time so the TTL still applies
+            PageContentStore.StoredPage stored = pageStore.get(url);
+            if (stored != null) {
+                System.out.println("URLContentCache: Disk hit for " + url);
+                content = stored.getContent();
+                put(url, new CachedContent(url, content, stored.getTimestamp()));
+            } else {
+                System.out.println("URLContentCache: Fetching content from " + url);
+                try {
+                    content = fetchContent(url);
+                } catch (CancellationException e) {
+                    cancelled = true;
+                    System.out.println("URLContentCache: Fetch interrupted, not caching " + url);
+                    return null;
+                }
+                long fetchedAt = System.currentTimeMillis();
+
+                // Cache the result (even if null, to avoid re-fetching failed URLs until the negative TTL passes)
+                put(url, new CachedContent(url, content, fetchedAt));
+                pageStore.put(url, content, fetchedAt);
+            }
+
+            return content;
+        } finally {
+            // Waiters are released only after the content is cached and indexed (see put)
+            inFlight.remove(url, flight);
+            if (cancelled) {
+                flight.completeExceptionally(new CancellationException("Fetch interrupted: " + url));
+            } else {
+                flight.complete(content);
+            }
+        }
+    }
+
     /**
      * Fetch and parse text content from URL using Jsoup
-     * 
+     *
      * @param url The URL to fetch
      * @return Extracted text content, or null if fetch fails
+     * @throws CancellationException if the fetching thread was interrupted
      */
     private String fetchContent(String url) {
         try {
@@ -61,56 +194,287 @@ public class URLContentCache {
                     .timeout(TIMEOUT_MS)
                     .userAgent("Mozilla/5.0 (Windows NT 10.0; Win64; x64) AppleWebKit/537.36")
                     .get();
-            
+
             // Extract all text from HTML (removes tags)
             String text = doc.body().text();
-            
+
             System.out.println("URLContentCache: Successfully fetched " + text.length() + " characters from " + url);
             return text;
-            
+
         } catch (Exception e) {
+            if (Thread.currentThread().isInterrupted() || e instanceof ClosedByInterruptException) {
+                // Cancelled, not failed: must not become a negative cache entry
+                throw new CancellationException("Fetch interrupted: " + url);
+            }
             System.err.println("URLContentCache: Failed to fetch " + url + " - " + e.getMessage());
             return null; // Return null on failure
         }
     }
-    
+
     /**
      * Check if URL content is cached
-     * 
+     *
      * @param url The URL to check
      * @return true if cached, false otherwise
      */
     public boolean isCached(String url) {
-        return cache.containsKey(url);
+        CachedContent cached = cache.get(url);
+        return cached != null && !isExpired(cached);
     }
-    
+
     /**
-     * Clear entire cache
+     * Clear entire cache (memory and disk)
      */
     public void clearCache() {
-        cache.clear();
+        pageStore.clear();
+        policyLock.lock();
+        try {
+            cache.clear();
+            window.clear();
+            main.clear();
+            windowWeight = 0;
+            mainWeight = 0;
+        } finally {
+            policyLock.unlock();
+        }
+        for (ContentListener listener : listeners) {
+            listener.onCleared();
+        }
         System.out.println("URLContentCache: Cache cleared");
     }
-    
+
     /**
      * Remove specific URL from cache
-     * 
+     *
      * @param url The URL to remove
      */
     public void invalidate(String url) {
-        cache.remove(url);
+        pageStore.remove(url);
+        CachedContent cached = cache.get(url);
+        if (cached != null) {
+            remove(url, cached);
+        }
         System.out.println("URLContentCache: Invalidated cache for " + url);
     }
-    
+
+    /**
+     * Get number of fetches currently in flight
+     *
+     * @return In-flight fetch count
+     */
+    public int getInFlightCount() {
+        return inFlight.size();
+    }
+
     /**
      * Get cache size
-     * 
+     *
      * @return Number of cached URLs
      */
     public int getCacheSize() {
         return cache.size();
     }
-    
+
+    /**
+     * Get approximate cache weight
+     *
+     * @return Estimated bytes held by cached entries
+     */
+    public long getWeightedSize() {
+        policyLock.lock();
+        try {
+            return windowWeight + mainWeight;
+        } finally {
+            policyLock.unlock();
+        }
+    }
+
+    private boolean isExpired(CachedContent cached) {
+        long ttl = cached.textContent == null ? negativeTtlMillis : ttlMillis;
+        return System.currentTimeMillis() - cached.timestamp > ttl;
+    }
+
+    /**
+     * Insert an entry into the window and evict as needed
+     * Listeners hear about the page before it is inserted, so an eviction
+     * (even of the page itself, right away) is always announced after it.
+     */
+    private void put(String url, CachedContent entry) {
+        if (entry.weight > maxWeight) {
+            return; // Too large to ever fit
+        }
+
+        if (entry.textContent != null) {
+            for (ContentListener listener : listeners) {
+                listener.onContentLoaded(url, entry.textContent);
+            }
+        }
+
+        List<String> removed = new ArrayList<>();
+        policyLock.lock();
+        try {
+            CachedContent previous = cache.put(url, entry);
+            if (previous != null) {
+                detach(url);
+                if (previous.textContent != null && entry.textContent == null) {
+                    removed.add(url); // Refetch failed: the old page is gone
+                }
+            }
+            sketch.increment(url);
+            window.put(url, entry);
+            windowWeight += entry.weight;
+            evict(removed);
+        } finally {
+            policyLock.unlock();
+        }
+        notifyRemoved(removed);
+    }
+
+    /**
+     * Record a hit: bump frequency and recency
+     * Skipped when another thread holds the policy lock, so reads never block
+     * (a lossy access history only makes eviction slightly less precise)
+     */
+    private void recordAccess(String url) {
+        if (!policyLock.tryLock()) {
+            return;
+        }
+        try {
+            sketch.increment(url);
+            // get() on an access-ordered LinkedHashMap moves the entry to the MRU end
+            if (window.get(url) == null) {
+                main.get(url);
+            }
+        } finally {
+            policyLock.unlock();
+        }
+    }
+
+    /**
+     * Remove an entry if it is still the cached one
+     */
+    private void remove(String url, CachedContent expected) {
+        boolean removed;
+        policyLock.lock();
+        try {
+            removed = cache.remove(url, expected);
+            if (removed) {
+                detach(url);
+            }
+        } finally {
+            policyLock.unlock();
+        }
+        if (removed && expected.textContent != null) {
+            notifyRemoved(List.of(url));
+        }
+    }
+
+    /**
+     * Tell listeners pages left the cache (called without policyLock held)
+     */
+    private void notifyRemoved(List<String> urls) {
+        for (String url : urls) {
+            for (ContentListener listener : listeners) {
+                listener.onContentRemoved(url);
+            }
+        }
+    }
+
+    /**
+     * Drop a URL from the policy structures (caller holds policyLock)
+     */
+    private void detach(String url) {
+        CachedContent removed = window.remove(url);
+        if (removed != null) {
+            windowWeight -= removed.weight;
+            return;
+        }
+        removed = main.remove(url);
+        if (removed != null) {
+            mainWeight -= removed.weight;
+        }
+    }
+
+    /**
+     * Move window overflow into the main space through the TinyLFU admission filter
+     * (caller holds policyLock)
+     *
+     * @param removed Collects URLs of pages dropped from the cache
+     */
+    private void evict(List<String> removed) {
+        long mainMaxWeight = maxWeight - windowMaxWeight;
+
+        while (windowWeight > windowMaxWeight) {
+            Iterator<Map.Entry<String, CachedContent>> oldest = window.entrySet().iterator();
+            Map.Entry<String, CachedContent> candidate = oldest.next();
+            oldest.remove();
+            windowWeight -= candidate.getValue().weight;
+
+            admit(candidate.getKey(), candidate.getValue(), mainMaxWeight, removed);
+        }
+    }
+
+    /**
+     * Admit a window candidate to the main space if it is more popular than the victims it displaces
+     */
+    private void admit(String url, CachedContent candidate, long mainMaxWeight, List<String> removed) {
+        int candidateFrequency = sketch.frequency(url);
+
+        while (mainWeight + candidate.weight > mainMaxWeight && !main.isEmpty()) {
+            Map.Entry<String, CachedContent> victim = main.entrySet().iterator().next();
+
+            if (candidateFrequency <= sketch.frequency(victim.getKey())) {
+                // Candidate loses: reject it and keep the main space as is
+                drop(url, candidate, removed);
+                return;
+            }
+
+            main.remove(victim.getKey());
+            mainWeight -= victim.getValue().weight;
+            drop(victim.getKey(), victim.getValue(), removed);
+        }
+
+        if (mainWeight + candidate.weight > mainMaxWeight) {
+            drop(url, candidate, removed);
+            return;
+        }
+
+        main.put(url, candidate);
+        mainWeight += candidate.weight;
+    }
+
+    /**
+     * Remove an evicted entry from the cache map (caller holds policyLock)
+     */
+    private void drop(String url, CachedContent entry, List<String> removed) {
+        if (cache.remove(url, entry) && entry.textContent != null) {
+            removed.add(url);
+        }
+    }
+
+    /**
+     * Callback for content entering or leaving the cache
+     */
+    public interface ContentListener {
+
+        /**
+         * Called once when content for a URL is fetched and cached
+         */
+        void onContentLoaded(String url, String content);
+
+        /**
+         * Called when a URL's content leaves the cache (expired, evicted or invalidated)
+         */
+        default void onContentRemoved(String url) {
+        }
+
+        /**
+         * Called when the whole cache is cleared
+         */
+        default void onCleared() {
+        }
+    }
+
     /**
      * Inner class to store cached content with metadata
      */
@@ -118,11 +482,14 @@ public class URLContentCache {
         final String url;
         final String textContent; // Can be null if fetch failed
         final long timestamp;
-        
+        final long weight; // Approximate heap bytes
+
         CachedContent(String url, String textContent, long timestamp) {
             this.url = url;
             this.textContent = textContent;
             this.timestamp = timestamp;
+            // Object headers/fields plus the two strings' character data
+            this.weight = 64 + 2L * url.length() + (textContent == null ? 0 : 2L * textContent.length());
         }
     }
 }
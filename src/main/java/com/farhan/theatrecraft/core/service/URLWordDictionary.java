@@ -0,0 +1,204 @@
+package com.farhan.theatrecraft.core.service;
+
+import com.farhan.theatrecraft.core.search.SymmetricDeleteIndex;
+import com.farhan.theatrecraft.core.search.WordTrie;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.*;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Dictionary of words extracted from product URLs
+ * Shared by Page Ranking and Frequency Count so the scraped vocabulary is
+ * held once: a WordTrie for autocomplete and a Symmetric Delete index for
+ * spell-check suggestions, both updated incrementally as words arrive.
+ *
+ * Guarded by a read/write lock: autocomplete and spell-check lookups run in
+ * parallel, and a page's words are added under one short write lock (only the
+ * words not already known), so reads do not queue behind a corpus scan.
+ */
+@Component
+public class URLWordDictionary {
+
+    private final WordTrie wordTrie;
+    private final SymmetricDeleteIndex spellIndex;
+    private final ReentrantReadWriteLock lock;
+
+    public URLWordDictionary(@Value("${theatrecraft.trie.backend:compact}") String trieBackend) {
+        this.wordTrie = new WordTrie("compact".equalsIgnoreCase(trieBackend));
+        this.spellIndex = new SymmetricDeleteIndex();
+        this.lock = new ReentrantReadWriteLock();
+    }
+
+    /**
+     * Add a word to the autocomplete Trie and the spell-check index
+     *
+     * @param word The word to add (normalized/lowercase)
+     */
+    public void addWord(String word) {
+        addWords(Collections.singletonList(word));
+    }
+
+    /**
+     * Add a batch of words (e.g. one page's vocabulary) under a single write lock
+     * Words already in the dictionary are filtered out under the read lock first,
+     * so a page with no new words never blocks readers.
+     *
+     * @param words The words to add (normalized/lowercase)
+     */
+    public void addWords(Collection<String> words) {
+        List<String> newWords = new ArrayList<>();
+        lock.readLock().lock();
+        try {
+            for (String word : words) {
+                if (word != null && !word.isEmpty() && !spellIndex.contains(word)) {
+                    newWords.add(word);
+                }
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+        if (newWords.isEmpty()) {
+            return;
+        }
+
+        lock.writeLock().lock();
+        try {
+            for (String word : newWords) {
+                if (!spellIndex.contains(word)) { // Added by another page since the check
+                    wordTrie.insert(word);
+                    spellIndex.add(word);
+                }
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Autocomplete - get word suggestions for a prefix
+     *
+     * @param prefix The prefix to search for
+     * @param minLength Minimum prefix length required
+     * @param maxResults Maximum number of results
+     * @return List of word suggestions
+     */
+    public List<String> autocomplete(String prefix, int minLength, int maxResults) {
+        lock.readLock().lock();
+        try {
+            return wordTrie.searchByPrefix(prefix, minLength, maxResults);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Get spell check suggestions within edit distance 2 of the query
+     *
+     * @param query The search query (normalized/lowercase)
+     * @param maxSuggestions Maximum number of suggestions
+     * @return Suggested words, closest first
+     */
+    public List<String> getSpellCheckSuggestions(String query, int maxSuggestions) {
+        lock.readLock().lock();
+        try {
+            return spellIndex.lookup(query, maxSuggestions);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Get spell check suggestions for a multi-term query
+     * Terms not in the dictionary are replaced by their closest words; the i-th
+     * suggestion uses each misspelled term's i-th candidate (or its best one).
+     *
+     * @param terms Query terms (normalized/lowercase)
+     * @param maxSuggestions Maximum number of suggestions
+     * @return Suggested queries, best first
+     */
+    public List<String> getQuerySuggestions(List<String> terms, int maxSuggestions) {
+        if (terms.size() == 1) {
+            return getSpellCheckSuggestions(terms.get(0), maxSuggestions);
+        }
+
+        List<List<String>> candidates = new ArrayList<>();
+        boolean anyCorrection = false;
+        lock.readLock().lock();
+        try {
+            for (String term : terms) {
+                List<String> termCandidates = spellIndex.contains(term)
+                        ? Collections.emptyList()
+                        : spellIndex.lookup(term, maxSuggestions);
+                anyCorrection |= !termCandidates.isEmpty();
+                candidates.add(termCandidates);
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+        if (!anyCorrection) {
+            return new ArrayList<>();
+        }
+
+        Set<String> suggestions = new LinkedHashSet<>();
+        for (int i = 0; i < maxSuggestions; i++) {
+            StringJoiner query = new StringJoiner(" ");
+            for (int t = 0; t < terms.size(); t++) {
+                List<String> termCandidates = candidates.get(t);
+                if (termCandidates.isEmpty()) {
+                    query.add(terms.get(t));
+                } else {
+                    query.add(termCandidates.get(Math.min(i, termCandidates.size() - 1)));
+                }
+            }
+            suggestions.add(query.toString());
+        }
+        return new ArrayList<>(suggestions);
+    }
+
+    /**
+     * Get number of words in the dictionary
+     *
+     * @return Word count
+     */
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return spellIndex.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Heap footprint report for the autocomplete Trie
+     *
+     * @return backend, word count and estimated bytes
+     */
+    public Map<String, Object> getFootprint() {
+        Map<String, Object> report = new LinkedHashMap<>();
+        lock.readLock().lock();
+        try {
+            report.put("backend", wordTrie.getBackend());
+            report.put("words", wordTrie.size());
+            report.put("estimatedBytes", wordTrie.estimateHeapBytes());
+        } finally {
+            lock.readLock().unlock();
+        }
+        return report;
+    }
+
+    /**
+     * Clear all words
+     */
+    public void clear() {
+        lock.writeLock().lock();
+        try {
+            wordTrie.clear();
+            spellIndex.clear();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+}
@@ -0,0 +1,240 @@
+package com.farhan.theatrecraft.core.storage;
+
+import com.farhan.theatrecraft.core.model.Brand;
+import com.farhan.theatrecraft.core.model.Product;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Repository;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.*;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Per-brand crawl checkpoints under data/checkpoints
+ * While a brand is crawled every finished product is appended to <BRAND>.csv
+ * (same columns as products.csv), so a crawl that dies part way can resume and
+ * only visit the product pages it has not done yet. The file is deleted once
+ * the brand's results are saved to the product CSV; checkpoints older than
+ * max-age-hours are discarded instead of resumed.
+ *
+ * A checkpoint belongs to one crawl job at a time: open() makes the job its
+ * owner, and appends or deletes from any other job are ignored. A checkpoint
+ * is only resumed by a crawl of the same mode (full or delta); one of the
+ * other mode is discarded.
+ *
+ * File layout: "#checkpoint;<startedAt millis>;<full|delta>;<owner job id>" then one product per line
+ */
+@Repository
+public class CrawlCheckpointRepository {
+
+    private static final String HEADER_PREFIX = "#checkpoint;";
+
+    private final Path directory;
+    private final long maxAgeMillis;
+    private final Map<Brand, String> owners; // brand -> id of the job writing its checkpoint, guarded by this
+
+    public CrawlCheckpointRepository(@Value("${theatrecraft.crawl.checkpoint.dir:data/checkpoints}") String directory,
+                                     @Value("${theatrecraft.crawl.checkpoint.max-age-hours:24}") long maxAgeHours) {
+        this.directory = Paths.get(directory);
+        this.maxAgeMillis = TimeUnit.HOURS.toMillis(maxAgeHours);
+        this.owners = new EnumMap<>(Brand.class);
+    }
+
+    /**
+     * Take ownership of the brand's checkpoint for a job
+     * Resumes the existing checkpoint if it is fresh and of the same mode,
+     * otherwise starts a new one.
+     *
+     * @param jobId The crawl job that will write the checkpoint
+     * @param delta Mode of the crawl
+     * @return The checkpoint, with the products already done
+     * @throws IllegalStateException if another job owns the brand's checkpoint
+     */
+    public synchronized Checkpoint open(Brand brand, String jobId, boolean delta) {
+        String owner = owners.get(brand);
+        if (owner != null && !owner.equals(jobId)) {
+            throw new IllegalStateException("Checkpoint for " + brand + " is owned by job " + owner);
+        }
+
+        Checkpoint existing = load(brand);
+        if (existing != null && existing.isDelta() != delta) {
+            System.out.println("CrawlCheckpointRepository: Discarding " + (existing.isDelta() ? "delta" : "full") +
+                    " checkpoint for " + brand + " (crawl is " + (delta ? "delta" : "full") + ")");
+            existing = null;
+        }
+
+        Checkpoint checkpoint = existing != null
+                ? new Checkpoint(brand, existing.getStartedAt(), delta, jobId, existing.getProducts())
+                : new Checkpoint(brand, System.currentTimeMillis(), delta, jobId, Collections.emptyList());
+        try {
+            write(checkpoint);
+        } catch (IOException e) {
+            System.err.println("CrawlCheckpointRepository.open: " + e.getMessage());
+        }
+        owners.put(brand, jobId);
+        return checkpoint;
+    }
+
+    /**
+     * Append a finished product to the brand's checkpoint (ignored unless jobId owns it)
+     */
+    public synchronized void append(Brand brand, String jobId, Product product) {
+        if (!jobId.equals(owners.get(brand))) {
+            return;
+        }
+        try {
+            Files.writeString(file(brand), ProductCsvRepository.toCsvLine(product) + System.lineSeparator(),
+                    StandardCharsets.UTF_8, StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+        } catch (IOException e) {
+            System.err.println("CrawlCheckpointRepository.append: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Drop the brand's checkpoint once jobId's results are saved (ignored unless jobId owns it)
+     */
+    public synchronized void delete(Brand brand, String jobId) {
+        if (!jobId.equals(owners.get(brand))) {
+            return;
+        }
+        owners.remove(brand);
+        try {
+            Files.deleteIfExists(file(brand));
+        } catch (IOException e) {
+            System.err.println("CrawlCheckpointRepository.delete: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Give up ownership but keep the file, so a later crawl can resume it
+     */
+    public synchronized void release(Brand brand, String jobId) {
+        owners.remove(brand, jobId);
+    }
+
+    /**
+     * Checkpoints of crawls that did not finish and are still fresh enough to resume
+     */
+    public synchronized List<Checkpoint> findUnfinished() {
+        List<Checkpoint> checkpoints = new ArrayList<>();
+        for (Brand brand : Brand.values()) {
+            if (owners.containsKey(brand)) {
+                continue; // Being crawled right now
+            }
+            Checkpoint checkpoint = load(brand);
+            if (checkpoint != null) {
+                checkpoints.add(checkpoint);
+            }
+        }
+        return checkpoints;
+    }
+
+    /**
+     * Read a brand's checkpoint; a stale or unreadable one is deleted
+     *
+     * @return The checkpoint, or null if there is none to resume
+     */
+    private Checkpoint load(Brand brand) {
+        Path file = file(brand);
+        if (!Files.exists(file)) {
+            return null;
+        }
+
+        try (BufferedReader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+            String header = reader.readLine();
+            String[] parts = header != null && header.startsWith(HEADER_PREFIX) ? header.split(";") : new String[0];
+            long startedAt = parts.length >= 3 ? Long.parseLong(parts[1]) : 0;
+            if (System.currentTimeMillis() - startedAt > maxAgeMillis) {
+                System.out.println("CrawlCheckpointRepository: Discarding stale checkpoint for " + brand);
+                Files.deleteIfExists(file);
+                return null;
+            }
+
+            // Later lines win, so a URL done twice keeps its newest product
+            Map<String, Product> byUrl = new LinkedHashMap<>();
+            String line;
+            while ((line = reader.readLine()) != null) {
+                if (line.isBlank()) continue;
+                Product product = ProductCsvRepository.fromCsvLine(line);
+                if (product != null && product.getProductUrl() != null && !product.getProductUrl().isEmpty()) {
+                    byUrl.put(product.getProductUrl(), product);
+                }
+            }
+            String jobId = parts.length >= 4 ? parts[3] : null;
+            return new Checkpoint(brand, startedAt, "delta".equals(parts[2]), jobId, new ArrayList<>(byUrl.values()));
+
+        } catch (IOException | NumberFormatException e) {
+            System.err.println("CrawlCheckpointRepository.load: " + e.getMessage());
+            return null;
+        }
+    }
+
+    /**
+     * Rewrite a checkpoint file (header and products), replacing it atomically where supported
+     */
+    private void write(Checkpoint checkpoint) throws IOException {
+        Files.createDirectories(directory);
+        Path target = file(checkpoint.getBrand());
+        Path tmp = directory.resolve(checkpoint.getBrand().name() + ".csv.tmp");
+        try (BufferedWriter writer = Files.newBufferedWriter(tmp, StandardCharsets.UTF_8)) {
+            writer.write(HEADER_PREFIX + checkpoint.getStartedAt() + ";" + (checkpoint.isDelta() ? "delta" : "full") +
+                    ";" + checkpoint.getJobId());
+            writer.newLine();
+            for (Product product : checkpoint.getProducts()) {
+                writer.write(ProductCsvRepository.toCsvLine(product));
+                writer.newLine();
+            }
+        }
+        StorageFiles.replace(tmp, target);
+    }
+
+    private Path file(Brand brand) {
+        return directory.resolve(brand.name() + ".csv");
+    }
+
+    /**
+     * An in-progress brand crawl: when it started and the products already done
+     */
+    public static class Checkpoint {
+        private final Brand brand;
+        private final long startedAt;
+        private final boolean delta;
+        private final String jobId; // Job that owns (or last owned) it
+        private final List<Product> products;
+
+        Checkpoint(Brand brand, long startedAt, boolean delta, String jobId, List<Product> products) {
+            this.brand = brand;
+            this.startedAt = startedAt;
+            this.delta = delta;
+            this.jobId = jobId;
+            this.products = Collections.unmodifiableList(products);
+        }
+
+        public Brand getBrand() {
+            return brand;
+        }
+
+        public long getStartedAt() {
+            return startedAt;
+        }
+
+        public boolean isDelta() {
+            return delta;
+        }
+
+        public String getJobId() {
+            return jobId;
+        }
+
+        public List<Product> getProducts() {
+            return products;
+        }
+    }
+}
@@ -0,0 +1,580 @@
+package com.farhan.theatrecraft.core.storage;
+
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Repository;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.lang.reflect.Field;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Disk-backed store for fetched product page text
+ * Pages are gzip-compressed and appended to segment files under data/page-store;
+ * an in-memory offset index (URL -> segment, offset, length) is rebuilt from the
+ * record headers the first time the store is used. Reads of sealed segments go
+ * through a memory-mapped view made once per segment; the segment still being
+ * appended to is read with positional reads. Segments are at most 2 GB so
+ * offsets fit a mapping. Entries older than the URL cache TTL are treated as
+ * missing and are swept from the index whenever a segment fills up, so old
+ * segments empty out even for pages nobody asks for again. A sealed segment is
+ * deleted (after unmapping it) once none of its records are live,
+ * except that one holding removal records is kept while any older segment
+ * exists (the removals hide that segment's superseded records on restart).
+ *
+ * Record layout: magic(int) timestamp(long) urlLength(int) payloadLength(int) url payload
+ * A payloadLength of -1 marks a removed URL.
+ */
+@Repository
+public class PageContentStore {
+
+    private static final int MAGIC = 0x50414745; // "PAGE"
+    private static final int HEADER_BYTES = 4 + 8 + 4 + 4;
+    private static final int TOMBSTONE = -1;
+    private static final String SEGMENT_PREFIX = "segment-";
+    private static final String SEGMENT_SUFFIX = ".dat";
+    private static final long MAX_SEGMENT_BYTES = Integer.MAX_VALUE; // Largest single mapping
+
+    private final Path directory;
+    private final long maxAgeMillis;
+    private final long segmentMaxBytes;
+    private final boolean enabled;
+
+    // Segment id -> segment, oldest first; the last one is appended to
+    private final TreeMap<Integer, Segment> segments;
+
+    // URL -> location of its latest live record
+    private final Map<String, IndexEntry> index;
+
+    private boolean loaded;
+
+    public PageContentStore(
+            @Value("${theatrecraft.page-store.dir:data/page-store}") String directory,
+            @Value("${theatrecraft.page-store.enabled:true}") boolean enabled,
+            @Value("${theatrecraft.page-store.segment-max-bytes:16777216}") long segmentMaxBytes,
+            @Value("${theatrecraft.url-cache.ttl-minutes:360}") long ttlMinutes) {
+        this.directory = Paths.get(directory);
+        this.enabled = enabled;
+        this.segmentMaxBytes = Math.min(segmentMaxBytes, MAX_SEGMENT_BYTES);
+        this.maxAgeMillis = TimeUnit.MINUTES.toMillis(ttlMinutes);
+        this.segments = new TreeMap<>();
+        this.index = new HashMap<>();
+    }
+
+    /**
+     * Get stored page text if present and not stale
+     *
+     * @param url The page URL
+     * @return StoredPage with text and fetch time, or null if missing/stale
+     */
+    public StoredPage get(String url) {
+        if (!enabled) {
+            return null;
+        }
+
+        IndexEntry entry;
+        byte[] compressed;
+        synchronized (this) {
+            ensureLoaded();
+            entry = index.get(url);
+            if (entry == null) {
+                return null;
+            }
+            if (isStale(entry.timestamp)) {
+                dropEntry(url);
+                return null;
+            }
+            try {
+                // Copied under the lock: once it is released the segment may be unmapped and deleted
+                ByteBuffer payload = entry.segment.slice(entry.offset, entry.length);
+                compressed = new byte[payload.remaining()];
+                payload.get(compressed);
+            } catch (IOException e) {
+                System.err.println("PageContentStore: Failed to read " + url + " - " + e.getMessage());
+                return null;
+            }
+        }
+
+        // Decompress outside the lock
+        try {
+            return new StoredPage(decompress(compressed), entry.timestamp);
+        } catch (IOException e) {
+            System.err.println("PageContentStore: Corrupt record for " + url + " - " + e.getMessage());
+            return null;
+        }
+    }
+
+    /**
+     * Append page text for a URL (replaces any earlier record)
+     *
+     * @param url The page URL
+     * @param content The page text
+     * @param timestamp Fetch time in millis
+     */
+    public void put(String url, String content, long timestamp) {
+        if (!enabled || content == null) {
+            return;
+        }
+
+        byte[] payload;
+        try {
+            payload = compress(content);
+        } catch (IOException e) {
+            System.err.println("PageContentStore: Failed to compress " + url + " - " + e.getMessage());
+            return;
+        }
+
+        synchronized (this) {
+            ensureLoaded();
+            try {
+                append(url, payload, timestamp);
+            } catch (IOException e) {
+                System.err.println("PageContentStore: Failed to write " + url + " - " + e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * Remove a URL from the store
+     *
+     * @param url The page URL
+     */
+    public synchronized void remove(String url) {
+        if (!enabled) {
+            return;
+        }
+        ensureLoaded();
+        if (!index.containsKey(url)) {
+            return;
+        }
+        try {
+            append(url, null, System.currentTimeMillis());
+        } catch (IOException e) {
+            System.err.println("PageContentStore: Failed to write removal for " + url + " - " + e.getMessage());
+        }
+    }
+
+    /**
+     * Delete all segments
+     */
+    public synchronized void clear() {
+        if (!enabled) {
+            return;
+        }
+        for (Segment segment : segments.values()) {
+            segment.delete();
+        }
+        segments.clear();
+        index.clear();
+        loaded = true;
+        System.out.println("PageContentStore: Store cleared");
+    }
+
+    /**
+     * Get number of live pages on disk
+     *
+     * @return Page count
+     */
+    public synchronized int size() {
+        if (!enabled) {
+            return 0;
+        }
+        ensureLoaded();
+        return index.size();
+    }
+
+    @PreDestroy
+    public synchronized void close() {
+        for (Segment segment : segments.values()) {
+            segment.close();
+        }
+    }
+
+    /**
+     * Build the offset index from segment record headers (first use only)
+     */
+    private void ensureLoaded() {
+        if (loaded) {
+            return;
+        }
+
+        try {
+            Files.createDirectories(directory);
+            try (DirectoryStream<Path> files = Files.newDirectoryStream(directory, SEGMENT_PREFIX + "*" + SEGMENT_SUFFIX)) {
+                for (Path file : files) {
+                    Integer id = parseSegmentId(file);
+                    if (id != null) {
+                        segments.put(id, new Segment(id, file));
+                    }
+                }
+            }
+
+            for (Segment segment : segments.values()) {
+                scan(segment);
+                segment.sealed = segment != segments.lastEntry().getValue();
+            }
+
+            // Segments with nothing live left (all stale or superseded) can go
+            releaseSegments();
+
+            System.out.println("PageContentStore: Loaded " + index.size() + " pages from " + segments.size() + " segments");
+        } catch (IOException e) {
+            System.err.println("PageContentStore: Failed to load store - " + e.getMessage());
+        } finally {
+            loaded = true;
+        }
+    }
+
+    /**
+     * Read record headers of a segment into the index
+     * A torn record at the tail (e.g. crash mid-write) ends the scan and is truncated away
+     */
+    private void scan(Segment segment) throws IOException {
+        // Segments are never written past MAX_SEGMENT_BYTES; anything beyond is treated as damage
+        long size = Math.min(segment.channel().size(), MAX_SEGMENT_BYTES);
+        MappedByteBuffer map = segment.map(size);
+
+        long position = 0;
+        while (position + HEADER_BYTES <= size) {
+            int p = Math.toIntExact(position);
+            if (map.getInt(p) != MAGIC) {
+                break;
+            }
+            long timestamp = map.getLong(p + 4);
+            int urlLength = map.getInt(p + 12);
+            int payloadLength = map.getInt(p + 16);
+            long end = position + HEADER_BYTES + urlLength + Math.max(0, payloadLength);
+            if (urlLength < 0 || payloadLength < TOMBSTONE || end > size) {
+                break; // Damaged header: nothing after it can be trusted
+            }
+
+            byte[] urlBytes = new byte[urlLength];
+            map.get(p + HEADER_BYTES, urlBytes);
+            String url = new String(urlBytes, StandardCharsets.UTF_8);
+
+            dropEntry(url);
+            if (payloadLength == TOMBSTONE) {
+                segment.tombstones++;
+            } else if (!isStale(timestamp)) {
+                index.put(url, new IndexEntry(segment, position + HEADER_BYTES + urlLength, payloadLength, timestamp));
+                segment.liveEntries++;
+            }
+            position = end;
+        }
+
+        if (position < segment.channel().size()) {
+            System.err.println("PageContentStore: Truncating damaged tail of " + segment.path.getFileName());
+            segment.channel().truncate(position);
+        }
+        segment.size = position;
+    }
+
+    /**
+     * Append a record (payload null = removal) to the active segment
+     */
+    private void append(String url, byte[] payload, long timestamp) throws IOException {
+        byte[] urlBytes = url.getBytes(StandardCharsets.UTF_8);
+        int payloadLength = payload == null ? TOMBSTONE : payload.length;
+        int recordBytes = HEADER_BYTES + urlBytes.length + Math.max(0, payloadLength);
+        if (recordBytes > segmentMaxBytes) {
+            throw new IOException("Record of " + recordBytes + " bytes exceeds the segment size");
+        }
+
+        Segment segment = activeSegment(recordBytes);
+
+        ByteBuffer record = ByteBuffer.allocate(recordBytes);
+        record.putInt(MAGIC).putLong(timestamp).putInt(urlBytes.length).putInt(payloadLength).put(urlBytes);
+        if (payload != null) {
+            record.put(payload);
+        }
+        record.flip();
+
+        long position = segment.size;
+        FileChannel channel = segment.channel();
+        while (record.hasRemaining()) {
+            channel.write(record, position + record.position());
+        }
+        segment.size = position + record.limit();
+
+        if (payload != null) {
+            IndexEntry previous = index.put(url,
+                    new IndexEntry(segment, position + HEADER_BYTES + urlBytes.length, payloadLength, timestamp));
+            segment.liveEntries++;
+            if (previous != null) {
+                release(previous);
+            }
+        } else {
+            segment.tombstones++;
+            dropEntry(url);
+        }
+    }
+
+    /**
+     * Get the segment to append to, rolling over to a new one when it is full
+     */
+    private Segment activeSegment(int recordBytes) throws IOException {
+        Segment active = segments.isEmpty() ? null : segments.lastEntry().getValue();
+        if (active == null || active.size + recordBytes > segmentMaxBytes) {
+            int id = active == null ? 1 : active.id + 1;
+            Path file = directory.resolve(String.format("%s%05d%s", SEGMENT_PREFIX, id, SEGMENT_SUFFIX));
+            Segment segment = new Segment(id, file);
+            segments.put(id, segment);
+
+            // The previous segment is now sealed; expire stale pages and delete whatever is no longer needed
+            if (active != null) {
+                active.sealed = true;
+                sweepStale();
+                releaseSegments();
+            }
+            return segment;
+        }
+        return active;
+    }
+
+    /**
+     * Drop every index entry older than the TTL
+     * Expiry is otherwise only noticed on get(), which never comes for pages
+     * that dropped out of the catalog, and their segments would never empty.
+     */
+    private void sweepStale() {
+        Iterator<IndexEntry> entries = index.values().iterator();
+        int swept = 0;
+        while (entries.hasNext()) {
+            IndexEntry entry = entries.next();
+            if (isStale(entry.timestamp)) {
+                entries.remove();
+                release(entry);
+                swept++;
+            }
+        }
+        if (swept > 0) {
+            System.out.println("PageContentStore: Expired " + swept + " stale pages");
+        }
+    }
+
+    /**
+     * Remove a URL's index entry and release its segment if that was the last live record
+     */
+    private void dropEntry(String url) {
+        IndexEntry previous = index.remove(url);
+        if (previous != null) {
+            release(previous);
+        }
+    }
+
+    /**
+     * Account for a record that is no longer live
+     */
+    private void release(IndexEntry entry) {
+        entry.segment.liveEntries--;
+        if (entry.segment.liveEntries == 0 && loaded) {
+            releaseSegments();
+        }
+    }
+
+    /**
+     * Delete sealed segments with no live records, oldest first
+     * A segment holding removal records must outlive every older segment: on
+     * restart scan() relies on those records to hide the older copies of the URLs.
+     */
+    private void releaseSegments() {
+        boolean oldest = true;
+        for (Segment segment : new ArrayList<>(segments.values())) {
+            if (!segment.sealed) {
+                break;
+            }
+            if (segment.liveEntries == 0 && (segment.tombstones == 0 || oldest)) {
+                segments.remove(segment.id);
+                segment.delete();
+            } else {
+                oldest = false;
+            }
+        }
+    }
+
+    private boolean isStale(long timestamp) {
+        return System.currentTimeMillis() - timestamp > maxAgeMillis;
+    }
+
+    private static Integer parseSegmentId(Path file) {
+        String name = file.getFileName().toString();
+        try {
+            return Integer.parseInt(name.substring(SEGMENT_PREFIX.length(), name.length() - SEGMENT_SUFFIX.length()));
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
+    private static byte[] compress(String content) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(content.length() / 3 + 64);
+        try (GZIPOutputStream gzip = new GZIPOutputStream(bytes)) {
+            gzip.write(content.getBytes(StandardCharsets.UTF_8));
+        }
+        return bytes.toByteArray();
+    }
+
+    private static String decompress(byte[] compressed) throws IOException {
+        try (InputStream gzip = new GZIPInputStream(new ByteArrayInputStream(compressed))) {
+            return new String(gzip.readAllBytes(), StandardCharsets.UTF_8);
+        }
+    }
+
+    /**
+     * Page text read back from the store
+     */
+    public static class StoredPage {
+        private final String content;
+        private final long timestamp;
+
+        public StoredPage(String content, long timestamp) {
+            this.content = content;
+            this.timestamp = timestamp;
+        }
+
+        public String getContent() {
+            return content;
+        }
+
+        public long getTimestamp() {
+            return timestamp;
+        }
+    }
+
+    /**
+     * Location of a URL's latest record
+     */
+    private static class IndexEntry {
+        final Segment segment;
+        final long offset; // Payload offset within the segment
+        final int length;  // Compressed payload length
+        final long timestamp;
+
+        IndexEntry(Segment segment, long offset, int length, long timestamp) {
+            this.segment = segment;
+            this.offset = offset;
+            this.length = length;
+            this.timestamp = timestamp;
+        }
+    }
+
+    /**
+     * One append-only segment file with a lazily mapped read view
+     */
+    private static class Segment {
+        final int id;
+        final Path path;
+        FileChannel channel;
+        MappedByteBuffer map;
+        long size;
+        int liveEntries;
+        int tombstones; // Removal records in this segment
+        boolean sealed; // No longer appended to
+
+        Segment(int id, Path path) {
+            this.id = id;
+            this.path = path;
+        }
+
+        FileChannel channel() throws IOException {
+            if (channel == null) {
+                channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.READ,
+                        StandardOpenOption.WRITE);
+            }
+            return channel;
+        }
+
+        /**
+         * Map the first mappedSize bytes, reusing the current mapping if it is large enough
+         */
+        MappedByteBuffer map(long mappedSize) throws IOException {
+            if (map == null || map.capacity() < mappedSize) {
+                unmap();
+                map = channel().map(FileChannel.MapMode.READ_ONLY, 0, mappedSize);
+            }
+            return map;
+        }
+
+        /**
+         * Release the current mapping now rather than whenever the buffer is collected
+         * A live mapping keeps the file's disk space (and on Windows the file itself)
+         * after delete. Safe because no slice of the mapping escapes the store's lock.
+         */
+        void unmap() {
+            if (map == null) {
+                return;
+            }
+            MappedByteBuffer mapped = map;
+            map = null;
+            try {
+                Field field = Class.forName("sun.misc.Unsafe").getDeclaredField("theUnsafe");
+                field.setAccessible(true);
+                Object unsafe = field.get(null);
+                unsafe.getClass().getMethod("invokeCleaner", ByteBuffer.class).invoke(unsafe, mapped);
+            } catch (ReflectiveOperationException | RuntimeException e) {
+                // Not available on this JVM: the mapping goes when the buffer is collected
+            }
+        }
+
+        /**
+         * Read-only view of [offset, offset + length)
+         * Served from the mapping when it covers the range; a sealed segment is
+         * mapped once in full, while records appended since the active segment
+         * was mapped are read directly, so the file is not remapped on every append.
+         */
+        ByteBuffer slice(long offset, int length) throws IOException {
+            if (map == null || offset + length > map.capacity()) {
+                if (!sealed) {
+                    ByteBuffer buffer = ByteBuffer.allocate(length);
+                    while (buffer.hasRemaining()) {
+                        if (channel().read(buffer, offset + buffer.position()) < 0) {
+                            throw new IOException("Unexpected end of " + path.getFileName());
+                        }
+                    }
+                    return buffer.flip();
+                }
+                map(size);
+            }
+            return map.slice(Math.toIntExact(offset), length);
+        }
+
+        void close() {
+            unmap();
+            if (channel != null) {
+                try {
+                    channel.close();
+                } catch (IOException e) {
+                    // Nothing useful to do on close
+                }
+                channel = null;
+            }
+        }
+
+        void delete() {
+            close();
+            try {
+                Files.deleteIfExists(path);
+            } catch (IOException e) {
+                System.err.println("PageContentStore: Failed to delete " + path + " - " + e.getMessage());
+            }
+        }
+    }
+}
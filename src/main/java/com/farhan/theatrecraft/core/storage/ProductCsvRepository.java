@@ -8,9 +8,9 @@ import java.io.BufferedReader;
 import java.io.BufferedWriter;
 import java.io.File;
 import java.io.FileReader;
-import java.io.FileWriter;
 import java.io.IOException;
 import java.nio.file.Files;
+import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.util.ArrayList;
 import java.util.List;
@@ -23,7 +23,7 @@ public class ProductCsvRepository {
     // Order matters: this must match saveAll() and loadAll()
     private static final String HEADER =
             "id;brand;sourceSite;modelName;systemType;category;price;rating;" +
-            "imageUrl;productUrl;channel;audioFormat;wifiFormat;bluetoothVersion;weightKg;power";
+            "imageUrl;productUrl;channel;audioFormat;wifiFormat;bluetoothVersion;weightKg;power;fingerprint";
 
     public List<Product> loadAll() {
         List<Product> products = new ArrayList<>();
@@ -47,52 +47,10 @@ public class ProductCsvRepository {
                 }
                 isFirstLine = false;
 
-                String[] parts = line.split(";", -1);
-                // We expect exactly 16 columns
-                if (parts.length < 16) {
-                    continue;
-                }
-
-                Product p = new Product();
-                int i = 0;
-
-                p.setId(parts[i++]);
-                try {
-                    p.setBrand(Brand.valueOf(parts[i++]));
-                } catch (Exception e) {
-                    p.setBrand(null);
-                }
-                p.setSourceSite(parts[i++]);
-                p.setModelName(parts[i++]);
-                p.setSystemType(parts[i++]);
-                p.setCategory(parts[i++]);
-
-                // price
-                String priceStr = parts[i++];
-                try {
-                    p.setPrice(priceStr.isEmpty() ? null : Double.parseDouble(priceStr));
-                } catch (NumberFormatException e) {
-                    p.setPrice(null);
-                }
-
-                // rating
-                String ratingStr = parts[i++];
-                try {
-                    p.setRating(ratingStr.isEmpty() ? null : Double.parseDouble(ratingStr));
-                } catch (NumberFormatException e) {
-                    p.setRating(null);
+                Product p = fromCsvLine(line);
+                if (p != null) {
+                    products.add(p);
                 }
-
-                p.setImageUrl(parts[i++]);
-                p.setProductUrl(parts[i++]);
-                p.setChannel(parts[i++]);
-                p.setAudioFormat(parts[i++]);
-                p.setWifiFormat(parts[i++]);
-                p.setBluetoothVersion(parts[i++]);
-                p.setWeightKg(parts[i++]);
-                p.setPower(parts[i++]);
-
-                products.add(p);
             }
 
         } catch (IOException e) {
@@ -102,48 +60,130 @@ public class ProductCsvRepository {
         return products;
     }
 
-    public void saveAll(List<Product> products) {
+    /**
+     * Atomically replace the catalog file with the given products
+     *
+     * @param products All products (every brand)
+     * @return true if the file was written
+     */
+    public boolean saveAll(List<Product> products) {
+        Path tmp = Paths.get(CSV_FILE + ".tmp");
         try {
             // Ensure directory exists
             Files.createDirectories(Paths.get("data"));
 
-            try (BufferedWriter writer = new BufferedWriter(new FileWriter(CSV_FILE))) {
+            // Write a temp file and swap it in, so a crash mid-write never truncates the catalog
+            Path target = Paths.get(CSV_FILE);
+            try (BufferedWriter writer = Files.newBufferedWriter(tmp)) {
                 writer.write(HEADER);
                 writer.newLine();
 
                 for (Product p : products) {
-                    StringBuilder sb = new StringBuilder();
-
-                    sb.append(nullSafe(p.getId())).append(";");
-                    sb.append(p.getBrand() != null ? p.getBrand().name() : "").append(";");
-                    sb.append(nullSafe(p.getSourceSite())).append(";");
-                    sb.append(nullSafe(p.getModelName())).append(";");
-                    sb.append(nullSafe(p.getSystemType())).append(";");
-                    sb.append(nullSafe(p.getCategory())).append(";");
-
-                    sb.append(p.getPrice() != null ? p.getPrice() : "").append(";");
-                    sb.append(p.getRating() != null ? p.getRating() : "").append(";");
-
-                    sb.append(nullSafe(p.getImageUrl())).append(";");
-                    sb.append(nullSafe(p.getProductUrl())).append(";");
-                    sb.append(nullSafe(p.getChannel())).append(";");
-                    sb.append(nullSafe(p.getAudioFormat())).append(";");
-                    sb.append(nullSafe(p.getWifiFormat())).append(";");
-                    sb.append(nullSafe(p.getBluetoothVersion())).append(";");
-                    sb.append(nullSafe(p.getWeightKg())).append(";");
-                    sb.append(nullSafe(p.getPower()));
-
-                    writer.write(sb.toString());
+                    writer.write(toCsvLine(p));
                     writer.newLine();
                 }
             }
+            StorageFiles.replace(tmp, target);
+            return true;
 
         } catch (IOException e) {
             System.err.println("ProductCsvRepository.saveAll: " + e.getMessage());
+            try {
+                Files.deleteIfExists(tmp);
+            } catch (IOException ignored) {
+                // Best effort cleanup
+            }
+            return false;
+        }
+    }
+
+    /**
+     * One product as a CSV line (column order of HEADER)
+     */
+    static String toCsvLine(Product p) {
+        StringBuilder sb = new StringBuilder();
+
+        sb.append(nullSafe(p.getId())).append(";");
+        sb.append(p.getBrand() != null ? p.getBrand().name() : "").append(";");
+        sb.append(nullSafe(p.getSourceSite())).append(";");
+        sb.append(nullSafe(p.getModelName())).append(";");
+        sb.append(nullSafe(p.getSystemType())).append(";");
+        sb.append(nullSafe(p.getCategory())).append(";");
+
+        sb.append(p.getPrice() != null ? p.getPrice() : "").append(";");
+        sb.append(p.getRating() != null ? p.getRating() : "").append(";");
+
+        sb.append(nullSafe(p.getImageUrl())).append(";");
+        sb.append(nullSafe(p.getProductUrl())).append(";");
+        sb.append(nullSafe(p.getChannel())).append(";");
+        sb.append(nullSafe(p.getAudioFormat())).append(";");
+        sb.append(nullSafe(p.getWifiFormat())).append(";");
+        sb.append(nullSafe(p.getBluetoothVersion())).append(";");
+        sb.append(nullSafe(p.getWeightKg())).append(";");
+        sb.append(nullSafe(p.getPower())).append(";");
+        sb.append(nullSafe(p.getFingerprint()));
+
+        return sb.toString();
+    }
+
+    /**
+     * Parse a CSV line written by toCsvLine
+     *
+     * @return The product, or null if the line has too few columns
+     */
+    static Product fromCsvLine(String line) {
+        String[] parts = line.split(";", -1);
+        // We expect 16 columns, plus the fingerprint in files written since delta crawls
+        if (parts.length < 16) {
+            return null;
+        }
+
+        Product p = new Product();
+        int i = 0;
+
+        p.setId(parts[i++]);
+        try {
+            p.setBrand(Brand.valueOf(parts[i++]));
+        } catch (Exception e) {
+            p.setBrand(null);
+        }
+        p.setSourceSite(parts[i++]);
+        p.setModelName(parts[i++]);
+        p.setSystemType(parts[i++]);
+        p.setCategory(parts[i++]);
+
+        // price
+        String priceStr = parts[i++];
+        try {
+            p.setPrice(priceStr.isEmpty() ? null : Double.parseDouble(priceStr));
+        } catch (NumberFormatException e) {
+            p.setPrice(null);
+        }
+
+        // rating
+        String ratingStr = parts[i++];
+        try {
+            p.setRating(ratingStr.isEmpty() ? null : Double.parseDouble(ratingStr));
+        } catch (NumberFormatException e) {
+            p.setRating(null);
         }
+
+        p.setImageUrl(parts[i++]);
+        p.setProductUrl(parts[i++]);
+        p.setChannel(parts[i++]);
+        p.setAudioFormat(parts[i++]);
+        p.setWifiFormat(parts[i++]);
+        p.setBluetoothVersion(parts[i++]);
+        p.setWeightKg(parts[i++]);
+        p.setPower(parts[i++]);
+        if (parts.length > i && !parts[i].isEmpty()) {
+            p.setFingerprint(parts[i]);
+        }
+
+        return p;
     }
 
-    private String nullSafe(String s) {
+    private static String nullSafe(String s) {
         return s == null ? "" : s.replace(";", ",");
     }
 }
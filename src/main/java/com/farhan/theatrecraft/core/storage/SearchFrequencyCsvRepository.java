@@ -0,0 +1,94 @@
+package com.farhan.theatrecraft.core.storage;
+
+import org.springframework.stereotype.Repository;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * CSV storage for search frequency counters (search_frequency.csv)
+ * Saves write a temp file next to the target and rename it into place, so a
+ * crash mid-write leaves the previous file intact instead of a truncated one.
+ */
+@Repository
+public class SearchFrequencyCsvRepository {
+
+    private static final String CSV_FILE = "search_frequency.csv";
+    private static final String HEADER = "productName,count";
+
+    private final Path file = Paths.get(CSV_FILE);
+
+    public Map<String, Long> loadAll() {
+        Map<String, Long> counts = new LinkedHashMap<>();
+        if (!Files.exists(file)) {
+            return counts;
+        }
+
+        try (BufferedReader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+            String line;
+            reader.readLine(); // Skip header
+
+            while ((line = reader.readLine()) != null) {
+                // Names may contain commas; the count is after the last one
+                int comma = line.lastIndexOf(',');
+                if (comma <= 0) {
+                    continue;
+                }
+                try {
+                    counts.put(line.substring(0, comma).trim(), Long.parseLong(line.substring(comma + 1).trim()));
+                } catch (NumberFormatException e) {
+                    System.err.println("SearchFrequencyCsvRepository.loadAll: Skipping bad line '" + line + "'");
+                }
+            }
+        } catch (IOException e) {
+            System.err.println("SearchFrequencyCsvRepository.loadAll: " + e.getMessage());
+        }
+
+        return counts;
+    }
+
+    /**
+     * Atomically replace the file with the given counters
+     *
+     * @param counts Product name -> search count
+     * @return true if the file was written
+     */
+    public boolean saveAll(Map<String, Long> counts) {
+        Path directory = file.toAbsolutePath().getParent();
+        Path temp = null;
+        try {
+            temp = Files.createTempFile(directory, CSV_FILE, ".tmp");
+
+            try (BufferedWriter writer = Files.newBufferedWriter(temp, StandardCharsets.UTF_8)) {
+                writer.write(HEADER);
+                writer.newLine();
+
+                for (Map.Entry<String, Long> entry : counts.entrySet()) {
+                    writer.write(entry.getKey() + "," + entry.getValue());
+                    writer.newLine();
+                }
+            }
+
+            StorageFiles.replace(temp, file);
+            return true;
+
+        } catch (IOException e) {
+            System.err.println("SearchFrequencyCsvRepository.saveAll: " + e.getMessage());
+            if (temp != null) {
+                try {
+                    Files.deleteIfExists(temp);
+                } catch (IOException ignored) {
+                    // Best effort cleanup
+                }
+            }
+            return false;
+        }
+    }
+}
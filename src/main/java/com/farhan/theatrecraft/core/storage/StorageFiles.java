@@ -0,0 +1,32 @@
+package com.farhan.theatrecraft.core.storage;
+
+import java.io.IOException;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+
+/**
+ * File helpers shared by the CSV repositories
+ */
+final class StorageFiles {
+
+    private StorageFiles() {
+    }
+
+    /**
+     * Move a fully written temp file over the target
+     * Uses an atomic rename where the filesystem supports it, so readers see
+     * either the old file or the new one; otherwise falls back to a plain replace.
+     *
+     * @param temp The written temp file
+     * @param target The file to replace
+     */
+    static void replace(Path temp, Path target) throws IOException {
+        try {
+            Files.move(temp, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        } catch (AtomicMoveNotSupportedException e) {
+            Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING);
+        }
+    }
+}
@@ -103,6 +103,7 @@ async function crawlBrand(brand) {
     try {
         showLoading(grid, `Crawling ${brand} products... This may take a few moments.`);
         
+        // The server answers right away (202) with a job; progress arrives over Server-Sent Events
         const response = await fetch(`/api/products/crawl/${brand}`, {
             method: "POST"
         });
@@ -111,12 +112,24 @@ async function crawlBrand(brand) {
             throw new Error(`Failed to crawl ${brand} products`);
         }
         
-        const crawledProducts = await response.json();
+        const job = await response.json();
+        const finishedJob = await followCrawlJob(job.id, (progress) => {
+            if (progress.total > 0) {
+                showLoading(grid, `Crawling ${brand} products... ${progress.processed}/${progress.total} pages ` +
+                    `(${progress.parsed} parsed, ${progress.failed} failed)`);
+            } else if (progress.message) {
+                showLoading(grid, `Crawling ${brand} products... ${progress.message}`);
+            }
+        });
         
         // Reload all latest products after crawling
         await loadLatestProducts();
         
-        alert(`Successfully crawled ${crawledProducts.length} products from ${brand}!`);
+        if (finishedJob.status === "COMPLETED") {
+            alert(`Successfully crawled ${finishedJob.totalProducts} products from ${brand}!`);
+        } else {
+            alert(`Crawl of ${brand} did not complete: ${finishedJob.message}`);
+        }
         
     } catch (error) {
         console.error("Error crawling brand:", error);
@@ -127,6 +140,33 @@ async function crawlBrand(brand) {
     }
 }
 
+// Subscribe to a crawl job's event stream; resolves with the finished job
+function followCrawlJob(jobId, onProgress) {
+    return new Promise((resolve, reject) => {
+        const source = new EventSource(`/api/products/crawl-jobs/${jobId}/events`);
+        
+        source.addEventListener("progress", (event) => {
+            onProgress(JSON.parse(event.data));
+        });
+        
+        source.addEventListener("done", (event) => {
+            source.close();
+            resolve(JSON.parse(event.data));
+        });
+        
+        source.onerror = () => {
+            // EventSource would reconnect forever; fall back to the job's last known state
+            source.close();
+            fetch(`/api/products/crawl-jobs/${jobId}`)
+                .then(response => response.ok ? response.json() : Promise.reject(new Error("Crawl job lost")))
+                .then(job => job.status === "COMPLETED" || job.status === "PARTIAL" || job.status === "FAILED"
+                    ? resolve(job)
+                    : reject(new Error("Lost connection to crawl progress")))
+                .catch(reject);
+        };
+    });
+}
+
 // ========================
 // SEARCH BUTTON
 // ========================
@@ -0,0 +1,60 @@
+package com.farhan.theatrecraft.core.search;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AhoCorasickTests {
+
+    @Test
+    void overlappingKeywordsAreAllCounted() {
+        AhoCorasick matcher = new AhoCorasick(List.of("arc", "arc ultra", "ultra", "sonos arc ultra"));
+        String text = "Sonos Arc Ultra vs. arc ultra, or just the ULTRA!";
+
+        int[] counts = matcher.countWholeWords(text);
+        assertEquals(List.of("arc", "arc ultra", "ultra", "sonos arc ultra"), matcher.getKeywords());
+        assertArrayEquals(new int[]{2, 2, 3, 1}, counts);
+        assertEquals(8, matcher.countAllWholeWords(text));
+    }
+
+    @Test
+    void keywordsInsideLongerWordsAreNotWholeWords() {
+        AhoCorasick matcher = new AhoCorasick(List.of("he", "she", "his", "hers", "sound", "bar"));
+
+        // Classic overlapping set: every keyword occurs inside "ushers", none as a word
+        assertArrayEquals(new int[]{0, 0, 0, 0, 0, 0}, matcher.countWholeWords("ushers soundbar"));
+        assertArrayEquals(new int[]{1, 1, 1, 1, 1, 1}, matcher.countWholeWords("she said he, hers - his sound bar"));
+    }
+
+    @Test
+    void countsAgreeWithBoyerMoore() {
+        List<String> keywords = List.of("ab", "abab", "ba", "b", "aab", "bab");
+        AhoCorasick matcher = new AhoCorasick(keywords);
+        Random random = new Random(9);
+        for (int trial = 0; trial < 500; trial++) {
+            StringBuilder text = new StringBuilder();
+            int length = random.nextInt(40);
+            for (int i = 0; i < length; i++) {
+                int r = random.nextInt(5);
+                text.append(r == 0 ? ' ' : r == 1 ? 'A' : r == 2 ? 'a' : 'b');
+            }
+
+            int[] counts = matcher.countWholeWords(text.toString());
+            for (int k = 0; k < keywords.size(); k++) {
+                assertEquals(BoyerMoore.countWholeWordOccurrences(text.toString(), keywords.get(k)), counts[k],
+                        keywords.get(k) + " in \"" + text + "\"");
+            }
+        }
+    }
+
+    @Test
+    void duplicatesAndEmptyKeywordsAreIgnored() {
+        AhoCorasick matcher = new AhoCorasick(List.of("Atmos", "atmos", ""));
+        assertEquals(List.of("atmos"), matcher.getKeywords());
+        assertArrayEquals(new int[]{2}, matcher.countWholeWords("Dolby Atmos; ATMOS"));
+        assertArrayEquals(new int[]{0}, matcher.countWholeWords(null));
+    }
+}
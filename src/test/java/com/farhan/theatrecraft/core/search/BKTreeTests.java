@@ -0,0 +1,104 @@
+package com.farhan.theatrecraft.core.search;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BKTreeTests {
+
+    @Test
+    void nearestMatchesAgreeWithBruteForce() {
+        Random random = new Random(5);
+        Set<String> words = new LinkedHashSet<>();
+        while (words.size() < 400) {
+            String word = randomWord(random, 10);
+            if (!word.isEmpty()) {
+                words.add(word); // Blank words are not inserted
+            }
+        }
+        BKTree tree = new BKTree();
+        words.forEach(tree::insert);
+        assertEquals(words.size(), tree.size());
+
+        List<String> wordList = new ArrayList<>(words);
+        for (int trial = 0; trial < 300; trial++) {
+            String query = random.nextBoolean()
+                    ? mutate(random, wordList.get(random.nextInt(wordList.size())))
+                    : randomWord(random, 10);
+            int k = 1 + random.nextInt(5);
+            int maxDistance = random.nextInt(4);
+
+            List<BKTree.Match> matches = tree.findNearest(query, k, maxDistance);
+
+            // Ties make the words ambiguous, so compare the distances
+            List<Integer> expected = new ArrayList<>();
+            for (String word : words) {
+                int distance = EditDistance.calculate(word, query);
+                if (distance <= maxDistance) {
+                    expected.add(distance);
+                }
+            }
+            expected.sort(null);
+            expected = expected.subList(0, Math.min(k, expected.size()));
+
+            List<Integer> actual = new ArrayList<>();
+            for (BKTree.Match match : matches) {
+                assertEquals(EditDistance.calculate(match.getWord(), query), match.getDistance(), match.getWord());
+                actual.add(match.getDistance());
+            }
+            assertEquals(expected, actual, "query " + query + " k " + k + " max " + maxDistance);
+        }
+    }
+
+    @Test
+    void wordsAreComparedIgnoringCaseAndKeepTheirText() {
+        BKTree tree = new BKTree();
+        tree.insert("Arc Ultra");
+        tree.insert("arc ultra"); // Same key, not added again
+        tree.insert("Beam Gen 2");
+        assertEquals(2, tree.size());
+
+        List<BKTree.Match> matches = tree.findNearest("ARC ULTRE", 1, 2);
+        assertEquals(1, matches.size());
+        assertEquals("Arc Ultra", matches.get(0).getWord());
+        assertEquals(1, matches.get(0).getDistance());
+
+        assertTrue(tree.findNearest("soundbar", 3, 1).isEmpty());
+    }
+
+    // Small alphabet, so random pairs share characters
+    static String randomWord(Random random, int maxLength) {
+        int length = random.nextInt(maxLength + 1);
+        StringBuilder word = new StringBuilder(length);
+        for (int i = 0; i < length; i++) {
+            word.append((char) ('a' + random.nextInt(4)));
+        }
+        return word.toString();
+    }
+
+    /**
+     * Apply a few random inserts, deletes and replacements
+     */
+    static String mutate(Random random, String word) {
+        StringBuilder result = new StringBuilder(word);
+        int edits = random.nextInt(5);
+        for (int e = 0; e < edits; e++) {
+            int op = random.nextInt(3);
+            char c = (char) ('a' + random.nextInt(4));
+            if (op == 0 || result.length() == 0) {
+                result.insert(random.nextInt(result.length() + 1), c);
+            } else if (op == 1) {
+                result.deleteCharAt(random.nextInt(result.length()));
+            } else {
+                result.setCharAt(random.nextInt(result.length()), c);
+            }
+        }
+        return result.toString();
+    }
+}
@@ -0,0 +1,122 @@
+package com.farhan.theatrecraft.core.search;
+
+import com.farhan.theatrecraft.core.model.Product;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CompactTrieTests {
+
+    // Shared words, so the radix trie has to split and merge edges
+    private static final String[] PARTS = {"arc", "ar", "a", "beam", "be", "sub", "sound", "bar", "mini", "ultra", "gen"};
+
+    @Test
+    void unrankedCompletionsMatchHashMapTrie() {
+        List<Product> products = randomProducts(new Random(1), 300);
+        Trie hashTrie = new Trie(null, 0, false);
+        Trie compactTrie = new Trie(null, 0, true);
+        for (Product product : products) {
+            hashTrie.insert(product.getModelName(), product);
+            compactTrie.insert(product.getModelName(), product);
+        }
+
+        assertEquals(new HashSet<>(hashTrie.getAllProducts()), new HashSet<>(compactTrie.getAllProducts()));
+        for (String prefix : prefixes(products)) {
+            // The backends visit children in different orders, so compare as sets
+            assertEquals(new HashSet<>(hashTrie.searchByPrefix(prefix, 0, Integer.MAX_VALUE)),
+                    new HashSet<>(compactTrie.searchByPrefix(prefix, 0, Integer.MAX_VALUE)), "prefix " + prefix);
+        }
+    }
+
+    @Test
+    void rankedCompletionsMatchHashMapTrieAfterPromotions() {
+        Random random = new Random(2);
+        List<Product> products = randomProducts(random, 300);
+        Map<String, Long> counts = new HashMap<>();
+        Comparator<Product> ranking = Comparator
+                .comparingLong((Product p) -> counts.getOrDefault(p.getModelName(), 0L)).reversed()
+                .thenComparing(Product::getModelName);
+
+        Trie hashTrie = new Trie(ranking, 5, false);
+        Trie compactTrie = new Trie(ranking, 5, true);
+        for (Product product : products) {
+            hashTrie.insert(product.getModelName(), product);
+            compactTrie.insert(product.getModelName(), product);
+        }
+        assertRankedEqual(hashTrie, compactTrie, products);
+
+        // Counts only grow, and each promote follows the increase, as in SearchService
+        for (int i = 0; i < 2000; i++) {
+            String name = products.get(random.nextInt(products.size())).getModelName();
+            counts.merge(name, 1L, Long::sum);
+            hashTrie.promote(name);
+            compactTrie.promote(name);
+        }
+        assertRankedEqual(hashTrie, compactTrie, products);
+    }
+
+    @Test
+    void putReplacesValueAndCollectsInKeyOrder() {
+        CompactTrie<Integer> trie = new CompactTrie<>();
+        trie.put("arc ultra", 1);
+        trie.put("arc", 2);
+        trie.put("arc mini", 3);
+        trie.put("arc", 4);
+        assertEquals(3, trie.size());
+        assertEquals(Integer.valueOf(4), trie.get("arc"));
+        assertNull(trie.get("ar"));
+
+        List<String> keys = new ArrayList<>();
+        trie.collectByPrefix("arc", 10, (key, value) -> keys.add(key));
+        assertEquals(List.of("arc", "arc mini", "arc ultra"), keys);
+
+        keys.clear();
+        trie.collectByPrefix("arc m", 10, (key, value) -> keys.add(key));
+        assertEquals(List.of("arc mini"), keys);
+    }
+
+    private static void assertRankedEqual(Trie hashTrie, Trie compactTrie, List<Product> products) {
+        for (String prefix : prefixes(products)) {
+            assertEquals(hashTrie.searchByPrefix(prefix, 0, 5), compactTrie.searchByPrefix(prefix, 0, 5),
+                    "prefix " + prefix);
+        }
+    }
+
+    /**
+     * Every prefix of every name, plus some that match nothing
+     */
+    private static List<String> prefixes(List<Product> products) {
+        List<String> prefixes = new ArrayList<>(List.of("", "x", "arcx", "sound bar z"));
+        for (Product product : products) {
+            String name = product.getModelName();
+            for (int i = 1; i <= name.length(); i++) {
+                prefixes.add(name.substring(0, i));
+            }
+        }
+        return prefixes;
+    }
+
+    private static List<Product> randomProducts(Random random, int count) {
+        List<Product> products = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            StringBuilder name = new StringBuilder();
+            int words = 1 + random.nextInt(3);
+            for (int w = 0; w < words; w++) {
+                name.append(w > 0 ? " " : "").append(PARTS[random.nextInt(PARTS.length)]);
+            }
+            Product product = new Product();
+            product.setId("p" + i);
+            product.setModelName(name.toString());
+            products.add(product);
+        }
+        return products;
+    }
+}
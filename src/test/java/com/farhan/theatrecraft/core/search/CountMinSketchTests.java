@@ -0,0 +1,79 @@
+package com.farhan.theatrecraft.core.search;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CountMinSketchTests {
+
+    @Test
+    void estimatesNeverUndercountAndStayWithinBound() {
+        CountMinSketch sketch = new CountMinSketch(272, 5); // epsilon = 1%
+        Map<String, Long> exact = new HashMap<>();
+        Random random = new Random(7);
+        for (int i = 0; i < 20_000; i++) {
+            // Skewed stream: a few hot queries and a long tail
+            String key = "query " + (random.nextInt(10) < 7 ? random.nextInt(10) : random.nextInt(5000));
+            sketch.add(key);
+            exact.merge(key, 1L, Long::sum);
+        }
+
+        assertEquals(20_000, sketch.getTotalCount());
+        int overBound = 0;
+        for (Map.Entry<String, Long> entry : exact.entrySet()) {
+            long estimate = sketch.estimate(entry.getKey());
+            assertTrue(estimate >= entry.getValue(), "undercounted " + entry.getKey());
+            if (estimate - entry.getValue() > sketch.getErrorBound()) {
+                overBound++;
+            }
+        }
+        // Each estimate may exceed the bound with probability delta = e^-5 (under 1%)
+        assertTrue(overBound <= exact.size() * 0.02, overBound + " estimates over the error bound");
+    }
+
+    @Test
+    void keysWithEqualStringHashAreCountedApart() {
+        // "Aa" and "BB" share String.hashCode(); rows hash the characters independently
+        assertEquals("Aa".hashCode(), "BB".hashCode());
+        CountMinSketch sketch = new CountMinSketch(1000, 4);
+        for (int i = 0; i < 10; i++) {
+            sketch.add("Aa");
+        }
+        assertEquals(10, sketch.estimate("Aa"));
+        assertEquals(0, sketch.estimate("BB"));
+    }
+
+    @Test
+    void concurrentAddsAreNotLost() throws InterruptedException {
+        CountMinSketch sketch = new CountMinSketch(64, 3);
+        List<Thread> threads = new ArrayList<>();
+        for (int t = 0; t < 8; t++) {
+            threads.add(Thread.ofPlatform().start(() -> {
+                for (int i = 0; i < 10_000; i++) {
+                    sketch.add("hot");
+                }
+            }));
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        assertEquals(80_000, sketch.estimate("hot"));
+        assertEquals(80_000, sketch.getTotalCount());
+    }
+
+    @Test
+    void weightedAddAndClear() {
+        CountMinSketch sketch = new CountMinSketch(100, 3);
+        assertEquals(42, sketch.add("saved", 42));
+        assertEquals(43, sketch.add("saved"));
+        sketch.clear();
+        assertEquals(0, sketch.estimate("saved"));
+        assertEquals(0, sketch.getTotalCount());
+    }
+}
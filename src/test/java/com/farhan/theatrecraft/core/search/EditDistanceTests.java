@@ -0,0 +1,77 @@
+package com.farhan.theatrecraft.core.search;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class EditDistanceTests {
+
+    @Test
+    void bandedDistanceMatchesFullTable() {
+        Random random = new Random(11);
+        for (int trial = 0; trial < 2000; trial++) {
+            String a = BKTreeTests.randomWord(random, 12);
+            String b = random.nextBoolean() ? BKTreeTests.mutate(random, a) : BKTreeTests.randomWord(random, 12);
+            int exact = fullTable(a, b);
+
+            assertEquals(exact, EditDistance.calculate(a, b, Integer.MAX_VALUE), a + " / " + b);
+            for (int max = 0; max <= 6; max++) {
+                // Within the band the exact distance, beyond it max + 1
+                int expected = exact <= max ? exact : max + 1;
+                assertEquals(expected, EditDistance.calculate(a, b, max), a + " / " + b + " max " + max);
+            }
+        }
+    }
+
+    @Test
+    void distanceAtAndJustBeyondTheBand() {
+        // kitten -> sitting is 3 edits
+        assertEquals(3, EditDistance.calculate("kitten", "sitting", 3));
+        assertEquals(3, EditDistance.calculate("sitting", "kitten", 3));
+        assertEquals(3, EditDistance.calculate("kitten", "sitting", 2));
+
+        // Length difference alone puts "arc" 5 edits from "arc mini"
+        assertEquals(5, EditDistance.calculate("arc", "arc mini", 5));
+        assertEquals(5, EditDistance.calculate("arc", "arc mini", 4));
+
+        // Edits spread along the diagonal: every row stays inside a band of 1
+        assertEquals(1, EditDistance.calculate("soundbar", "soundbat", 1));
+        assertEquals(2, EditDistance.calculate("soundbar", "zoundbat", 1));
+    }
+
+    @Test
+    void emptyAndNullInputs() {
+        assertEquals(0, EditDistance.calculate("", "", 0));
+        assertEquals(5, EditDistance.calculate("", "sonos", 10));
+        assertEquals(3, EditDistance.calculate("", "sonos", 2));
+        assertEquals(Integer.MAX_VALUE, EditDistance.calculate(null, "sonos", 2));
+    }
+
+    @Test
+    void unboundedCallIgnoresCaseAndSurroundingSpaces() {
+        assertEquals(0, EditDistance.calculate("  Arc Ultra ", "arc ultra"));
+        assertEquals(1, EditDistance.calculate("Arc Ultra", "ARC ULTRE"));
+    }
+
+    /**
+     * Textbook Levenshtein table, every cell filled
+     */
+    private static int fullTable(String a, String b) {
+        int[][] d = new int[a.length() + 1][b.length() + 1];
+        for (int i = 0; i <= a.length(); i++) {
+            d[i][0] = i;
+        }
+        for (int j = 0; j <= b.length(); j++) {
+            d[0][j] = j;
+        }
+        for (int i = 1; i <= a.length(); i++) {
+            for (int j = 1; j <= b.length(); j++) {
+                int replace = d[i - 1][j - 1] + (a.charAt(i - 1) == b.charAt(j - 1) ? 0 : 1);
+                d[i][j] = Math.min(replace, Math.min(d[i - 1][j], d[i][j - 1]) + 1);
+            }
+        }
+        return d[a.length()][b.length()];
+    }
+}
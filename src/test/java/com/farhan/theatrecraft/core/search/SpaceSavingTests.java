@@ -0,0 +1,90 @@
+package com.farhan.theatrecraft.core.search;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SpaceSavingTests {
+
+    @Test
+    void heavyHittersAreMonitoredWithinTheErrorBound() {
+        SpaceSaving summary = new SpaceSaving(50);
+        Map<String, Long> exact = skewedStream(new Random(4), 20_000, summary::add);
+
+        assertEquals(20_000, summary.getTotalCount());
+        assertHeavyHittersFound(summary.getTop(50), exact, 20_000 / 50, summary.getErrorBound());
+    }
+
+    @Test
+    void stripedHeavyHittersAreMonitoredWithinTheErrorBound() {
+        StripedSpaceSaving summary = new StripedSpaceSaving(128);
+        assertEquals(16, summary.getStripeCount());
+        Map<String, Long> exact = skewedStream(new Random(4), 20_000, summary::add);
+
+        assertEquals(20_000, summary.getTotalCount());
+        // A stripe only sees its own keys, so its bound is what a key can be overcounted by
+        assertHeavyHittersFound(summary.getTop(summary.getCapacity()), exact, summary.getErrorBound(),
+                summary.getErrorBound());
+    }
+
+    @Test
+    void newKeyInheritsTheReplacedMinimum() {
+        SpaceSaving summary = new SpaceSaving(2);
+        summary.add("arc", 5);
+        summary.add("beam", 2);
+        summary.add("era"); // Replaces beam, may have been seen up to 2 times before
+
+        List<SpaceSaving.HeavyHitter> top = summary.getTop(2);
+        assertEquals("arc", top.get(0).getKey());
+        assertEquals(5, top.get(0).getCount());
+        assertEquals("era", top.get(1).getKey());
+        assertEquals(3, top.get(1).getCount());
+        assertEquals(2, top.get(1).getError());
+        assertEquals(8, summary.getTotalCount());
+    }
+
+    @Test
+    void capacityMustBePositive() {
+        assertThrows(IllegalArgumentException.class, () -> new SpaceSaving(0));
+        assertThrows(IllegalArgumentException.class, () -> new StripedSpaceSaving(0));
+    }
+
+    /**
+     * Every key above the threshold is reported, and no count is under the
+     * true count or over it by more than the bound
+     */
+    private static void assertHeavyHittersFound(List<SpaceSaving.HeavyHitter> top, Map<String, Long> exact,
+                                                long threshold, long errorBound) {
+        Map<String, SpaceSaving.HeavyHitter> reported = new HashMap<>();
+        for (SpaceSaving.HeavyHitter hitter : top) {
+            reported.put(hitter.getKey(), hitter);
+            long count = exact.getOrDefault(hitter.getKey(), 0L);
+            assertTrue(hitter.getCount() >= count, "undercounted " + hitter.getKey());
+            assertTrue(hitter.getCount() - hitter.getError() <= count, "lower bound above " + hitter.getKey());
+            assertTrue(hitter.getCount() - count <= errorBound, "overcounted " + hitter.getKey());
+        }
+        for (Map.Entry<String, Long> entry : exact.entrySet()) {
+            if (entry.getValue() > threshold) {
+                assertTrue(reported.containsKey(entry.getKey()), "missed heavy hitter " + entry.getKey());
+            }
+        }
+    }
+
+    /**
+     * A few hot queries and a long tail, counted exactly on the side
+     */
+    private static Map<String, Long> skewedStream(Random random, int length, java.util.function.Consumer<String> sink) {
+        Map<String, Long> exact = new HashMap<>();
+        for (int i = 0; i < length; i++) {
+            String key = "query " + (random.nextInt(10) < 6 ? random.nextInt(8) : 8 + random.nextInt(3000));
+            sink.accept(key);
+            exact.merge(key, 1L, Long::sum);
+        }
+        return exact;
+    }
+}
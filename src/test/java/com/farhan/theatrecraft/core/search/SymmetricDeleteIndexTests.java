@@ -0,0 +1,77 @@
+package com.farhan.theatrecraft.core.search;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SymmetricDeleteIndexTests {
+
+    @Test
+    void lookupAgreesWithBruteForce() {
+        Random random = new Random(3);
+        Set<String> words = new LinkedHashSet<>();
+        while (words.size() < 400) {
+            String word = BKTreeTests.randomWord(random, 12);
+            if (!word.isEmpty()) {
+                words.add(word);
+            }
+        }
+        // Short prefix, so long words are only indexed by their first characters
+        SymmetricDeleteIndex index = new SymmetricDeleteIndex(2, 5);
+        words.forEach(index::add);
+        assertEquals(words.size(), index.size());
+
+        List<String> wordList = new ArrayList<>(words);
+        for (int trial = 0; trial < 300; trial++) {
+            String query = BKTreeTests.mutate(random, wordList.get(random.nextInt(wordList.size())));
+            if (query.isEmpty()) {
+                continue;
+            }
+
+            List<String> expected = new ArrayList<>();
+            for (String word : words) {
+                if (EditDistance.calculate(query, word) <= 2) {
+                    expected.add(word);
+                }
+            }
+            expected.sort(Comparator.comparingInt((String w) -> EditDistance.calculate(query, w))
+                    .thenComparing(w -> w));
+
+            assertEquals(expected, index.lookup(query, Integer.MAX_VALUE), "query " + query);
+        }
+    }
+
+    @Test
+    void lookupIsLimitedAndOrderedByDistance() {
+        SymmetricDeleteIndex index = new SymmetricDeleteIndex();
+        for (String word : List.of("soundbar", "soundbars", "subwoofer", "sonos", "speaker")) {
+            index.add(word);
+        }
+
+        assertEquals(List.of("soundbar", "soundbars"), index.lookup("soundbar", 5));
+        assertEquals(List.of("soundbar"), index.lookup("sundbar", 1));
+        assertEquals(List.of("sonos"), index.lookup("snos", 5));
+        assertTrue(index.lookup("headphones", 5).isEmpty());
+        assertTrue(index.contains("sonos"));
+        assertFalse(index.contains("sonoss"));
+    }
+
+    @Test
+    void shortWordsMatchEachOther() {
+        SymmetricDeleteIndex index = new SymmetricDeleteIndex();
+        for (String word : List.of("a", "tv", "hd", "arc")) {
+            index.add(word);
+        }
+
+        // "ab" -> "tv" replaces both characters: reachable only through the "" delete
+        assertEquals(List.of("a", "arc", "hd", "tv"), index.lookup("ab", 5));
+        assertEquals(List.of("tv", "a", "hd"), index.lookup("tv", 5));
+    }
+}
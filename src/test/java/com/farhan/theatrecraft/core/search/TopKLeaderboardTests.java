@@ -0,0 +1,68 @@
+package com.farhan.theatrecraft.core.search;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TopKLeaderboardTests {
+
+    @Test
+    void boardMatchesSortedCounts() {
+        TopKLeaderboard board = new TopKLeaderboard(10);
+        Map<String, Long> counts = new HashMap<>();
+        Random random = new Random(8);
+        for (int i = 0; i < 5000; i++) {
+            String term = "term " + random.nextInt(200);
+            board.update(term, counts.merge(term, 1L, Long::sum));
+        }
+
+        List<Map.Entry<String, Long>> sorted = new ArrayList<>(counts.entrySet());
+        sorted.sort(Map.Entry.<String, Long>comparingByValue().reversed().thenComparing(Map.Entry.comparingByKey()));
+
+        List<SearchFrequency> top = board.getTop(10);
+        assertEquals(10, top.size());
+        for (int i = 0; i < 10; i++) {
+            assertEquals(sorted.get(i).getKey(), top.get(i).getSearchTerm());
+            assertEquals((long) sorted.get(i).getValue(), top.get(i).getCount());
+        }
+    }
+
+    @Test
+    void staleUpdateIsIgnored() {
+        TopKLeaderboard board = new TopKLeaderboard(3);
+        board.update("arc", 5);
+        board.update("arc", 3); // From a thread that read the counter earlier
+        assertEquals(5, board.getTop(1).get(0).getCount());
+    }
+
+    @Test
+    void snapshotIsReusedUntilTheBoardChanges() {
+        TopKLeaderboard board = new TopKLeaderboard(2);
+        board.update("arc", 2);
+        board.update("beam", 1);
+        List<SearchFrequency> first = board.getTop(2);
+        assertSame(first, board.getTop(2));
+
+        board.update("era", 3); // Displaces beam
+        List<SearchFrequency> second = board.getTop(2);
+        assertEquals(List.of("era", "arc"), second.stream().map(SearchFrequency::getSearchTerm).toList());
+        assertEquals(1, board.getTop(1).size());
+    }
+
+    @Test
+    void lowerCountDoesNotEnterAFullBoard() {
+        TopKLeaderboard board = new TopKLeaderboard(2);
+        board.update("arc", 4);
+        board.update("beam", 4);
+        board.update("era", 1);
+        assertEquals(List.of("arc", "beam"),
+                board.getTop(2).stream().map(SearchFrequency::getSearchTerm).sorted(Comparator.naturalOrder()).toList());
+    }
+}
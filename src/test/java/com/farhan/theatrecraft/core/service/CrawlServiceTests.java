@@ -0,0 +1,221 @@
+package com.farhan.theatrecraft.core.service;
+
+import com.farhan.theatrecraft.core.crawler.CrawlContext;
+import com.farhan.theatrecraft.core.crawler.ProductCrawler;
+import com.farhan.theatrecraft.core.model.Brand;
+import com.farhan.theatrecraft.core.model.CrawlJob;
+import com.farhan.theatrecraft.core.model.CrawlProgress;
+import com.farhan.theatrecraft.core.model.Product;
+import com.farhan.theatrecraft.core.storage.CrawlCheckpointRepository;
+import com.farhan.theatrecraft.core.storage.ProductCsvRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CrawlServiceTests {
+
+    @TempDir
+    Path checkpointDir;
+
+    private SearchService searchService;
+    private CrawlCheckpointRepository checkpoints;
+    private volatile boolean saveSucceeds = true;
+
+    @AfterEach
+    void tearDown() {
+        if (searchService != null) {
+            searchService.shutdown();
+        }
+    }
+
+    @Test
+    void reparsedIdenticalProductIsUnchanged() throws Exception {
+        List<Product> saved = new ArrayList<>(List.of(
+                product("https://bose.example/a", 499.0),
+                product("https://bose.example/b", 299.0),
+                product("https://bose.example/c", 199.0)));
+
+        // Every page parsed again into new objects with new ids: a unchanged, b repriced, c gone, d new
+        ProductCrawler crawler = crawler(Brand.BOSE, null, List.of(
+                product("https://bose.example/a", 499.0),
+                product("https://bose.example/b", 249.0),
+                product("https://bose.example/d", 99.0)));
+
+        CrawlService service = newService(saved, 1, crawler);
+        CrawlJob job = service.startCrawlBrand(Brand.BOSE, false);
+        waitUntilFinished(job);
+
+        CrawlJob.BrandProgress progress = job.getBrand(Brand.BOSE);
+        assertEquals(CrawlJob.Status.COMPLETED, progress.getStatus());
+        assertEquals(1, progress.getAddedCount());
+        assertEquals(1, progress.getUpdatedCount());
+        assertEquals(1, progress.getUnchangedCount());
+        assertEquals(1, progress.getRemovedCount());
+    }
+
+    @Test
+    void urlLessAndDuplicateProductsAreNotRemovals() throws Exception {
+        List<Product> saved = new ArrayList<>(List.of(
+                product("https://bose.example/a", 499.0),
+                product("https://bose.example/a", 499.0),
+                product("", 99.0)));
+        ProductCrawler crawler = crawler(Brand.BOSE, null, List.of(product("https://bose.example/a", 499.0)));
+
+        CrawlService service = newService(saved, 1, crawler);
+        CrawlJob job = service.startCrawlBrand(Brand.BOSE, false);
+        waitUntilFinished(job);
+
+        CrawlJob.BrandProgress progress = job.getBrand(Brand.BOSE);
+        assertEquals(1, progress.getUnchangedCount());
+        assertEquals(0, progress.getRemovedCount());
+    }
+
+    @Test
+    void brandWithCheckpointOwnedElsewhereStillFinishes() throws Exception {
+        CountDownLatch gate = new CountDownLatch(1);
+        ProductCrawler bose = crawler(Brand.BOSE, gate, List.of(product("https://bose.example/a", 499.0)));
+        ProductCrawler sonos = crawler(Brand.SONOS, null, List.of(product("https://sonos.example/a", 899.0)));
+        // One permit: the Sonos job waits for it while Bose holds it, so its events can be observed
+        CrawlService service = newService(new ArrayList<>(), 1, bose, sonos);
+        checkpoints.open(Brand.SONOS, "other-job", false);
+
+        CrawlJob boseJob = service.startCrawlBrand(Brand.BOSE, false);
+        long deadline = System.currentTimeMillis() + 5000;
+        while (boseJob.getBrand(Brand.BOSE).getStatus() != CrawlJob.Status.RUNNING) {
+            assertTrue(System.currentTimeMillis() < deadline, "timed out waiting for the Bose crawl");
+            Thread.sleep(10);
+        }
+        CrawlJob sonosJob = service.startCrawlBrand(Brand.SONOS, false);
+        List<CrawlProgress> events = new CopyOnWriteArrayList<>();
+        sonosJob.addListener(events::add);
+        gate.countDown();
+        waitUntilFinished(sonosJob);
+        waitUntilFinished(boseJob);
+
+        assertEquals(CrawlJob.Status.FAILED, sonosJob.getBrand(Brand.SONOS).getStatus());
+        assertTrue(events.stream().anyMatch(e -> e.getType() == CrawlProgress.Type.BRAND_FINISHED
+                && e.getBrand() == Brand.SONOS), "no BRAND_FINISHED for Sonos");
+    }
+
+    @Test
+    void runningBrandRejectsTheOtherMode() throws Exception {
+        CountDownLatch gate = new CountDownLatch(1);
+        ProductCrawler crawler = crawler(Brand.BOSE, gate, List.of(product("https://bose.example/a", 499.0)));
+        CrawlService service = newService(new ArrayList<>(), 1, crawler);
+
+        CrawlJob full = service.startCrawlBrand(Brand.BOSE, false);
+        try {
+            assertSame(full, service.startCrawlBrand(Brand.BOSE, false));
+            assertThrows(IllegalStateException.class, () -> service.startCrawlBrand(Brand.BOSE, true));
+        } finally {
+            gate.countDown();
+        }
+        waitUntilFinished(full);
+    }
+
+    @Test
+    void unsavedCrawlFailsAndKeepsCheckpoint() throws Exception {
+        List<Product> saved = new ArrayList<>(List.of(product("https://bose.example/a", 499.0)));
+        ProductCrawler crawler = crawler(Brand.BOSE, null, List.of(
+                product("https://bose.example/a", 449.0),
+                product("https://bose.example/b", 299.0)));
+        CrawlService service = newService(saved, 1, crawler);
+        saveSucceeds = false;
+
+        CrawlJob job = service.startCrawlBrand(Brand.BOSE, false);
+        waitUntilFinished(job);
+
+        assertEquals(CrawlJob.Status.FAILED, job.getStatus());
+        assertEquals(1, service.getAllProducts().size(), "unsaved products should not be published");
+        assertEquals(499.0, service.getAllProducts().get(0).getPrice());
+
+        // The checkpoint survives, released for the next crawl to resume
+        List<CrawlCheckpointRepository.Checkpoint> unfinished = checkpoints.findUnfinished();
+        assertEquals(1, unfinished.size());
+        assertEquals(Brand.BOSE, unfinished.get(0).getBrand());
+        assertEquals(2, unfinished.get(0).getProducts().size());
+    }
+
+    private CrawlService newService(List<Product> saved, int maxConcurrentBrands, ProductCrawler... crawlers) {
+        searchService = SearchServiceTests.newService("exact");
+        ProductCsvRepository repository = new ProductCsvRepository() {
+            @Override
+            public List<Product> loadAll() {
+                return new ArrayList<>(saved);
+            }
+
+            @Override
+            public boolean saveAll(List<Product> products) {
+                if (!saveSucceeds) {
+                    return false;
+                }
+                saved.clear();
+                saved.addAll(products);
+                return true;
+            }
+        };
+        checkpoints = new CrawlCheckpointRepository(checkpointDir.toString(), 24);
+        CrawlService service = new CrawlService(repository, checkpoints, List.of(crawlers), searchService,
+                maxConcurrentBrands, false);
+        service.init();
+        return service;
+    }
+
+    private static void waitUntilFinished(CrawlJob job) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 5000;
+        while (!job.isFinished()) {
+            assertTrue(System.currentTimeMillis() < deadline, "timed out waiting for the crawl");
+            Thread.sleep(10);
+        }
+    }
+
+    /**
+     * Reports each given product as a freshly parsed page
+     *
+     * @param gate Held until opened before crawling (null = crawl right away)
+     */
+    private static ProductCrawler crawler(Brand brand, CountDownLatch gate, List<Product> pages) {
+        return new ProductCrawler() {
+            @Override
+            public Brand getBrand() {
+                return brand;
+            }
+
+            @Override
+            public List<Product> crawlProducts(CrawlContext context) {
+                if (gate != null) {
+                    try {
+                        gate.await();
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                        return List.of();
+                    }
+                }
+                context.urlsFound(pages.size());
+                for (Product page : pages) {
+                    context.productParsed(page.getProductUrl(), page);
+                }
+                return pages;
+            }
+        };
+    }
+
+    private static Product product(String url, double price) {
+        Product product = new Product();
+        product.setId(UUID.randomUUID().toString());
+        product.setBrand(url.contains("sonos") ? Brand.SONOS : Brand.BOSE);
+        product.setModelName("Model " + url.substring(url.lastIndexOf('/') + 1));
+        product.setProductUrl(url);
+        product.setPrice(price);
+        return product;
+    }
+}
@@ -0,0 +1,165 @@
+package com.farhan.theatrecraft.core.service;
+
+import com.farhan.theatrecraft.core.storage.PageContentStore;
+import com.sun.net.httpserver.HttpServer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PageCorpusIndexTests {
+
+    @TempDir
+    Path storeDir;
+
+    private HttpServer server;
+    private volatile String pageWord = "alpha";
+    private String baseUrl;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        // /page/<n> answers "<pageWord> soundbar <n>" plus padding, so pages weigh about 1 KB
+        server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), 0);
+        server.createContext("/page/", exchange -> {
+            String n = exchange.getRequestURI().getPath().substring("/page/".length());
+            String html = "<html><body>" + pageWord + " soundbar " + n + " " + "x".repeat(400) + "</body></html>";
+            byte[] body = html.getBytes(StandardCharsets.UTF_8);
+            exchange.getResponseHeaders().set("Content-Type", "text/html; charset=utf-8");
+            exchange.sendResponseHeaders(200, body.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(body);
+            }
+        });
+        server.start();
+        baseUrl = "http://127.0.0.1:" + server.getAddress().getPort() + "/page/";
+    }
+
+    @AfterEach
+    void tearDown() {
+        server.stop(0);
+    }
+
+    @Test
+    void expiredPageIsReindexed() throws Exception {
+        // A 0 minute TTL: every entry is expired a millisecond after it is cached
+        URLContentCache cache = cache(1 << 20, 0);
+        PageCorpusIndex index = index(cache);
+        String url = baseUrl + "1";
+
+        assertTrue(index.ensureIndexed(url));
+        assertEquals(1, index.getPostings(List.of("alpha"), Set.of(url)).size());
+
+        pageWord = "beta";
+        Thread.sleep(5);
+        assertTrue(index.ensureIndexed(url));
+        assertTrue(index.getPostings(List.of("alpha"), Set.of(url)).isEmpty(), "stale postings should be replaced");
+        assertEquals(1, index.getPostings(List.of("beta"), Set.of(url)).size());
+    }
+
+    @Test
+    void evictedPagesLeaveTheIndex() {
+        // Room for only a few ~1 KB pages
+        URLContentCache cache = cache(4000, 60);
+        PageCorpusIndex index = index(cache);
+
+        for (int i = 0; i < 20; i++) {
+            assertNotNull(cache.getContent(baseUrl + i));
+        }
+
+        assertTrue(cache.getCacheSize() < 20);
+        assertEquals(cache.getCacheSize(), index.getIndexedPageCount());
+    }
+
+    @Test
+    void corpusLargerThanCacheIsFullyCounted() {
+        // Room for only a few ~1 KB pages: most are evicted before the query ends
+        URLContentCache cache = cache(4000, 60);
+        PageCorpusIndex index = index(cache);
+        PageFetchPipeline pipeline = new PageFetchPipeline(4, 30);
+        ReflectionTestUtils.setField(pipeline, "corpusIndex", index);
+
+        List<String> urls = new ArrayList<>();
+        for (int i = 0; i < 20; i++) {
+            urls.add(baseUrl + i);
+        }
+        PageFetchPipeline.FetchReport report = pipeline.findOccurrences("alpha soundbar", urls);
+
+        assertEquals(20, report.getIndexedURLs().size());
+        assertEquals(20, report.getOccurrences().size());
+        report.getOccurrences().values().forEach(count -> assertEquals(2, count));
+        assertTrue(cache.getCacheSize() < 20);
+    }
+
+    @Test
+    void warmQueryIsAnsweredFromPostings() {
+        AtomicInteger contentReads = new AtomicInteger();
+        PageContentStore store = new PageContentStore(storeDir.toString(), false, 1 << 20, 60);
+        URLContentCache cache = new URLContentCache(store, 1 << 20, 60, 5) {
+            @Override
+            public String getContent(String url) {
+                contentReads.incrementAndGet();
+                return super.getContent(url);
+            }
+        };
+        PageCorpusIndex index = index(cache);
+        PageFetchPipeline pipeline = new PageFetchPipeline(4, 30);
+        ReflectionTestUtils.setField(pipeline, "corpusIndex", index);
+
+        List<String> urls = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            urls.add(baseUrl + i);
+        }
+        PageFetchPipeline.FetchReport cold = pipeline.findOccurrences("alpha", urls);
+        int coldReads = contentReads.get();
+        PageFetchPipeline.FetchReport warm = pipeline.findOccurrences("alpha", urls);
+
+        assertEquals(cold.getOccurrences(), warm.getOccurrences());
+        assertEquals(5, warm.getIndexedURLs().size());
+        assertEquals(coldReads, contentReads.get(), "a warm query should not touch the cache per URL");
+    }
+
+    @Test
+    void invalidateAndClearRemovePostings() {
+        URLContentCache cache = cache(1 << 20, 60);
+        PageCorpusIndex index = index(cache);
+        String first = baseUrl + "1";
+        String second = baseUrl + "2";
+
+        assertTrue(index.ensureIndexed(first));
+        assertTrue(index.ensureIndexed(second));
+        assertEquals(2, index.getIndexedPageCount());
+
+        cache.invalidate(first);
+        assertFalse(index.isIndexed(first));
+        assertTrue(index.isIndexed(second));
+
+        cache.clearCache();
+        assertEquals(0, index.getIndexedPageCount());
+    }
+
+    private URLContentCache cache(long maxBytes, long ttlMinutes) {
+        PageContentStore store = new PageContentStore(storeDir.toString(), false, 1 << 20, ttlMinutes);
+        return new URLContentCache(store, maxBytes, ttlMinutes, 5);
+    }
+
+    private static PageCorpusIndex index(URLContentCache cache) {
+        PageCorpusIndex index = new PageCorpusIndex();
+        ReflectionTestUtils.setField(index, "urlCache", cache);
+        ReflectionTestUtils.setField(index, "wordDictionary", new URLWordDictionary("compact"));
+        index.init();
+        return index;
+    }
+}
@@ -0,0 +1,155 @@
+package com.farhan.theatrecraft.core.service;
+
+import com.farhan.theatrecraft.core.storage.PageContentStore;
+import com.sun.net.httpserver.HttpServer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PageFetchPipelineTests {
+
+    private static final String SLOW_PAGE = "<html><body>slow soundbar page</body></html>";
+    private static final String SPEC_PAGE = "<html><body>Dolby Atmos soundbar with Wi-Fi. Atmos height, wi-fi streaming</body></html>";
+
+    @TempDir
+    Path storeDir;
+
+    private HttpServer server;
+    private final AtomicInteger requests = new AtomicInteger();
+    private String baseUrl;
+    private String slowUrl;
+
+    private URLContentCache cache;
+    private PageCorpusIndex corpusIndex;
+    private PageFetchPipeline pipeline;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        // Answers after 2.5 s, well past the pipeline's 1 s deadline
+        server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), 0);
+        server.createContext("/slow", exchange -> {
+            requests.incrementAndGet();
+            try {
+                Thread.sleep(2500);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            byte[] body = SLOW_PAGE.getBytes(StandardCharsets.UTF_8);
+            exchange.getResponseHeaders().set("Content-Type", "text/html; charset=utf-8");
+            exchange.sendResponseHeaders(200, body.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(body);
+            }
+        });
+        server.createContext("/spec", exchange -> {
+            byte[] body = SPEC_PAGE.getBytes(StandardCharsets.UTF_8);
+            exchange.getResponseHeaders().set("Content-Type", "text/html; charset=utf-8");
+            exchange.sendResponseHeaders(200, body.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(body);
+            }
+        });
+        server.setExecutor(Executors.newVirtualThreadPerTaskExecutor());
+        server.start();
+        baseUrl = "http://127.0.0.1:" + server.getAddress().getPort();
+        slowUrl = baseUrl + "/slow";
+
+        PageContentStore store = new PageContentStore(storeDir.toString(), false, 1 << 20, 60);
+        cache = new URLContentCache(store, 1 << 24, 60, 5);
+
+        corpusIndex = new PageCorpusIndex();
+        ReflectionTestUtils.setField(corpusIndex, "urlCache", cache);
+        ReflectionTestUtils.setField(corpusIndex, "wordDictionary", new URLWordDictionary("compact"));
+        corpusIndex.init();
+
+        pipeline = new PageFetchPipeline(4, 1);
+        ReflectionTestUtils.setField(pipeline, "corpusIndex", corpusIndex);
+    }
+
+    @AfterEach
+    void tearDown() {
+        server.stop(0);
+    }
+
+    @Test
+    void timedOutPageIsServedOnNextCall() {
+        PageFetchPipeline.FetchReport report = pipeline.fetchAndIndex(List.of(slowUrl));
+
+        assertEquals(1, report.getTimedOutCount());
+        assertTrue(report.getIndexedURLs().isEmpty());
+
+        // The straggler was left running: the next call gets the page (joining the fetch still in flight)
+        assertEquals("slow soundbar page", cache.getContent(slowUrl));
+        assertTrue(corpusIndex.isIndexed(slowUrl));
+        assertEquals(1, requests.get(), "the timed-out fetch should be reused, not repeated");
+    }
+
+    @Test
+    void pageWaitingForHostPermitIsTimedOut() {
+        // One fetch per host: the second page is still queued behind the first at the deadline
+        PageFetchPipeline singlePermit = new PageFetchPipeline(1, 1);
+        ReflectionTestUtils.setField(singlePermit, "corpusIndex", corpusIndex);
+
+        PageFetchPipeline.FetchReport report = singlePermit.fetchAndIndex(List.of(slowUrl + "?a", slowUrl + "?b"));
+
+        assertEquals(2, report.getTimedOutCount());
+        assertEquals(0, report.getFailedCount());
+        assertTrue(report.isPartial());
+    }
+
+    @Test
+    void interruptedCallerReportsUncollectedPagesAsTimedOut() throws Exception {
+        AtomicReference<PageFetchPipeline.FetchReport> report = new AtomicReference<>();
+        Thread caller = Thread.ofVirtual().start(() ->
+                report.set(pipeline.fetchAndIndex(List.of(slowUrl + "?a", slowUrl + "?b"))));
+        while (requests.get() < 2) {
+            Thread.sleep(10);
+        }
+        caller.interrupt();
+        caller.join();
+
+        assertEquals(2, report.get().getTimedOutCount());
+        assertTrue(report.get().isPartial());
+    }
+
+    @Test
+    void interruptedFetchIsNotCachedAsFailure() throws Exception {
+        Thread leader = Thread.ofVirtual().start(() -> cache.getContent(slowUrl));
+        while (requests.get() == 0) {
+            Thread.sleep(10);
+        }
+        leader.interrupt();
+        leader.join();
+
+        // No negative entry: the page is fetched again and cached
+        assertFalse(cache.isCached(slowUrl));
+        assertEquals("slow soundbar page", cache.getContent(slowUrl));
+        assertTrue(cache.isCached(slowUrl));
+    }
+
+    @Test
+    void findOccurrencesSumsPostingAndScannedTerms() {
+        String specUrl = baseUrl + "/spec";
+
+        // "atmos" from postings (2), "wi-fi" spans two tokens so it is scanned (2)
+        PageFetchPipeline.FetchReport report = pipeline.findOccurrences("atmos wi-fi", List.of(specUrl));
+        assertEquals(Map.of(specUrl, 4), report.getOccurrences());
+
+        assertTrue(pipeline.findOccurrences("projector", List.of(specUrl)).getOccurrences().isEmpty());
+    }
+}
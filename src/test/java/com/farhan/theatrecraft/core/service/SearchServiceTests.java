@@ -0,0 +1,234 @@
+package com.farhan.theatrecraft.core.service;
+
+import com.farhan.theatrecraft.core.model.Brand;
+import com.farhan.theatrecraft.core.model.Product;
+import com.farhan.theatrecraft.core.search.SearchFrequency;
+import com.farhan.theatrecraft.core.storage.ProductCsvRepository;
+import com.farhan.theatrecraft.core.storage.SearchFrequencyCsvRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BooleanSupplier;
+import java.util.function.IntFunction;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SearchServiceTests {
+
+    private static final List<String> NAMES = List.of("Arc Ultra", "Arc Mini", "Beam Gen 2");
+
+    private SearchService service;
+
+    @AfterEach
+    void tearDown() {
+        if (service != null) {
+            service.shutdown();
+        }
+    }
+
+    @Test
+    void concurrentSearchesCountEveryHit() throws Exception {
+        service = newService("exact");
+        int threads = 8;
+        int searchesPerThread = 2000;
+
+        // Half the searches are "Arc Ultra", a quarter each "Arc Mini" and "Beam Gen 2"
+        runConcurrently(threads, searchesPerThread, i -> i % 4 == 0 ? "Beam Gen 2" : i % 2 == 0 ? "Arc Mini" : "Arc Ultra");
+
+        List<SearchFrequency> top = service.getTopSearches(3);
+        assertEquals(3, top.size());
+        assertEquals("Arc Ultra", top.get(0).getSearchTerm());
+        assertEquals(threads * searchesPerThread / 2, top.get(0).getCount());
+        assertEquals("Arc Mini", top.get(1).getSearchTerm());
+        assertEquals(threads * searchesPerThread / 4, top.get(1).getCount());
+        assertEquals(threads * searchesPerThread / 4, top.get(2).getCount());
+        assertEquals(threads * searchesPerThread / 2, service.estimateSearchFrequency("Arc Ultra"));
+    }
+
+    @Test
+    void autocompleteRankingFollowsSearchCounts() throws Exception {
+        service = newService("exact");
+        assertEquals("Arc Mini", service.autocomplete("arc").getSuggestions().get(0).getModelName());
+
+        for (int i = 0; i < 3; i++) {
+            service.search("Arc Ultra");
+        }
+        service.getTopSearches(1); // Refreshes the rankings without waiting for the worker
+
+        assertEquals("Arc Ultra", service.autocomplete("arc").getSuggestions().get(0).getModelName());
+    }
+
+    @Test
+    void autocompleteReturnsTopKRankedSuggestions() {
+        service = new SearchService(new InMemoryProductRepository(), new InMemoryFrequencyRepository(), true, 3600,
+                50, 100, 60_000, "exact", 272, 5, 20, "frequency", 1, "compact");
+        service.search("Arc Ultra");
+        service.getTopSearches(1);
+
+        List<Product> suggestions = service.autocomplete("arc").getSuggestions();
+        assertEquals(1, suggestions.size());
+        assertEquals("Arc Ultra", suggestions.get(0).getModelName());
+    }
+
+    @Test
+    void approximateModeCountsRawQueriesConcurrently() throws Exception {
+        service = newService("approximate");
+        int threads = 8;
+        int searchesPerThread = 2000;
+
+        runConcurrently(threads, searchesPerThread, i -> i % 2 == 0 ? "arc ultra" : "No Such Product " + (i % 3));
+
+        assertEquals(threads * searchesPerThread / 2, service.estimateSearchFrequency("Arc  ULTRA"));
+        List<SearchFrequency> top = service.getTopSearches(2);
+        assertEquals("arc ultra", top.get(0).getSearchTerm());
+        assertEquals(threads * searchesPerThread / 2, top.get(0).getCount());
+        assertEquals(threads * searchesPerThread, service.getFrequencyStats().getTotalQueries());
+    }
+
+    @Test
+    void approximateCountsSurviveRestart() {
+        InMemoryFrequencyRepository repository = new InMemoryFrequencyRepository();
+        service = newService("approximate", repository, 0);
+        for (int i = 0; i < 4; i++) {
+            service.search("Arc  Ultra");
+        }
+        service.search("no such product");
+        service.shutdown(); // Final flush
+
+        assertEquals(Map.of("arc ultra", 4L, "no such product", 1L), repository.saved);
+        service = newService("approximate", repository, 0);
+        assertEquals(4, service.estimateSearchFrequency("arc ultra"));
+        assertEquals("arc ultra", service.getTopSearches(1).get(0).getSearchTerm());
+    }
+
+    @Test
+    void flushRetriesAfterFailedSavePassesThreshold() throws Exception {
+        InMemoryFrequencyRepository repository = new InMemoryFrequencyRepository();
+        repository.failures = 1;
+        service = newService("exact", repository, 3);
+
+        for (int i = 0; i < 3; i++) {
+            service.search("Arc Ultra");
+        }
+        waitFor(() -> repository.saves == 1); // Failed: the 3 updates are pending again
+
+        service.search("Arc Ultra"); // 4 pending, past the threshold
+        waitFor(() -> repository.saves == 2);
+        assertEquals(Map.of("Arc Ultra", 4L), repository.saved);
+    }
+
+    @Test
+    void nonPositiveThresholdOnlyFlushesOnInterval() throws Exception {
+        InMemoryFrequencyRepository repository = new InMemoryFrequencyRepository();
+        service = newService("exact", repository, 0);
+
+        for (int i = 0; i < 5; i++) {
+            service.search("Arc Mini");
+        }
+        Thread.sleep(200);
+        assertEquals(0, repository.saves);
+
+        service.shutdown(); // Final flush
+        assertEquals(Map.of("Arc Mini", 5L), repository.saved);
+    }
+
+    @Test
+    void nonPositiveIntervalsDoNotFailStartup() {
+        service = new SearchService(new InMemoryProductRepository(), new InMemoryFrequencyRepository(), true, 0,
+                50, 100, -1, "exact", 272, 5, 20, "frequency", 5, "compact");
+        assertTrue(service.search("Arc Mini").isExactMatch());
+    }
+
+    private static void waitFor(BooleanSupplier condition) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 5000;
+        while (!condition.getAsBoolean()) {
+            assertTrue(System.currentTimeMillis() < deadline, "timed out waiting");
+            Thread.sleep(10);
+        }
+    }
+
+    /**
+     * Run searches from several threads at once and wait for all of them
+     */
+    private void runConcurrently(int threads, int searchesPerThread, IntFunction<String> query)
+            throws InterruptedException {
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        CountDownLatch start = new CountDownLatch(1);
+        for (int t = 0; t < threads; t++) {
+            executor.execute(() -> {
+                try {
+                    start.await();
+                } catch (InterruptedException e) {
+                    return;
+                }
+                for (int i = 0; i < searchesPerThread; i++) {
+                    service.search(query.apply(i));
+                }
+            });
+        }
+        start.countDown();
+        executor.shutdown();
+        assertTrue(executor.awaitTermination(60, TimeUnit.SECONDS));
+    }
+
+    static SearchService newService(String mode) {
+        return newService(mode, new InMemoryFrequencyRepository(), 50);
+    }
+
+    static SearchService newService(String mode, SearchFrequencyCsvRepository frequencyRepository, int flushAfterUpdates) {
+        return new SearchService(new InMemoryProductRepository(), frequencyRepository, true, 3600,
+                flushAfterUpdates, 100, 60_000, mode, 272, 5, 20, "frequency", 5, "compact");
+    }
+
+    /**
+     * Fixed catalog instead of data/products.csv
+     */
+    static class InMemoryProductRepository extends ProductCsvRepository {
+        @Override
+        public List<Product> loadAll() {
+            List<Product> products = new ArrayList<>();
+            for (int i = 0; i < NAMES.size(); i++) {
+                Product product = new Product();
+                product.setId("p" + i);
+                product.setBrand(Brand.SONOS);
+                product.setModelName(NAMES.get(i));
+                product.setProductUrl("https://example.com/p" + i);
+                products.add(product);
+            }
+            return products;
+        }
+    }
+
+    /**
+     * Keeps saved counters in memory instead of search_frequency.csv
+     */
+    static class InMemoryFrequencyRepository extends SearchFrequencyCsvRepository {
+        volatile Map<String, Long> saved = Map.of();
+        volatile int saves;
+        volatile int failures; // Saves still to fail
+
+        @Override
+        public Map<String, Long> loadAll() {
+            return new LinkedHashMap<>(saved);
+        }
+
+        @Override
+        public boolean saveAll(Map<String, Long> counts) {
+            saves++;
+            if (failures > 0) {
+                failures--;
+                return false;
+            }
+            saved = Map.copyOf(counts);
+            return true;
+        }
+    }
+}
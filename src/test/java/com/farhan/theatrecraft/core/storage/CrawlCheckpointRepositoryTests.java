@@ -0,0 +1,84 @@
+package com.farhan.theatrecraft.core.storage;
+
+import com.farhan.theatrecraft.core.model.Brand;
+import com.farhan.theatrecraft.core.model.Product;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CrawlCheckpointRepositoryTests {
+
+    @TempDir
+    Path directory;
+
+    private CrawlCheckpointRepository repository;
+
+    @BeforeEach
+    void setUp() {
+        repository = new CrawlCheckpointRepository(directory.toString(), 24);
+    }
+
+    @Test
+    void secondJobCannotOpenOwnedCheckpoint() {
+        repository.open(Brand.BOSE, "job-1", false);
+        repository.append(Brand.BOSE, "job-1", product("https://bose.example/a"));
+
+        assertThrows(IllegalStateException.class, () -> repository.open(Brand.BOSE, "job-2", false));
+
+        // The other job can neither write to nor delete the owner's file
+        repository.append(Brand.BOSE, "job-2", product("https://bose.example/b"));
+        repository.delete(Brand.BOSE, "job-2");
+        assertTrue(Files.exists(directory.resolve("BOSE.csv")));
+
+        repository.release(Brand.BOSE, "job-1");
+        CrawlCheckpointRepository.Checkpoint resumed = repository.open(Brand.BOSE, "job-2", false);
+        assertEquals(1, resumed.getProducts().size());
+        assertEquals("https://bose.example/a", resumed.getProducts().get(0).getProductUrl());
+        assertEquals("job-2", resumed.getJobId());
+    }
+
+    @Test
+    void deleteByOwnerRemovesCheckpoint() {
+        repository.open(Brand.SONOS, "job-1", true);
+        repository.append(Brand.SONOS, "job-1", product("https://sonos.example/a"));
+        repository.delete(Brand.SONOS, "job-1");
+
+        assertFalse(Files.exists(directory.resolve("SONOS.csv")));
+        assertTrue(repository.open(Brand.SONOS, "job-2", true).getProducts().isEmpty());
+    }
+
+    @Test
+    void checkpointOfOtherModeIsDiscarded() {
+        repository.open(Brand.BOSE, "job-1", true);
+        repository.append(Brand.BOSE, "job-1", product("https://bose.example/a"));
+        repository.release(Brand.BOSE, "job-1");
+
+        CrawlCheckpointRepository.Checkpoint full = repository.open(Brand.BOSE, "job-2", false);
+        assertFalse(full.isDelta());
+        assertTrue(full.getProducts().isEmpty());
+    }
+
+    @Test
+    void ownedCheckpointsAreNotUnfinished() {
+        repository.open(Brand.BOSE, "job-1", false);
+        repository.append(Brand.BOSE, "job-1", product("https://bose.example/a"));
+        assertTrue(repository.findUnfinished().isEmpty());
+
+        repository.release(Brand.BOSE, "job-1");
+        assertEquals(1, repository.findUnfinished().size());
+    }
+
+    private static Product product(String url) {
+        Product product = new Product();
+        product.setId(url);
+        product.setBrand(Brand.BOSE);
+        product.setModelName("Model " + url);
+        product.setProductUrl(url);
+        return product;
+    }
+}
@@ -0,0 +1,176 @@
+package com.farhan.theatrecraft.core.storage;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PageContentStoreTests {
+
+    // Small enough that a couple of short pages fill a segment
+    private static final long SEGMENT_BYTES = 150;
+
+    private static final String A = "https://example.com/a";
+    private static final String K = "https://example.com/k";
+    private static final String Z = "https://example.com/z";
+
+    @TempDir
+    Path directory;
+
+    private PageContentStore store;
+
+    @AfterEach
+    void tearDown() {
+        if (store != null) {
+            store.close();
+        }
+    }
+
+    @Test
+    void pagesSurviveRestart() {
+        store = open();
+        long fetchedAt = System.currentTimeMillis();
+        store.put(A, "page a", fetchedAt);
+        store.put(K, "page k", fetchedAt);
+
+        reopen();
+        assertEquals(2, store.size());
+        PageContentStore.StoredPage page = store.get(A);
+        assertEquals("page a", page.getContent());
+        assertEquals(fetchedAt, page.getTimestamp());
+
+        // Appended after the reload: read past the mapping made while loading
+        store.put(Z, "page z", fetchedAt);
+        assertEquals("page z", store.get(Z).getContent());
+        assertEquals("page k", store.get(K).getContent());
+    }
+
+    @Test
+    void replacedPageKeepsLatestVersionAfterRestart() {
+        store = open();
+        store.put(A, "page a", System.currentTimeMillis());
+        store.put(A, "page a again", System.currentTimeMillis());
+
+        reopen();
+        assertEquals("page a again", store.get(A).getContent());
+        assertEquals(1, store.size());
+    }
+
+    @Test
+    void removalSurvivesRestartWhileOlderSegmentHoldsSupersededRecord() {
+        store = open();
+        long now = System.currentTimeMillis();
+        store.put(A, "page a", now);           // segment 1
+        store.put(K, "page k", now);           // segment 1, stays live
+        store.remove(A);                       // segment 2: only a removal record
+        store.put(Z, randomText(60), now);     // segment 3, sealing segment 2
+        assertTrue(Files.exists(directory.resolve("segment-00002.dat")), "removal segment must be kept");
+
+        reopen();
+        assertNull(store.get(A), "removed page came back after restart");
+        assertEquals("page k", store.get(K).getContent());
+        assertNotNull(store.get(Z));
+    }
+
+    @Test
+    void removalSegmentIsDeletedOnceOlderSegmentsAreGone() {
+        store = open();
+        long now = System.currentTimeMillis();
+        store.put(A, "page a", now);
+        store.put(K, "page k", now);
+        store.remove(A);
+        store.put(Z, randomText(60), now);
+
+        // Segment 1 empties, so the removal-only segment 2 is no longer needed either
+        store.remove(K);
+        assertFalse(Files.exists(directory.resolve("segment-00001.dat")));
+        assertFalse(Files.exists(directory.resolve("segment-00002.dat")));
+
+        reopen();
+        assertNull(store.get(A));
+        assertNull(store.get(K));
+        assertNotNull(store.get(Z));
+    }
+
+    @Test
+    void stalePagesAreSweptWhenASegmentFills() {
+        store = open();
+        long expired = System.currentTimeMillis() - TimeUnit.HOURS.toMillis(2);
+        store.put(A, "page a", expired);       // segment 1, never read again
+        store.put(K, "page k", expired);
+        store.put(Z, randomText(60), System.currentTimeMillis()); // segment 2, sealing segment 1
+
+        assertFalse(Files.exists(directory.resolve("segment-00001.dat")), "stale segment should be deleted");
+        assertEquals(1, store.size());
+        assertNotNull(store.get(Z));
+    }
+
+    @Test
+    void negativePayloadLengthEndsTheScan() throws IOException {
+        store = open();
+        long now = System.currentTimeMillis();
+        store.put(A, "page a", now);
+        store.put(K, "page k", now);
+        store.close();
+
+        // Overwrite the second record's payload length (header: magic, timestamp, url length, payload length)
+        Path segment = directory.resolve("segment-00001.dat");
+        ByteBuffer bytes = ByteBuffer.wrap(Files.readAllBytes(segment));
+        int second = 20 + bytes.getInt(12) + bytes.getInt(16);
+        bytes.putInt(second + 16, -5);
+        Files.write(segment, bytes.array());
+
+        store = open();
+        assertEquals("page a", store.get(A).getContent());
+        assertNull(store.get(K));
+        assertEquals(second, Files.size(segment), "damaged record should be truncated");
+    }
+
+    @Test
+    void clearDeletesEverything() throws IOException {
+        store = open();
+        store.put(A, "page a", System.currentTimeMillis());
+        store.clear();
+        assertEquals(0, segmentFiles());
+
+        reopen();
+        assertNull(store.get(A));
+        assertEquals(0, store.size());
+    }
+
+    private PageContentStore open() {
+        return new PageContentStore(directory.toString(), true, SEGMENT_BYTES, 60);
+    }
+
+    private void reopen() {
+        store.close();
+        store = open();
+    }
+
+    private long segmentFiles() throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.filter(f -> f.getFileName().toString().startsWith("segment-")).count();
+        }
+    }
+
+    /**
+     * Text that gzip cannot shrink much, to fill a segment
+     */
+    private static String randomText(int length) {
+        Random random = new Random(42);
+        StringBuilder text = new StringBuilder(length);
+        for (int i = 0; i < length; i++) {
+            text.append((char) ('a' + random.nextInt(26)));
+        }
+        return text.toString();
+    }
+}